@@ -0,0 +1,14 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")"/.. && pwd)"
+JAR="$ROOT/target/ordered-map-benchmarks-1.0-SNAPSHOT-jmh.jar"
+JSON="$ROOT/results/benchmarks/jmh.json"
+
+if [[ ! -f "$JAR" ]]; then
+  echo "JMH jar not found at $JAR. Run 'mvn -Pjmh clean package' first." >&2
+  exit 1
+fi
+
+printf '\n▶ Running JMH microbenchmarks...\n'
+java -jar "$JAR" --json "$JSON" "$@"
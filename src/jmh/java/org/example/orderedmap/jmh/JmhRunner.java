@@ -0,0 +1,144 @@
+package org.example.orderedmap.jmh;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs {@link OrderedMapBenchmark} once per thread count and writes the scores in the {@code runs} layout used by
+ * {@code BenchmarkResult.writeJson}, so JMH and harness numbers can be plotted side by side.
+ */
+public final class JmhRunner {
+
+    private JmhRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("help")) {
+            printUsage(System.out);
+            return;
+        }
+        List<String> maps = csv(options.getOrDefault("maps", ""));
+        List<String> benchmarks = csv(options.getOrDefault("benchmarks", "get,put,range,workload"));
+        List<Integer> threads = csv(options.getOrDefault("threads", "1,4,8")).stream()
+                .map(Integer::parseInt)
+                .collect(Collectors.toList());
+        int forks = Integer.parseInt(options.getOrDefault("forks", "2"));
+        int warmupIterations = Integer.parseInt(options.getOrDefault("warmup-iterations", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        int seconds = Integer.parseInt(options.getOrDefault("time", "2"));
+        Path json = Path.of(options.getOrDefault("json", "results/jmh.json"));
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (int threadCount : threads) {
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .threads(threadCount)
+                    .forks(forks)
+                    .warmupIterations(warmupIterations)
+                    .warmupTime(TimeValue.seconds(seconds))
+                    .measurementIterations(iterations)
+                    .measurementTime(TimeValue.seconds(seconds));
+            for (String benchmark : benchmarks) {
+                builder.include(OrderedMapBenchmark.class.getName() + "\\." + benchmark + "$");
+            }
+            if (!maps.isEmpty()) {
+                builder.param("map", maps.toArray(new String[0]));
+            }
+            Collection<RunResult> results = new Runner(builder.build()).run();
+            for (RunResult result : results) {
+                runs.add(toRun(result, threadCount));
+            }
+        }
+
+        Path parent = json.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("harness", "jmh");
+        config.put("maps", maps);
+        config.put("benchmarks", benchmarks);
+        config.put("threads", threads);
+        config.put("forks", forks);
+        config.put("warmupIterations", warmupIterations);
+        config.put("iterations", iterations);
+        config.put("iterationSeconds", seconds);
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("config", config);
+        document.put("runs", runs);
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(json.toFile(), document);
+        System.out.println("JMH results written to " + json);
+    }
+
+    private static Map<String, Object> toRun(RunResult result, int threadCount) {
+        String label = result.getParams().getBenchmark();
+        String benchmark = label.substring(label.lastIndexOf('.') + 1);
+        Result<?> primary = result.getPrimaryResult();
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("map", result.getParams().getParam("map"));
+        run.put("workload", "workload".equals(benchmark) ? result.getParams().getParam("workload") : benchmark);
+        run.put("threads", threadCount);
+        run.put("repeat", 1);
+        run.put("opsPerSec", primary.getScore());
+        double error = primary.getScoreError();
+        run.put("opsPerSecError", Double.isNaN(error) ? null : error);
+        run.put("samples", primary.getSampleCount());
+        run.put("unit", primary.getScoreUnit());
+        return run;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--help".equals(arg) || "-h".equals(arg)) {
+                options.put("help", "true");
+                continue;
+            }
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            options.put(arg.substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static List<String> csv(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: java -jar ordered-map-benchmarks-jmh.jar [options]\n");
+        out.println("Options:");
+        out.println("  --maps <a,b,c>            Map ids to benchmark (default: all)");
+        out.println("  --benchmarks <...>        Benchmarks to run (get, put, range, workload)");
+        out.println("  --threads <...>           Comma-separated thread counts (default 1,4,8)");
+        out.println("  --forks <n>               Forked JVMs per benchmark (default 2)");
+        out.println("  --warmup-iterations <n>   Warmup iterations per fork (default 3)");
+        out.println("  --iterations <n>          Measurement iterations per fork (default 5)");
+        out.println("  --time <seconds>          Duration of each iteration (default 2)");
+        out.println("  --json <path>             Output path (default results/jmh.json)");
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.orderedmap.jmh;
+
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.benchmarks.MapType;
+import org.example.orderedmap.benchmarks.WorkloadProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * JMH counterpart of the {@code BenchmarkRunner} workloads: one seeded map per trial, per-thread key streams,
+ * and every result consumed by a {@link Blackhole}. Thread counts are supplied by {@link JmhRunner} ({@code -t}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderedMapBenchmark {
+
+    @Param({"global", "sharded", "skiplist", "tinystm", "tinystm-mv", "stm"})
+    public String map;
+
+    @Param({"10000"})
+    public int initialSize;
+
+    @Param({"65536"})
+    public int keySpace;
+
+    @Param({"128"})
+    public int rangeWidth;
+
+    private OrderedMap<Integer, Integer> target;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        target = MapType.fromId(map).create();
+        for (int i = 0; i < initialSize; i++) {
+            target.put(i, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        target.close();
+    }
+
+    /**
+     * Per-thread random stream, seeded by thread index so runs are reproducible across forks.
+     */
+    @State(Scope.Thread)
+    public static class Keys {
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void seed(ThreadParams threads) {
+            random = new SplittableRandom(1337L + threads.getThreadIndex());
+        }
+    }
+
+    /**
+     * Drives the harness workload mixes, which also cover removes without draining the map.
+     */
+    @State(Scope.Thread)
+    public static class Mix {
+        @Param({"read-heavy", "write-heavy", "mixed", "range-heavy"})
+        public String workload;
+
+        private WorkloadProfile profile;
+
+        @Setup(Level.Trial)
+        public void resolve() {
+            profile = WorkloadProfile.fromId(workload);
+        }
+    }
+
+    @Benchmark
+    public Integer get(Keys keys) {
+        return target.get(keys.random.nextInt(keySpace));
+    }
+
+    @Benchmark
+    public Integer put(Keys keys) {
+        return target.put(keys.random.nextInt(keySpace), keys.random.nextInt());
+    }
+
+    @Benchmark
+    public NavigableMap<Integer, Integer> range(Keys keys) {
+        int from = keys.random.nextInt(keySpace);
+        return target.rangeQuery(from, true, Math.min(keySpace - 1, from + rangeWidth), true);
+    }
+
+    @Benchmark
+    public void workload(Keys keys, Mix mix, Blackhole blackhole) {
+        int key = keys.random.nextInt(keySpace);
+        switch (mix.profile.chooseOperation(keys.random)) {
+            case GET -> blackhole.consume(target.get(key));
+            case PUT -> blackhole.consume(target.put(key, keys.random.nextInt()));
+            case REMOVE -> blackhole.consume(target.remove(key));
+            case RANGE -> blackhole.consume(target.rangeQuery(key, true, Math.min(keySpace - 1, key + rangeWidth), true));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.orderedmap.api;
+
+/**
+ * Reasons a transactional attempt can be rolled back and retried.
+ */
+public enum AbortCause {
+    /** A read observed a version committed after the transaction started. */
+    READ_VERSION,
+    /** Commit-time read-set validation found a conflicting commit. */
+    VALIDATION,
+    /** A write lock could not be acquired during commit. */
+    LOCK,
+    /** The runtime rolled back the attempt without exposing why. */
+    UNCLASSIFIED
+}
@@ -0,0 +1,17 @@
+package org.example.orderedmap.api;
+
+/**
+ * Properties an {@link OrderedMapProvider} declares for the maps it creates.
+ */
+public enum MapCapability {
+    /** Orders keys by the comparator passed to {@link OrderedMapProvider#create}, not only naturally. */
+    CUSTOM_ORDER,
+    /** Overrides {@link OrderedMap#bulkLoad} with a build from sorted input. */
+    BULK_LOAD,
+    /** {@link OrderedMap#rangeQuery} returns an atomic snapshot, not a weakly consistent view. */
+    ATOMIC_RANGE,
+    /** Overrides {@link OrderedMap#atomicUpdate} to update several keys in one atomic step. */
+    ATOMIC_MULTI_KEY,
+    /** Reports transaction commits and aborts through {@link OrderedMap#snapshotMetrics()}. */
+    TRANSACTIONAL
+}
@@ -1,21 +1,53 @@
 package org.example.orderedmap.api;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Immutable snapshot of auxiliary metrics exposed by an {@link OrderedMap} implementation.
  */
 public final class MapMetrics {
+
+    /**
+     * Labels of the retry histogram buckets; bucket {@code i > 0} covers {@code [2^(i-1), 2^i)} retries.
+     */
+    public static final String[] RETRY_BUCKET_LABELS = {"0", "1", "2-3", "4-7", "8-15", "16-31", "32-63", "64+"};
+
+    private static final int OPERATIONS = MapOperation.values().length;
+    private static final int CAUSES = AbortCause.values().length;
+
     private final long stmCommits;
     private final long stmAborts;
     private final long maxRetries;
+    private final long[] abortsByCause;
+    private final long[] commitsByOperation;
+    private final long[] abortsByOperation;
+    private final long[] retryHistogram;
+    private final long abortedNanos;
 
     private static final MapMetrics EMPTY = new MapMetrics(0L, 0L, 0L);
 
     public MapMetrics(long stmCommits, long stmAborts, long maxRetries) {
+        this(stmCommits, stmAborts, maxRetries, new long[CAUSES], new long[OPERATIONS], new long[OPERATIONS],
+                new long[RETRY_BUCKET_LABELS.length], 0L);
+    }
+
+    public MapMetrics(long stmCommits,
+                      long stmAborts,
+                      long maxRetries,
+                      long[] abortsByCause,
+                      long[] commitsByOperation,
+                      long[] abortsByOperation,
+                      long[] retryHistogram,
+                      long abortedNanos) {
         this.stmCommits = stmCommits;
         this.stmAborts = stmAborts;
         this.maxRetries = maxRetries;
+        this.abortsByCause = copyOf(abortsByCause, CAUSES, "abortsByCause");
+        this.commitsByOperation = copyOf(commitsByOperation, OPERATIONS, "commitsByOperation");
+        this.abortsByOperation = copyOf(abortsByOperation, OPERATIONS, "abortsByOperation");
+        this.retryHistogram = copyOf(retryHistogram, RETRY_BUCKET_LABELS.length, "retryHistogram");
+        this.abortedNanos = abortedNanos;
     }
 
     public long stmCommits() {
@@ -30,16 +62,83 @@ public final class MapMetrics {
         return maxRetries;
     }
 
+    public long aborts(AbortCause cause) {
+        return abortsByCause[cause.ordinal()];
+    }
+
+    public long commits(MapOperation operation) {
+        return commitsByOperation[operation.ordinal()];
+    }
+
+    public long aborts(MapOperation operation) {
+        return abortsByOperation[operation.ordinal()];
+    }
+
+    /**
+     * Number of committed transactions per retry bucket, see {@link #RETRY_BUCKET_LABELS}.
+     */
+    public long[] retryHistogram() {
+        return retryHistogram.clone();
+    }
+
+    /**
+     * Wall-clock time spent in attempts that were eventually rolled back.
+     */
+    public long abortedNanos() {
+        return abortedNanos;
+    }
+
     public static MapMetrics empty() {
         return EMPTY;
     }
 
+    /**
+     * Maps a retry count onto its {@link #retryHistogram()} bucket index.
+     */
+    public static int retryBucket(long retries) {
+        if (retries <= 0L) {
+            return 0;
+        }
+        return Math.min(RETRY_BUCKET_LABELS.length - 1, 64 - Long.numberOfLeadingZeros(retries));
+    }
+
     public MapMetrics diff(MapMetrics baseline) {
         Objects.requireNonNull(baseline, "baseline");
         return new MapMetrics(
                 stmCommits - baseline.stmCommits,
                 stmAborts - baseline.stmAborts,
-                Math.max(maxRetries, baseline.maxRetries)
+                Math.max(maxRetries, baseline.maxRetries),
+                subtract(abortsByCause, baseline.abortsByCause),
+                subtract(commitsByOperation, baseline.commitsByOperation),
+                subtract(abortsByOperation, baseline.abortsByOperation),
+                subtract(retryHistogram, baseline.retryHistogram),
+                abortedNanos - baseline.abortedNanos
         );
     }
+
+    private static long[] copyOf(long[] values, int length, String name) {
+        Objects.requireNonNull(values, name);
+        if (values.length != length) {
+            throw new IllegalArgumentException(name + " must have " + length + " entries");
+        }
+        return values.clone();
+    }
+
+    private static long[] subtract(long[] current, long[] baseline) {
+        long[] result = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            result[i] = current[i] - baseline[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MapMetrics{commits=" + stmCommits
+                + ", aborts=" + stmAborts
+                + ", maxRetries=" + maxRetries
+                + ", abortsByCause=" + Arrays.toString(abortsByCause)
+                + ", retryHistogram=" + Arrays.toString(retryHistogram)
+                + ", abortedNanos=" + abortedNanos + '}';
+    }
 }
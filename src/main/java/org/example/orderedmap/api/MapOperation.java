@@ -0,0 +1,27 @@
+package org.example.orderedmap.api;
+
+/**
+ * Operation categories an {@link OrderedMap} implementation attributes its internal metrics to.
+ */
+public enum MapOperation {
+    GET(true),
+    PUT(false),
+    REMOVE(false),
+    RANGE(true),
+    SIZE(true),
+    CLEAR(false),
+    ATOMIC_UPDATE(false);
+
+    private final boolean readOnly;
+
+    MapOperation(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Whether the operation never modifies the map, allowing implementations to serve it from a snapshot.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+}
@@ -1,6 +1,10 @@
 package org.example.orderedmap.api;
 
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.function.UnaryOperator;
 
 /**
  * Minimal abstraction for a thread-safe ordered map with range query support.
@@ -19,6 +23,32 @@ public interface OrderedMap<K, V> extends AutoCloseable {
 
     void clear();
 
+    /**
+     * Loads {@code sorted} into the map, as if by {@link #put} for every entry. Implementations build their
+     * structure directly from the sorted input when the map is empty and ordered like {@code sorted}, and fall
+     * back to individual puts otherwise; either way the load is meant for populating a map before it is shared,
+     * not for running alongside other operations.
+     */
+    default void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        for (Map.Entry<K, ? extends V> entry : sorted.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Replaces the values of {@code keys} with what {@code update} computes from them, as one atomic step: no
+     * other operation sees some of the writes without the others, and no value changes between the read and
+     * the write. {@code update} gets the current values in the order of {@code keys}, {@code null} for an absent
+     * key, and returns the new values in the same order, {@code null} removing the key. It may run more than once
+     * and must not have side effects. Keys must be distinct.
+     *
+     * @throws UnsupportedOperationException if the map cannot update several keys atomically, see
+     *                                       {@link MapCapability#ATOMIC_MULTI_KEY}
+     */
+    default void atomicUpdate(List<K> keys, UnaryOperator<List<V>> update) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot update keys atomically");
+    }
+
     default MapMetrics snapshotMetrics() {
         return MapMetrics.empty();
     }
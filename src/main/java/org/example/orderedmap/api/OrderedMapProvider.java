@@ -0,0 +1,39 @@
+package org.example.orderedmap.api;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service provider for one kind of {@link OrderedMap}, discovered through {@link java.util.ServiceLoader}. An
+ * implementation outside this project is benchmarked by putting a jar on the class path that lists its provider
+ * in {@code META-INF/services/org.example.orderedmap.api.OrderedMapProvider}; the harness then accepts its id in
+ * {@code --maps}, optionally with parameters, e.g. {@code sharded:shards=64}.
+ */
+public interface OrderedMapProvider {
+
+    /**
+     * Unique id used in {@code --maps} and in every result; lower case, without {@code :}, {@code =} or {@code ,}.
+     */
+    String id();
+
+    /**
+     * Parameters the maps accept, each with its default value. Names are lower case; map ids list the given
+     * ones in alphabetical order.
+     */
+    default Map<String, String> parameters() {
+        return Map.of();
+    }
+
+    default Set<MapCapability> capabilities() {
+        return Set.of();
+    }
+
+    /**
+     * Creates an empty map. {@code parameters} holds a value for every key of {@link #parameters()}, defaults
+     * included; invalid values are rejected with an {@link IllegalArgumentException}. A {@code null}
+     * comparator means natural ordering; providers without {@link MapCapability#CUSTOM_ORDER} only get
+     * {@code null}.
+     */
+    <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator);
+}
@@ -0,0 +1,154 @@
+package org.example.orderedmap.api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Read-only {@link SortedMap} over parallel key and value arrays whose keys are already in strictly ascending
+ * order, natural or that of the given comparator. It lets {@link java.util.TreeMap} and
+ * {@link java.util.concurrent.ConcurrentSkipListMap} take their linear-time sorted build path for
+ * {@link OrderedMap#bulkLoad} without first materialising a second map. The arrays are not copied and must not
+ * change while the view is in use.
+ */
+public final class SortedEntries<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+
+    private final K[] keys;
+    private final V[] values;
+    private final Comparator<? super K> comparator;
+    private final int from;
+    private final int to;
+
+    public SortedEntries(K[] keys, V[] values) {
+        this(keys, values, keys.length, null);
+    }
+
+    /**
+     * View of the first {@code length} entries of the arrays, ordered by {@code comparator}, or naturally when it
+     * is {@code null}.
+     */
+    public SortedEntries(K[] keys, V[] values, int length, Comparator<? super K> comparator) {
+        this(keys, values, comparator, 0, length);
+        if (length < 0 || length > keys.length || length > values.length) {
+            throw new IllegalArgumentException("length must be within both arrays");
+        }
+    }
+
+    private SortedEntries(K[] keys, V[] values, Comparator<? super K> comparator, int from, int to) {
+        this.keys = Objects.requireNonNull(keys, "keys");
+        this.values = Objects.requireNonNull(values, "values");
+        this.comparator = comparator;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return search(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = search(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public K firstKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return keys[from];
+    }
+
+    @Override
+    public K lastKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return keys[to - 1];
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        int lower = lowerBound(fromKey);
+        int upper = lowerBound(toKey);
+        if (upper < lower) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SortedEntries<>(keys, values, comparator, lower, upper);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return new SortedEntries<>(keys, values, comparator, from, lowerBound(toKey));
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return new SortedEntries<>(keys, values, comparator, lowerBound(fromKey), to);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    private int next = from;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < to;
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (next >= to) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<K, V> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    /**
+     * Index of the first key at or after {@code key} within this view.
+     */
+    private int lowerBound(K key) {
+        int index = search(Objects.requireNonNull(key, "key"));
+        return index >= 0 ? index : -index - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(Object key) {
+        return comparator == null
+                ? Arrays.binarySearch(keys, from, to, key)
+                : Arrays.binarySearch(keys, from, to, (K) key, comparator);
+    }
+}
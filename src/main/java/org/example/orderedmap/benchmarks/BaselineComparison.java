@@ -0,0 +1,294 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a candidate result set against a stored baseline, cell by cell.
+ *
+ * <p>Cells are matched by (map, workload, threads, target rate); the rate keeps open-loop sweeps from mixing
+ * samples taken at different loads. Within a cell the repeats of each side form the samples. A metric regresses
+ * when its median moves the wrong way by more than the threshold and the Mann-Whitney test rejects "no change"
+ * at the configured alpha. With too few repeats for the test ever to reach alpha, the threshold alone decides
+ * and the verdict is marked unverified.
+ */
+final class BaselineComparison {
+
+    private static final double CONFIDENCE = 0.95d;
+    private static final int RESAMPLES = 2_000;
+
+    private final Path baselinePath;
+    private final double threshold;
+    private final double alpha;
+    private final List<CellComparison> cells;
+    private final List<String> baselineOnly;
+    private final List<String> candidateOnly;
+
+    private BaselineComparison(Path baselinePath, double threshold, double alpha, List<CellComparison> cells,
+                               List<String> baselineOnly, List<String> candidateOnly) {
+        this.baselinePath = baselinePath;
+        this.threshold = threshold;
+        this.alpha = alpha;
+        this.cells = cells;
+        this.baselineOnly = baselineOnly;
+        this.candidateOnly = candidateOnly;
+    }
+
+    static BaselineComparison compare(Path baseline, BenchmarkResult candidate, double threshold, double alpha)
+            throws IOException {
+        Map<String, CellSamples> candidateCells = new LinkedHashMap<>();
+        for (RunResult run : candidate.runs()) {
+            cell(candidateCells, run.mapType().id(), run.workload().id(), run.threadCount(), run.targetRate())
+                    .add(run.operationsPerSecond(), run.latency().p99Micros());
+        }
+        return compare(baseline, load(baseline), candidateCells, threshold, alpha);
+    }
+
+    static BaselineComparison compare(Path baseline, Path candidate, double threshold, double alpha)
+            throws IOException {
+        return compare(baseline, load(baseline), load(candidate), threshold, alpha);
+    }
+
+    private static BaselineComparison compare(Path baselinePath,
+                                              Map<String, CellSamples> baseline,
+                                              Map<String, CellSamples> candidate,
+                                              double threshold,
+                                              double alpha) {
+        List<CellComparison> cells = new ArrayList<>();
+        List<String> candidateOnly = new ArrayList<>();
+        for (Map.Entry<String, CellSamples> entry : candidate.entrySet()) {
+            CellSamples before = baseline.get(entry.getKey());
+            if (before == null) {
+                candidateOnly.add(entry.getValue().label());
+                continue;
+            }
+            CellSamples after = entry.getValue();
+            cells.add(new CellComparison(after,
+                    MetricComparison.of(before.throughput(), after.throughput(), true, threshold, alpha),
+                    MetricComparison.of(before.p99(), after.p99(), false, threshold, alpha)));
+        }
+        List<String> baselineOnly = baseline.entrySet().stream()
+                .filter(entry -> !candidate.containsKey(entry.getKey()))
+                .map(entry -> entry.getValue().label())
+                .toList();
+        return new BaselineComparison(baselinePath, threshold, alpha, cells, baselineOnly, candidateOnly);
+    }
+
+    /**
+     * Reads the runs of a result file written by {@link BenchmarkResult#writeJson(Path)}.
+     */
+    private static Map<String, CellSamples> load(Path path) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(path.toFile());
+        JsonNode runs = root.path("runs");
+        if (!runs.isArray()) {
+            throw new IllegalArgumentException("No runs in result file " + path);
+        }
+        Map<String, CellSamples> cells = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            cell(cells, run.path("map").asText(), run.path("workload").asText(), run.path("threads").asInt(),
+                    run.path("targetRate").asLong(0L))
+                    .add(run.path("opsPerSec").asDouble(), run.path("latency").path("p99Micros").asDouble());
+        }
+        return cells;
+    }
+
+    private static CellSamples cell(Map<String, CellSamples> cells, String map, String workload, int threads,
+                                    long targetRate) {
+        String key = map + '|' + workload + '|' + threads + '|' + targetRate;
+        return cells.computeIfAbsent(key, ignored -> new CellSamples(map, workload, threads, targetRate));
+    }
+
+    boolean hasRegressions() {
+        return cells.stream().anyMatch(CellComparison::regressed);
+    }
+
+    List<CellComparison> cells() {
+        return cells;
+    }
+
+    void printSummary(PrintStream out) {
+        out.printf(Locale.ROOT, "%nComparison against %s (threshold %.1f%%, alpha %.3f)%n", baselinePath,
+                threshold * 100.0d, alpha);
+        out.printf("%-10s %-12s %-7s %-9s %-14s %-22s %-8s %-12s %-22s %-8s %s%n",
+                "Map", "Workload", "Threads", "Target/s", "Ops/sec", "Change [95% CI]", "p",
+                "P99(us)", "Change [95% CI]", "p", "Verdict");
+        for (CellComparison cell : cells) {
+            out.printf(Locale.ROOT, "%-10s %-12s %-7d %-9s %-14.1f %-22s %-8.3f %-12.2f %-22s %-8.3f %s%n",
+                    cell.samples().map(),
+                    cell.samples().workload(),
+                    cell.samples().threads(),
+                    cell.samples().targetRate() > 0L ? Long.toString(cell.samples().targetRate()) : "closed",
+                    cell.throughput().candidateMedian(),
+                    cell.throughput().describeChange(),
+                    cell.throughput().pValue(),
+                    cell.p99().candidateMedian(),
+                    cell.p99().describeChange(),
+                    cell.p99().pValue(),
+                    cell.verdict());
+        }
+        baselineOnly.forEach(label -> out.println("Only in baseline: " + label));
+        candidateOnly.forEach(label -> out.println("Only in candidate: " + label));
+        long regressions = cells.stream().filter(CellComparison::regressed).count();
+        out.println(regressions == 0L ? "No regressions." : regressions + " cell(s) regressed.");
+    }
+
+    /**
+     * Writes the report as HTML when {@code path} ends in {@code .html}/{@code .htm}, as markdown otherwise.
+     */
+    void writeReport(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        Files.writeString(path, name.endsWith(".html") || name.endsWith(".htm") ? html() : markdown());
+    }
+
+    private String markdown() {
+        StringBuilder md = new StringBuilder();
+        md.append("# Benchmark comparison\n\n");
+        md.append(String.format(Locale.ROOT, "Baseline: `%s`. Regression threshold %.1f%%, alpha %.3f, %d%% bootstrap"
+                + " confidence intervals of the median change.%n%n", baselinePath, threshold * 100.0d, alpha,
+                Math.round(CONFIDENCE * 100.0d)));
+        md.append("| Map | Workload | Threads | Target/s | Baseline ops/s | Candidate ops/s | Δ ops/s [CI] | p | "
+                + "Baseline p99 (µs) | Candidate p99 (µs) | Δ p99 [CI] | p | Verdict |\n");
+        md.append("|---|---|---:|---:|---:|---:|---|---:|---:|---:|---|---:|---|\n");
+        for (CellComparison cell : cells) {
+            md.append(String.format(Locale.ROOT,
+                    "| %s | %s | %d | %s | %.1f | %.1f | %s | %.3f | %.2f | %.2f | %s | %.3f | %s |%n",
+                    cell.samples().map(), cell.samples().workload(), cell.samples().threads(),
+                    cell.samples().targetRate() > 0L ? Long.toString(cell.samples().targetRate()) : "closed",
+                    cell.throughput().baselineMedian(), cell.throughput().candidateMedian(),
+                    cell.throughput().describeChange(), cell.throughput().pValue(),
+                    cell.p99().baselineMedian(), cell.p99().candidateMedian(),
+                    cell.p99().describeChange(), cell.p99().pValue(),
+                    cell.regressed() ? "**" + cell.verdict() + "**" : cell.verdict()));
+        }
+        if (!baselineOnly.isEmpty() || !candidateOnly.isEmpty()) {
+            md.append('\n');
+            baselineOnly.forEach(label -> md.append("- Only in baseline: ").append(label).append('\n'));
+            candidateOnly.forEach(label -> md.append("- Only in candidate: ").append(label).append('\n'));
+        }
+        return md.toString();
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Benchmark comparison</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append("td:nth-child(-n+2){text-align:left}.regressed{background:#fdd}.improved{background:#dfd}")
+                .append("</style></head><body>\n<h1>Benchmark comparison</h1>\n");
+        html.append(String.format(Locale.ROOT, "<p>Baseline: <code>%s</code>. Regression threshold %.1f%%, alpha"
+                + " %.3f.</p>%n", escape(baselinePath.toString()), threshold * 100.0d, alpha));
+        html.append("<table><tr><th>Map</th><th>Workload</th><th>Threads</th><th>Target/s</th>")
+                .append("<th>Baseline ops/s</th><th>Candidate ops/s</th><th>Δ ops/s [CI]</th><th>p</th>")
+                .append("<th>Baseline p99 (µs)</th><th>Candidate p99 (µs)</th><th>Δ p99 [CI]</th><th>p</th>")
+                .append("<th>Verdict</th></tr>\n");
+        for (CellComparison cell : cells) {
+            String css = cell.regressed() ? "regressed" : cell.improved() ? "improved" : "";
+            html.append(String.format(Locale.ROOT, "<tr class=\"%s\"><td>%s</td><td>%s</td><td>%d</td><td>%s</td>"
+                            + "<td>%.1f</td><td>%.1f</td><td>%s</td><td>%.3f</td><td>%.2f</td><td>%.2f</td>"
+                            + "<td>%s</td><td>%.3f</td><td>%s</td></tr>%n",
+                    css, escape(cell.samples().map()), escape(cell.samples().workload()), cell.samples().threads(),
+                    cell.samples().targetRate() > 0L ? Long.toString(cell.samples().targetRate()) : "closed",
+                    cell.throughput().baselineMedian(), cell.throughput().candidateMedian(),
+                    cell.throughput().describeChange(), cell.throughput().pValue(),
+                    cell.p99().baselineMedian(), cell.p99().candidateMedian(),
+                    cell.p99().describeChange(), cell.p99().pValue(), escape(cell.verdict())));
+        }
+        html.append("</table>\n");
+        baselineOnly.forEach(label -> html.append("<p>Only in baseline: ").append(escape(label)).append("</p>\n"));
+        candidateOnly.forEach(label -> html.append("<p>Only in candidate: ").append(escape(label)).append("</p>\n"));
+        return html.append("</body></html>\n").toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Repeats of one cell: throughput and p99 per run.
+     */
+    private record CellSamples(String map, String workload, int threads, long targetRate,
+                               List<Double> throughputs, List<Double> p99s) {
+
+        CellSamples(String map, String workload, int threads, long targetRate) {
+            this(map, workload, threads, targetRate, new ArrayList<>(), new ArrayList<>());
+        }
+
+        void add(double throughput, double p99) {
+            throughputs.add(throughput);
+            p99s.add(p99);
+        }
+
+        double[] throughput() {
+            return throughputs.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        double[] p99() {
+            return p99s.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        String label() {
+            return map + "/" + workload + "/" + threads + "t" + (targetRate > 0L ? "@" + targetRate : "");
+        }
+    }
+
+    record CellComparison(CellSamples samples, MetricComparison throughput, MetricComparison p99) {
+
+        boolean regressed() {
+            return throughput.regressed() || p99.regressed();
+        }
+
+        boolean improved() {
+            return !regressed() && (throughput.improved() || p99.improved());
+        }
+
+        String verdict() {
+            String verdict = regressed() ? "REGRESSION" : improved() ? "improvement" : "no change";
+            return throughput.verified() && p99.verified() ? verdict : verdict + " (unverified)";
+        }
+    }
+
+    /**
+     * One metric of one cell. {@code change} is the relative change of the median, candidate over baseline.
+     */
+    record MetricComparison(double baselineMedian, double candidateMedian, double change, double ciLow,
+                            double ciHigh, double pValue, boolean verified, boolean regressed, boolean improved) {
+
+        static MetricComparison of(double[] baseline, double[] candidate, boolean higherIsBetter, double threshold,
+                                   double alpha) {
+            double before = Statistics.median(baseline);
+            double after = Statistics.median(candidate);
+            double change = after / before - 1.0d;
+            double[] ci = baseline.length > 1 && candidate.length > 1
+                    ? Statistics.bootstrapRelativeMedianChange(baseline, candidate, CONFIDENCE, RESAMPLES)
+                    : new double[] {Double.NaN, Double.NaN};
+            double p = Statistics.mannWhitneyP(baseline, candidate);
+            boolean verified = Statistics.minimumMannWhitneyP(baseline.length, candidate.length) < alpha;
+            boolean significant = !verified || p < alpha;
+            double worse = higherIsBetter ? -change : change;
+            return new MetricComparison(before, after, change, ci[0], ci[1], p, verified,
+                    worse > threshold && significant, -worse > threshold && significant);
+        }
+
+        String describeChange() {
+            if (Double.isNaN(ciLow)) {
+                return String.format(Locale.ROOT, "%+.1f%%", change * 100.0d);
+            }
+            return String.format(Locale.ROOT, "%+.1f%% [%+.1f, %+.1f]", change * 100.0d, ciLow * 100.0d,
+                    ciHigh * 100.0d);
+        }
+    }
+}
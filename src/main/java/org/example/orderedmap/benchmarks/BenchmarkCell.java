@@ -0,0 +1,40 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.List;
+
+/**
+ * One (map, workload, threads, rate, repeat) point of the benchmark matrix, i.e. the unit a forked JVM runs.
+ */
+record BenchmarkCell(MapType mapType, WorkloadProfile workload, int threadCount, long targetRate, int repeat) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cell for the hidden {@code --cell} option of a forked child.
+     */
+    String spec() {
+        return String.join(SEPARATOR, mapType.id(), workload.id(), Integer.toString(threadCount),
+                Long.toString(targetRate), Integer.toString(repeat));
+    }
+
+    String label() {
+        return mapType.id() + "/" + workload.id() + "/" + threadCount + "t"
+                + (targetRate > 0L ? "@" + targetRate : "") + "#" + repeat;
+    }
+
+    /**
+     * Decodes {@link #spec()}, resolving the workload id against the session's workloads.
+     */
+    static BenchmarkCell parse(String spec, List<WorkloadProfile> workloads) {
+        String[] parts = spec.split("\\|", -1);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Malformed cell spec: " + spec);
+        }
+        WorkloadProfile workload = workloads.stream()
+                .filter(candidate -> candidate.id().equals(parts[1]))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cell refers to unknown workload: " + parts[1]));
+        return new BenchmarkCell(MapType.fromId(parts[0]), workload, Integer.parseInt(parts[2]),
+                Long.parseLong(parts[3]), Integer.parseInt(parts[4]));
+    }
+}
@@ -9,8 +9,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.stm.library.LibraryStmProfile;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -25,12 +32,46 @@ public final class BenchmarkConfig {
     private final int initialSize;
     private final int keySpace;
     private final int rangeWidth;
+    private final boolean bulkLoad;
+    private final KeyType keyType;
+    private final int valueSize;
     private final Duration warmupDuration;
     private final Duration runDuration;
     private final int repeats;
+    private final double steadyCv;
+    private final Duration warmupWindow;
+    private final double targetCi;
+    private final int maxRepeats;
+    private final List<Integer> projectThreads;
     private final long seed;
     private final Path csvOutput;
     private final Path jsonOutput;
+    private final LibraryStmProfile stmProfile;
+    private final List<Long> targetRates;
+    private final Duration sloP99;
+    private final KeyDistribution keyDistribution;
+    private final Path recordTrace;
+    private final Path replayTrace;
+    private final ReplayTiming replayTiming;
+    private final Duration sampleInterval;
+    private final boolean fork;
+    private final List<String> jvmArgs;
+    private final int parallel;
+    private final List<Integer> cpuSet;
+    private final String cell;
+    private final List<String> commandLine;
+    private final WorkerMode workerMode;
+    private final IoDelay ioDelay;
+    private final int latencySample;
+    private final boolean profile;
+    private final boolean footprint;
+    private final boolean listMaps;
+    private final Path profileDirectory;
+    private final Path baseline;
+    private final Path candidate;
+    private final double regressionThreshold;
+    private final double alpha;
+    private final Path report;
 
     private BenchmarkConfig(Builder builder) {
         this.mapTypes = List.copyOf(builder.mapTypes);
@@ -39,12 +80,46 @@ public final class BenchmarkConfig {
         this.initialSize = builder.initialSize;
         this.keySpace = builder.keySpace;
         this.rangeWidth = builder.rangeWidth;
+        this.bulkLoad = builder.bulkLoad;
+        this.keyType = builder.keyType;
+        this.valueSize = builder.valueSize;
         this.warmupDuration = builder.warmupDuration;
     this.runDuration = builder.runDuration;
     this.repeats = builder.repeats;
+        this.steadyCv = builder.steadyCv;
+        this.warmupWindow = builder.warmupWindow;
+        this.targetCi = builder.targetCi;
+        this.maxRepeats = builder.maxRepeats;
+        this.projectThreads = List.copyOf(builder.projectThreads);
         this.seed = builder.seed;
         this.csvOutput = builder.csvOutput;
         this.jsonOutput = builder.jsonOutput;
+        this.stmProfile = builder.stmProfile;
+        this.targetRates = List.copyOf(builder.targetRates);
+        this.sloP99 = builder.sloP99;
+        this.keyDistribution = builder.keyDistribution;
+        this.recordTrace = builder.recordTrace;
+        this.replayTrace = builder.replayTrace;
+        this.replayTiming = builder.replayTiming;
+        this.sampleInterval = builder.sampleInterval;
+        this.fork = builder.fork;
+        this.jvmArgs = List.copyOf(builder.jvmArgs);
+        this.parallel = builder.parallel;
+        this.cpuSet = builder.cpuSet == null ? null : List.copyOf(builder.cpuSet);
+        this.cell = builder.cell;
+        this.commandLine = List.copyOf(builder.commandLine);
+        this.workerMode = builder.workerMode;
+        this.ioDelay = builder.ioDelay;
+        this.latencySample = builder.latencySample;
+        this.profile = builder.profile;
+        this.footprint = builder.footprint;
+        this.listMaps = builder.listMaps;
+        this.profileDirectory = builder.profileDirectory;
+        this.baseline = builder.baseline;
+        this.candidate = builder.candidate;
+        this.regressionThreshold = builder.regressionThreshold;
+        this.alpha = builder.alpha;
+        this.report = builder.report;
     }
 
     public List<MapType> mapTypes() {
@@ -71,6 +146,28 @@ public final class BenchmarkConfig {
         return rangeWidth;
     }
 
+    /**
+     * Whether maps are seeded through {@link org.example.orderedmap.api.OrderedMap#bulkLoad} rather than one
+     * put per key.
+     */
+    public boolean bulkLoad() {
+        return bulkLoad;
+    }
+
+    /**
+     * Type the int key indices are encoded as before they reach the map.
+     */
+    public KeyType keyType() {
+        return keyType;
+    }
+
+    /**
+     * Bytes per value as a {@code byte[]}, or {@code 0} for boxed int values.
+     */
+    public int valueSize() {
+        return valueSize;
+    }
+
     public Duration warmupDuration() {
         return warmupDuration;
     }
@@ -83,6 +180,43 @@ public final class BenchmarkConfig {
         return repeats;
     }
 
+    /**
+     * Coefficient of variation of windowed warmup throughput below which a run counts as steady, ending the
+     * warmup early; zero keeps the fixed {@link #warmupDuration()}, which otherwise acts as the cap.
+     */
+    public double steadyCv() {
+        return steadyCv;
+    }
+
+    /**
+     * Length of one warmup window for steady-state detection.
+     */
+    public Duration warmupWindow() {
+        return warmupWindow;
+    }
+
+    /**
+     * Relative half-width of the 95% confidence interval of a cell's mean ops/sec at which repeating stops;
+     * zero runs exactly {@link #repeats()} times.
+     */
+    public double targetCi() {
+        return targetCi;
+    }
+
+    /**
+     * Most repeats a cell gets while chasing {@link #targetCi()}.
+     */
+    public int maxRepeats() {
+        return maxRepeats;
+    }
+
+    /**
+     * Thread counts at which the scalability fit projects throughput.
+     */
+    public List<Integer> projectThreads() {
+        return projectThreads;
+    }
+
     public long seed() {
         return seed;
     }
@@ -95,6 +229,187 @@ public final class BenchmarkConfig {
         return jsonOutput;
     }
 
+    public LibraryStmProfile stmProfile() {
+        return stmProfile;
+    }
+
+    /**
+     * Open-loop arrival rates (total ops/sec across all threads) to sweep; a single zero means closed loop.
+     */
+    public List<Long> targetRates() {
+        return targetRates;
+    }
+
+    public boolean isOpenLoop() {
+        return targetRates.stream().anyMatch(rate -> rate > 0L);
+    }
+
+    /**
+     * p99 latency objective used to report the maximum sustainable open-loop rate, or {@code null}.
+     */
+    public Duration sloP99() {
+        return sloP99;
+    }
+
+    public KeyDistribution keyDistribution() {
+        return keyDistribution;
+    }
+
+    /**
+     * File the measurement phase's operations are recorded to, or {@code null}.
+     */
+    public Path recordTrace() {
+        return recordTrace;
+    }
+
+    /**
+     * Trace replayed instead of the configured workloads, or {@code null}.
+     */
+    public Path replayTrace() {
+        return replayTrace;
+    }
+
+    public ReplayTiming replayTiming() {
+        return replayTiming;
+    }
+
+    /**
+     * Length of the intervals the measurement phase's throughput and latency are sampled at; zero disables
+     * the time series.
+     */
+    public Duration sampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Whether every (map, workload, threads, rate, repeat) cell runs in its own forked JVM.
+     */
+    public boolean fork() {
+        return fork;
+    }
+
+    /**
+     * Extra flags passed to forked JVMs, e.g. {@code -Xmx2g -XX:+UseParallelGC}.
+     */
+    public List<String> jvmArgs() {
+        return jvmArgs;
+    }
+
+    /**
+     * Maximum number of forked cells running at once; above one, cells are pinned to disjoint CPUs.
+     */
+    public int parallel() {
+        return parallel;
+    }
+
+    /**
+     * CPUs forked cells may be pinned to, or {@code null} for all available processors.
+     */
+    public List<Integer> cpuSet() {
+        return cpuSet;
+    }
+
+    /**
+     * Spec of the single cell a forked child runs, or {@code null} in the parent.
+     */
+    String cell() {
+        return cell;
+    }
+
+    /**
+     * Arguments the configuration was parsed from, replayed (minus fork options) to forked children.
+     */
+    List<String> commandLine() {
+        return commandLine;
+    }
+
+    public WorkerMode workerMode() {
+        return workerMode;
+    }
+
+    /**
+     * Simulated I/O closed-loop workers block on after every operation, or {@code null}.
+     */
+    public IoDelay ioDelay() {
+        return ioDelay;
+    }
+
+    /**
+     * Closed-loop workers time one in this many operations, or every operation without the rest of sampled mode
+     * when zero. In sampled mode the timer's own overhead is subtracted from latencies and throughput comes from a
+     * separate pass that times nothing, see {@link BenchmarkRunner}.
+     */
+    public int latencySample() {
+        return latencySample;
+    }
+
+    public boolean isLatencySampled() {
+        return latencySample > 0;
+    }
+
+    /**
+     * Whether each measurement phase is captured in a JFR recording.
+     */
+    public boolean profile() {
+        return profile;
+    }
+
+    /**
+     * Whether the session measures each map's retained heap per entry instead of running workloads.
+     */
+    public boolean footprint() {
+        return footprint;
+    }
+
+    /**
+     * Whether the session only lists the discovered map providers.
+     */
+    public boolean listMaps() {
+        return listMaps;
+    }
+
+    /**
+     * Directory JFR recordings are written to, or {@code null} to put them next to the results file.
+     */
+    public Path profileDirectory() {
+        return profileDirectory;
+    }
+
+    /**
+     * Result JSON the session's results are compared against, or {@code null}.
+     */
+    public Path baseline() {
+        return baseline;
+    }
+
+    /**
+     * Result JSON compared against {@link #baseline()} instead of running benchmarks, or {@code null}.
+     */
+    public Path candidate() {
+        return candidate;
+    }
+
+    /**
+     * Relative change (e.g. 0.05 for 5%) beyond which a significant throughput drop or p99 rise is a regression.
+     */
+    public double regressionThreshold() {
+        return regressionThreshold;
+    }
+
+    /**
+     * Significance level of the comparison's Mann-Whitney tests.
+     */
+    public double alpha() {
+        return alpha;
+    }
+
+    /**
+     * Markdown or HTML comparison report path, or {@code null}.
+     */
+    public Path report() {
+        return report;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -124,6 +439,7 @@ public final class BenchmarkConfig {
             builder.applyConfigFile(configPath);
         }
         overrides.forEach(builder::applyOption);
+        builder.commandLine = List.of(args);
         return builder.build();
     }
 
@@ -131,16 +447,57 @@ public final class BenchmarkConfig {
         out.println("Usage: java -jar ordered-map-benchmarks.jar [options]\n");
         out.println("Options:");
         out.println("  --config <path>        Load configuration from JSON file");
-        out.println("  --maps <a,b,c>        Comma-separated list of map types (global, sharded, skiplist, tinystm, stm)");
-        out.println("  --workloads <...>     Comma-separated list of workloads (read-heavy, write-heavy, mixed, range-heavy)");
+        out.println("  --maps <a,b,c>        Comma-separated list of map specs, id[:name=value...] (global, sharded,");
+        out.println("                        skiplist, tinystm, tinystm-mv, stm or a plugged-in provider; e.g. sharded:shards=64)");
+        out.println("  --list-maps <true|false>  List the discovered map providers with their parameters and exit");
+        out.println("  --workloads <...>     Comma-separated list of workloads (read-heavy, write-heavy, mixed, range-heavy,");
+        out.println("                        transfer, or ids declared under workloadDefinitions in the --config file;");
+        out.println("                        default: all but transfer)");
         out.println("  --threads <...>       Comma-separated thread counts (e.g. 1,4,8)");
-        out.println("  --duration <value>    Measurement duration (e.g. 5s, 2m)");
+        out.println("  --duration <value>    Measurement duration (e.g. 5s, 2m); phased workloads run their schedule");
         out.println("  --warmup <value>      Warmup duration (e.g. 2s)");
-        out.println("  --initial-size <n>    Initial number of entries preloaded into each map");
-        out.println("  --key-space <n>       Range of keys randomly chosen during workloads");
+        out.println("  --initial-size <n>    Initial number of entries preloaded into each map (k/M/G suffixes, e.g. 100M)");
+        out.println("  --key-space <n>       Range of keys randomly chosen during workloads (k/M/G suffixes, at most 2^31-1)");
+        out.println("  --bulk-load <true|false>  Seed maps from sorted input in one build (default true) instead of");
+        out.println("                        parallel per-key puts");
+        out.println("  --key-type <spec>     Key type: int, long, string[:len] or bytes[:len] (zero-padded, len default 16;");
+        out.println("                        bytes compare as unsigned arrays through a comparator; default int)");
+        out.println("  --value-size <n>      Bytes per value as a byte[] (default 0: boxed int values)");
         out.println("  --range-width <n>     Width of generated range queries");
+        out.println("  --key-distribution <spec>  How keys are drawn: uniform, zipfian[:theta], scrambled-zipfian[:theta],");
+        out.println("                        hotspot[:opsFraction:keyFraction], latest[:theta], sequential (default uniform)");
         out.println("  --seed <n>            Random seed for reproducible workloads");
-        out.println("  --repeats <n>         Number of times to repeat each configuration (default 1)");
+        out.println("  --sample-interval <value>  Time-series sampling interval (e.g. 100ms, 1s; 0s disables; default 1s)");
+        out.println("  --repeats <n>         Number of times to repeat each configuration (default 1; minimum with --target-ci)");
+        out.println("  --target-ci <pct>     Repeat each cell until the 95% CI of its mean ops/sec is within +/- pct");
+        out.println("  --max-repeats <n>     Cap on repeats per cell with --target-ci (default 10)");
+        out.println("  --steady-cv <pct>     End warmup once the last 5 window throughputs vary by less than pct (CV);");
+        out.println("                        --warmup becomes the cap");
+        out.println("  --warmup-window <value>  Window length for --steady-cv (default 500ms)");
+        out.println("  --project-threads <...>  Thread counts the USL fit projects throughput to (default 16,32,64,96,128)");
+        out.println("  --rate <n[,n...]>     Open-loop arrival rate(s) in total ops/sec; latency is measured from the intended start");
+        out.println("  --slo-p99 <value>     p99 objective (e.g. 500us, 2ms) for reporting the max sustainable --rate");
+        out.println("  --record-trace <path> Record the measurement phase's operations to a binary trace (single run only)");
+        out.println("  --replay <path>       Replay a recorded trace instead of the configured workloads");
+        out.println("  --replay-timing <id>  Replay pacing: fast (default) or original (recorded timestamps)");
+        out.println("  --worker-mode <id>    Worker threads: platform (default) or virtual (for 10k+ --threads)");
+        out.println("  --io-delay <spec>     Simulated I/O after each closed-loop operation (e.g. 200us, exponential:1ms)");
+        out.println("  --latency-sample <n>  Time 1 in n closed-loop operations, net of timer overhead, and take throughput");
+        out.println("                        from a separate untimed pass (default 0: time every operation, one pass)");
+        out.println("  --profile <true|false> Record each measurement phase with JFR and summarise it into the JSON");
+        out.println("  --profile-dir <path>  Where JFR recordings go (default: next to --json/--csv, else .)");
+        out.println("  --footprint <true|false>  Measure each map's retained heap per entry at --initial-size entries");
+        out.println("                        instead of running workloads");
+        out.println("  --baseline <path>     Compare results with a baseline JSON; exits with status 2 on regressions");
+        out.println("  --candidate <path>    Compare this result JSON with --baseline instead of running benchmarks");
+        out.println("  --regression-threshold <pct>  Median change counted as a regression (default 5%)");
+        out.println("  --alpha <p>           Significance level of the comparison (default 0.05)");
+        out.println("  --report <path>       Write the comparison as markdown, or HTML for .html paths");
+        out.println("  --fork <true|false>   Run every map/workload/threads/rate/repeat cell in its own JVM");
+        out.println("  --jvm-args \"<flags>\"  Whitespace-separated flags for forked JVMs (e.g. \"-Xmx2g -XX:+UseParallelGC\")");
+        out.println("  --parallel <n>        Run up to n forked cells at once on disjoint CPUs (needs taskset; default 1)");
+        out.println("  --cpu-set <list>      CPUs forked cells are pinned to (e.g. 0-7,12; default all)");
+        out.println("  --stm-profile <id>    Multiverse executor profile for the stm map (default, tuned)");
         out.println("  --csv <path>          Optional CSV output path");
         out.println("  --json <path>         Optional JSON output path");
         out.println("  --help                Display this help message");
@@ -153,8 +510,31 @@ public final class BenchmarkConfig {
         return args[index];
     }
 
-    private static Duration parseDuration(String value) {
+    /**
+     * Parses a percentage such as {@code 5} or {@code 5%} into a fraction.
+     */
+    private static double parsePercent(String value) {
+        String normalized = value.trim();
+        if (normalized.endsWith("%")) {
+            normalized = normalized.substring(0, normalized.length() - 1).trim();
+        }
+        return Double.parseDouble(normalized) / 100.0d;
+    }
+
+    private static boolean parseBoolean(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (!"true".equals(normalized) && !"false".equals(normalized)) {
+            throw new IllegalArgumentException("Expected true or false but got: " + value);
+        }
+        return Boolean.parseBoolean(normalized);
+    }
+
+    static Duration parseDuration(String value) {
         String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith("us")) {
+            long amount = Long.parseLong(normalized.substring(0, normalized.length() - 2));
+            return Duration.ofNanos(amount * 1_000L);
+        }
         if (normalized.endsWith("ms")) {
             long amount = Long.parseLong(normalized.substring(0, normalized.length() - 2));
             return Duration.ofMillis(amount);
@@ -170,6 +550,66 @@ public final class BenchmarkConfig {
         throw new IllegalArgumentException("Unsupported duration format: " + value);
     }
 
+    /**
+     * Parses an entry count such as {@code 250000}, {@code 64k} or {@code 100M}; suffixes are decimal.
+     */
+    static int parseCount(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT).replace("_", "");
+        long multiplier = 1L;
+        if (normalized.endsWith("k")) {
+            multiplier = 1_000L;
+        } else if (normalized.endsWith("m")) {
+            multiplier = 1_000_000L;
+        } else if (normalized.endsWith("g")) {
+            multiplier = 1_000_000_000L;
+        }
+        if (multiplier > 1L) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        long count = Math.multiplyExact(Long.parseLong(normalized), multiplier);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Count " + value + " exceeds the 32-bit key range");
+        }
+        return (int) count;
+    }
+
+    private static List<Long> parseRates(String value) {
+        return java.util.Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::parseLong)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static List<String> parseJvmArgs(String value) {
+        return java.util.Arrays.stream(value.trim().split("\\s+"))
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Parses a Linux-style CPU list such as {@code 0-3,8,10-11}.
+     */
+    static List<Integer> parseCpuSet(String value) {
+        java.util.TreeSet<Integer> cpus = new java.util.TreeSet<>();
+        for (String part : value.split(",")) {
+            String range = part.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            int first = Integer.parseInt(dash < 0 ? range : range.substring(0, dash).trim());
+            int last = dash < 0 ? first : Integer.parseInt(range.substring(dash + 1).trim());
+            if (first < 0 || last < first) {
+                throw new IllegalArgumentException("Invalid CPU range: " + range);
+            }
+            for (int cpu = first; cpu <= last; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return new ArrayList<>(cpus);
+    }
+
     private static List<Integer> parseThreadCounts(String value) {
         return java.util.Arrays.stream(value.split(","))
                 .map(String::trim)
@@ -179,18 +619,53 @@ public final class BenchmarkConfig {
     }
 
     public static final class Builder {
-        private List<MapType> mapTypes = new ArrayList<>(List.of(MapType.values()));
-        private List<WorkloadProfile> workloads = new ArrayList<>(List.of(WorkloadProfile.values()));
+        private List<MapType> mapTypes = new ArrayList<>(MapType.all());
+        private List<WorkloadProfile> workloads = new ArrayList<>(WorkloadProfile.defaults());
         private List<Integer> threadCounts = new ArrayList<>(List.of(1, 4, 8));
         private int initialSize = 10000;
         private int keySpace = 65536;
         private int rangeWidth = 128;
+        private boolean bulkLoad = true;
+        private KeyType keyType = KeyType.INT;
+        private int valueSize;
         private Duration warmupDuration = Duration.ofSeconds(2);
         private Duration runDuration = Duration.ofSeconds(5);
         private int repeats = 1;
+        private double steadyCv;
+        private Duration warmupWindow = Duration.ofMillis(500);
+        private double targetCi;
+        private int maxRepeats = 10;
+        private List<Integer> projectThreads = new ArrayList<>(List.of(16, 32, 64, 96, 128));
         private long seed = 1337L;
         private Path csvOutput;
         private Path jsonOutput;
+        private LibraryStmProfile stmProfile = LibraryStmProfile.DEFAULT;
+        private List<Long> targetRates = new ArrayList<>(List.of(0L));
+        private Duration sloP99;
+        private KeyDistribution keyDistribution = KeyDistribution.UNIFORM;
+        private Path recordTrace;
+        private Path replayTrace;
+        private ReplayTiming replayTiming = ReplayTiming.FAST;
+        private Duration sampleInterval = Duration.ofSeconds(1);
+        private boolean fork;
+        private List<String> jvmArgs = new ArrayList<>();
+        private int parallel = 1;
+        private List<Integer> cpuSet;
+        private String cell;
+        private List<String> commandLine = List.of();
+        private WorkerMode workerMode = WorkerMode.PLATFORM;
+        private IoDelay ioDelay;
+        private int latencySample;
+        private boolean profile;
+        private boolean footprint;
+        private boolean listMaps;
+        private Path profileDirectory;
+        private Path baseline;
+        private Path candidate;
+        private double regressionThreshold = 0.05d;
+        private double alpha = 0.05d;
+        private Path report;
+        private final Map<String, WorkloadProfile> definedWorkloads = new java.util.LinkedHashMap<>();
 
         public Builder withMapTypes(List<MapType> mapTypes) {
             this.mapTypes = new ArrayList<>(Objects.requireNonNull(mapTypes));
@@ -202,6 +677,20 @@ public final class BenchmarkConfig {
             return this;
         }
 
+        /**
+         * Registers a custom workload so that {@code --workloads} and the config's {@code workloads} list can
+         * refer to it by id. Presets cannot be redefined.
+         */
+        public Builder defineWorkload(WorkloadProfile workload) {
+            Objects.requireNonNull(workload, "workload");
+            boolean preset = WorkloadProfile.presets().stream().anyMatch(p -> p.id().equals(workload.id()));
+            if (preset) {
+                throw new IllegalArgumentException("Workload " + workload.id() + " would shadow a built-in preset");
+            }
+            definedWorkloads.put(workload.id(), workload);
+            return this;
+        }
+
         public Builder withThreadCounts(List<Integer> counts) {
             this.threadCounts = new ArrayList<>(Objects.requireNonNull(counts));
             return this;
@@ -212,6 +701,21 @@ public final class BenchmarkConfig {
             return this;
         }
 
+        public Builder withBulkLoad(boolean bulkLoad) {
+            this.bulkLoad = bulkLoad;
+            return this;
+        }
+
+        public Builder withKeyType(KeyType keyType) {
+            this.keyType = Objects.requireNonNull(keyType, "keyType");
+            return this;
+        }
+
+        public Builder withValueSize(int valueSize) {
+            this.valueSize = valueSize;
+            return this;
+        }
+
         public Builder withKeySpace(int keySpace) {
             this.keySpace = keySpace;
             return this;
@@ -240,6 +744,31 @@ public final class BenchmarkConfig {
             return this;
         }
 
+        public Builder withSteadyCv(double cv) {
+            this.steadyCv = cv;
+            return this;
+        }
+
+        public Builder withWarmupWindow(Duration window) {
+            this.warmupWindow = Objects.requireNonNull(window, "warmupWindow");
+            return this;
+        }
+
+        public Builder withTargetCi(double targetCi) {
+            this.targetCi = targetCi;
+            return this;
+        }
+
+        public Builder withMaxRepeats(int maxRepeats) {
+            this.maxRepeats = maxRepeats;
+            return this;
+        }
+
+        public Builder withProjectThreads(List<Integer> counts) {
+            this.projectThreads = new ArrayList<>(Objects.requireNonNull(counts, "projectThreads"));
+            return this;
+        }
+
         public Builder withSeed(long seed) {
             this.seed = seed;
             return this;
@@ -255,6 +784,131 @@ public final class BenchmarkConfig {
             return this;
         }
 
+        public Builder withStmProfile(LibraryStmProfile profile) {
+            this.stmProfile = Objects.requireNonNull(profile, "stmProfile");
+            return this;
+        }
+
+        public Builder withTargetRates(List<Long> rates) {
+            this.targetRates = new ArrayList<>(Objects.requireNonNull(rates));
+            return this;
+        }
+
+        public Builder withSloP99(Duration slo) {
+            this.sloP99 = slo;
+            return this;
+        }
+
+        public Builder withKeyDistribution(KeyDistribution distribution) {
+            this.keyDistribution = Objects.requireNonNull(distribution, "keyDistribution");
+            return this;
+        }
+
+        public Builder withRecordTrace(Path path) {
+            this.recordTrace = path;
+            return this;
+        }
+
+        public Builder withReplayTrace(Path path) {
+            this.replayTrace = path;
+            return this;
+        }
+
+        public Builder withReplayTiming(ReplayTiming timing) {
+            this.replayTiming = Objects.requireNonNull(timing, "replayTiming");
+            return this;
+        }
+
+        public Builder withSampleInterval(Duration interval) {
+            this.sampleInterval = Objects.requireNonNull(interval, "sampleInterval");
+            return this;
+        }
+
+        public Builder withFork(boolean fork) {
+            this.fork = fork;
+            return this;
+        }
+
+        public Builder withJvmArgs(List<String> args) {
+            this.jvmArgs = new ArrayList<>(Objects.requireNonNull(args, "jvmArgs"));
+            return this;
+        }
+
+        public Builder withParallel(int parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        public Builder withCpuSet(List<Integer> cpus) {
+            this.cpuSet = cpus == null ? null : new ArrayList<>(cpus);
+            return this;
+        }
+
+        public Builder withWorkerMode(WorkerMode mode) {
+            this.workerMode = Objects.requireNonNull(mode, "workerMode");
+            return this;
+        }
+
+        public Builder withIoDelay(IoDelay delay) {
+            this.ioDelay = delay;
+            return this;
+        }
+
+        public Builder withLatencySample(int latencySample) {
+            this.latencySample = latencySample;
+            return this;
+        }
+
+        public Builder withProfile(boolean profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        public Builder withFootprint(boolean footprint) {
+            this.footprint = footprint;
+            return this;
+        }
+
+        public Builder withListMaps(boolean listMaps) {
+            this.listMaps = listMaps;
+            return this;
+        }
+
+        public Builder withProfileDirectory(Path directory) {
+            this.profileDirectory = directory;
+            return this;
+        }
+
+        public Builder withBaseline(Path path) {
+            this.baseline = path;
+            return this;
+        }
+
+        public Builder withCandidate(Path path) {
+            this.candidate = path;
+            return this;
+        }
+
+        public Builder withRegressionThreshold(double threshold) {
+            this.regressionThreshold = threshold;
+            return this;
+        }
+
+        public Builder withAlpha(double alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        public Builder withReport(Path path) {
+            this.report = path;
+            return this;
+        }
+
+        Builder withCell(String cell) {
+            this.cell = cell;
+            return this;
+        }
+
         void applyOption(String key, String value) {
             switch (key) {
                 case "maps" -> withMapTypes(MapType.parseList(value));
@@ -262,13 +916,46 @@ public final class BenchmarkConfig {
                 case "threads" -> withThreadCounts(parseThreadCounts(value));
                 case "duration" -> withRunDuration(parseDuration(value));
                 case "warmup" -> withWarmup(parseDuration(value));
-                case "initial-size" -> withInitialSize(Integer.parseInt(value));
-                case "key-space" -> withKeySpace(Integer.parseInt(value));
+                case "initial-size" -> withInitialSize(parseCount(value));
+                case "key-space" -> withKeySpace(parseCount(value));
+                case "bulk-load" -> withBulkLoad(parseBoolean(value));
+                case "key-type" -> withKeyType(KeyType.parse(value));
+                case "value-size" -> withValueSize(parseCount(value));
                 case "range-width" -> withRangeWidth(Integer.parseInt(value));
+                case "key-distribution" -> withKeyDistribution(KeyDistribution.parse(value));
                 case "seed" -> withSeed(Long.parseLong(value));
                 case "csv" -> withCsvOutput(Path.of(value));
                 case "json" -> withJsonOutput(Path.of(value));
                 case "repeats" -> withRepeats(Integer.parseInt(value));
+                case "target-ci" -> withTargetCi(parsePercent(value));
+                case "max-repeats" -> withMaxRepeats(Integer.parseInt(value));
+                case "project-threads" -> withProjectThreads(parseThreadCounts(value));
+                case "steady-cv" -> withSteadyCv(parsePercent(value));
+                case "warmup-window" -> withWarmupWindow(parseDuration(value));
+                case "stm-profile" -> withStmProfile(LibraryStmProfile.fromId(value));
+                case "rate" -> withTargetRates(parseRates(value));
+                case "slo-p99" -> withSloP99(parseDuration(value));
+                case "record-trace" -> withRecordTrace(Path.of(value));
+                case "replay" -> withReplayTrace(Path.of(value));
+                case "replay-timing" -> withReplayTiming(ReplayTiming.fromId(value));
+                case "sample-interval" -> withSampleInterval(parseDuration(value));
+                case "fork" -> withFork(parseBoolean(value));
+                case "jvm-args" -> withJvmArgs(parseJvmArgs(value));
+                case "parallel" -> withParallel(Integer.parseInt(value));
+                case "cpu-set" -> withCpuSet(parseCpuSet(value));
+                case "cell" -> withCell(value);
+                case "worker-mode" -> withWorkerMode(WorkerMode.fromId(value));
+                case "io-delay" -> withIoDelay(IoDelay.parse(value));
+                case "latency-sample" -> withLatencySample(Integer.parseInt(value));
+                case "profile" -> withProfile(parseBoolean(value));
+                case "footprint" -> withFootprint(parseBoolean(value));
+                case "list-maps" -> withListMaps(parseBoolean(value));
+                case "profile-dir" -> withProfileDirectory(Path.of(value));
+                case "baseline" -> withBaseline(Path.of(value));
+                case "candidate" -> withCandidate(Path.of(value));
+                case "regression-threshold" -> withRegressionThreshold(parsePercent(value));
+                case "alpha" -> withAlpha(Double.parseDouble(value));
+                case "report" -> withReport(Path.of(value));
                 default -> throw new IllegalArgumentException("Unknown option: --" + key);
             }
         }
@@ -277,12 +964,18 @@ public final class BenchmarkConfig {
             try {
                 ObjectMapper mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+                mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
                 ConfigFile file = mapper.readValue(path.toFile(), ConfigFile.class);
                 if (file.maps != null) {
                     withMapTypes(file.maps.stream().map(MapType::fromId).collect(Collectors.toList()));
                 }
+                if (file.workloadDefinitions != null) {
+                    file.workloadDefinitions.forEach(definition -> defineWorkload(definition.toProfile(this::resolveWorkload)));
+                }
                 if (file.workloads != null) {
-                    withWorkloads(file.workloads.stream().map(WorkloadProfile::fromId).collect(Collectors.toList()));
+                    withWorkloads(file.workloads.stream().map(this::resolveWorkload).collect(Collectors.toList()));
+                } else if (file.workloadDefinitions != null && !file.workloadDefinitions.isEmpty()) {
+                    withWorkloads(new ArrayList<>(definedWorkloads.values()));
                 }
                 if (file.threads != null) {
                     withThreadCounts(new ArrayList<>(file.threads));
@@ -294,14 +987,26 @@ public final class BenchmarkConfig {
                     withWarmup(parseDuration(file.warmup));
                 }
                 if (file.initialSize != null) {
-                    withInitialSize(file.initialSize);
+                    withInitialSize(parseCount(file.initialSize));
                 }
                 if (file.keySpace != null) {
-                    withKeySpace(file.keySpace);
+                    withKeySpace(parseCount(file.keySpace));
+                }
+                if (file.bulkLoad != null) {
+                    withBulkLoad(file.bulkLoad);
+                }
+                if (file.keyType != null) {
+                    withKeyType(KeyType.parse(file.keyType));
+                }
+                if (file.valueSize != null) {
+                    withValueSize(file.valueSize);
                 }
                 if (file.rangeWidth != null) {
                     withRangeWidth(file.rangeWidth);
                 }
+                if (file.keyDistribution != null) {
+                    withKeyDistribution(KeyDistribution.parse(file.keyDistribution));
+                }
                 if (file.seed != null) {
                     withSeed(file.seed);
                 }
@@ -314,6 +1019,84 @@ public final class BenchmarkConfig {
                 if (file.repeats != null) {
                     withRepeats(file.repeats);
                 }
+                if (file.targetCi != null) {
+                    withTargetCi(parsePercent(file.targetCi));
+                }
+                if (file.maxRepeats != null) {
+                    withMaxRepeats(file.maxRepeats);
+                }
+                if (file.projectThreads != null) {
+                    withProjectThreads(new ArrayList<>(file.projectThreads));
+                }
+                if (file.steadyCv != null) {
+                    withSteadyCv(parsePercent(file.steadyCv));
+                }
+                if (file.warmupWindow != null) {
+                    withWarmupWindow(parseDuration(file.warmupWindow));
+                }
+                if (file.stmProfile != null) {
+                    withStmProfile(LibraryStmProfile.fromId(file.stmProfile));
+                }
+                if (file.rates != null) {
+                    withTargetRates(new ArrayList<>(file.rates));
+                }
+                if (file.sloP99 != null) {
+                    withSloP99(parseDuration(file.sloP99));
+                }
+                if (file.recordTrace != null) {
+                    withRecordTrace(Path.of(file.recordTrace));
+                }
+                if (file.replay != null) {
+                    withReplayTrace(Path.of(file.replay));
+                }
+                if (file.replayTiming != null) {
+                    withReplayTiming(ReplayTiming.fromId(file.replayTiming));
+                }
+                if (file.sampleInterval != null) {
+                    withSampleInterval(parseDuration(file.sampleInterval));
+                }
+                if (file.workerMode != null) {
+                    withWorkerMode(WorkerMode.fromId(file.workerMode));
+                }
+                if (file.ioDelay != null) {
+                    withIoDelay(IoDelay.parse(file.ioDelay));
+                }
+                if (file.latencySample != null) {
+                    withLatencySample(file.latencySample);
+                }
+                if (file.profile != null) {
+                    withProfile(file.profile);
+                }
+                if (file.footprint != null) {
+                    withFootprint(file.footprint);
+                }
+                if (file.profileDir != null) {
+                    withProfileDirectory(Path.of(file.profileDir));
+                }
+                if (file.baseline != null) {
+                    withBaseline(Path.of(file.baseline));
+                }
+                if (file.regressionThreshold != null) {
+                    withRegressionThreshold(parsePercent(file.regressionThreshold));
+                }
+                if (file.alpha != null) {
+                    withAlpha(file.alpha);
+                }
+                if (file.report != null) {
+                    withReport(Path.of(file.report));
+                }
+                if (file.fork != null) {
+                    withFork(file.fork);
+                }
+                if (file.jvmArgs != null) {
+                    withJvmArgs(file.jvmArgs);
+                }
+                if (file.parallel != null) {
+                    withParallel(file.parallel);
+                }
+                if (file.cpuSet != null) {
+                    withCpuSet(parseCpuSet(file.cpuSet));
+                }
             } catch (IOException io) {
                 throw new IllegalArgumentException("Failed to read config file " + path + ": " + io.getMessage(), io);
             }
@@ -332,15 +1115,36 @@ public final class BenchmarkConfig {
             if (threadCounts.stream().anyMatch(count -> count <= 0)) {
                 throw new IllegalArgumentException("thread counts must be positive");
             }
+            if (projectThreads.stream().anyMatch(count -> count <= 0)) {
+                throw new IllegalArgumentException("project-threads must be positive");
+            }
             if (keySpace <= 0) {
                 throw new IllegalArgumentException("keySpace must be positive");
             }
+            if (initialSize < 0) {
+                throw new IllegalArgumentException("initialSize must not be negative");
+            }
             if (initialSize > keySpace) {
                 throw new IllegalArgumentException("initialSize must not exceed key space");
             }
+            if (initialSize > KeyPool.MAX_SEEDED) {
+                throw new IllegalArgumentException("initialSize must not exceed " + KeyPool.MAX_SEEDED
+                        + ", the longest array the VM allocates");
+            }
             if (rangeWidth <= 0) {
                 throw new IllegalArgumentException("rangeWidth must be positive");
             }
+            if (valueSize < 0) {
+                throw new IllegalArgumentException("value-size must not be negative");
+            }
+            if (keyType.comparator() != null) {
+                for (MapType mapType : mapTypes) {
+                    if (!mapType.provider().capabilities().contains(MapCapability.CUSTOM_ORDER)) {
+                        throw new IllegalArgumentException("Map " + mapType.id() + " cannot order "
+                                + keyType.spec() + " keys; it only supports natural key order");
+                    }
+                }
+            }
             if (runDuration.isZero() || runDuration.isNegative()) {
                 throw new IllegalArgumentException("duration must be positive");
             }
@@ -350,31 +1154,250 @@ public final class BenchmarkConfig {
             if (repeats <= 0) {
                 throw new IllegalArgumentException("repeats must be positive");
             }
+            if (targetCi < 0.0d) {
+                throw new IllegalArgumentException("target-ci must not be negative");
+            }
+            if (targetCi > 0.0d && maxRepeats < Math.max(2, repeats)) {
+                throw new IllegalArgumentException("max-repeats must be at least repeats and at least 2");
+            }
+            if (steadyCv < 0.0d) {
+                throw new IllegalArgumentException("steady-cv must not be negative");
+            }
+            if (warmupWindow.isZero() || warmupWindow.isNegative()) {
+                throw new IllegalArgumentException("warmup-window must be positive");
+            }
+            if (steadyCv > 0.0d
+                    && warmupDuration.compareTo(warmupWindow.multipliedBy(BenchmarkRunner.STEADY_WINDOWS)) < 0) {
+                throw new IllegalArgumentException("--steady-cv needs a --warmup of at least "
+                        + BenchmarkRunner.STEADY_WINDOWS + " warmup windows");
+            }
+            if (targetRates.isEmpty()) {
+                throw new IllegalArgumentException("At least one rate must be specified");
+            }
+            if (targetRates.stream().anyMatch(rate -> rate < 0L)) {
+                throw new IllegalArgumentException("rates must not be negative");
+            }
+            if (sloP99 != null && (sloP99.isZero() || sloP99.isNegative())) {
+                throw new IllegalArgumentException("slo-p99 must be positive");
+            }
+            if (sampleInterval.isNegative()) {
+                throw new IllegalArgumentException("sample-interval must not be negative");
+            }
+            if (replayTrace != null && targetRates.stream().anyMatch(rate -> rate > 0L)) {
+                throw new IllegalArgumentException("--rate cannot be combined with --replay; use --replay-timing");
+            }
+            if (recordTrace != null && (mapTypes.size() * threadCounts.size() * targetRates.size() * repeats > 1
+                    || targetCi > 0.0d || (replayTrace == null && workloads.size() > 1))) {
+                throw new IllegalArgumentException("--record-trace needs a single map, workload, thread count, rate"
+                        + " and repeat");
+            }
+            if ((recordTrace != null || replayTrace != null) && !keyType.equals(KeyType.INT)) {
+                throw new IllegalArgumentException("Traces record int keys; --record-trace and --replay need"
+                        + " --key-type int");
+            }
+            if (replayTrace == null) {
+                validateTransfers();
+            }
+            if (ioDelay != null && (replayTrace != null || targetRates.stream().anyMatch(rate -> rate > 0L))) {
+                throw new IllegalArgumentException("--io-delay applies to closed-loop workloads only");
+            }
+            if (latencySample < 0) {
+                throw new IllegalArgumentException("latency-sample must not be negative");
+            }
+            if (latencySample > 0 && (replayTrace != null || recordTrace != null
+                    || targetRates.stream().anyMatch(rate -> rate > 0L))) {
+                throw new IllegalArgumentException("--latency-sample applies to closed-loop workloads without traces");
+            }
+            if (candidate != null && baseline == null) {
+                throw new IllegalArgumentException("--candidate requires --baseline");
+            }
+            if (report != null && baseline == null) {
+                throw new IllegalArgumentException("--report requires --baseline");
+            }
+            if (regressionThreshold < 0.0d) {
+                throw new IllegalArgumentException("regression-threshold must not be negative");
+            }
+            if (alpha <= 0.0d || alpha >= 1.0d) {
+                throw new IllegalArgumentException("alpha must be in (0, 1)");
+            }
+            if (parallel <= 0) {
+                throw new IllegalArgumentException("parallel must be positive");
+            }
+            if (parallel > 1 && !fork) {
+                throw new IllegalArgumentException("--parallel requires --fork true");
+            }
+            if (cpuSet != null && cpuSet.isEmpty()) {
+                throw new IllegalArgumentException("cpu-set must name at least one CPU");
+            }
             return new BenchmarkConfig(this);
         }
 
+        /**
+         * Transfers need every map to update several keys atomically, int values to add up, more keys than one
+         * transfer touches and, since a trace cannot encode them, no recording.
+         */
+        private void validateTransfers() {
+            List<WorkloadProfile> transferring = workloads.stream()
+                    .flatMap(workload -> workload.isPhased()
+                            ? workload.phases().stream().map(WorkloadProfile.Phase::workload)
+                            : Stream.of(workload))
+                    .filter(workload -> workload.weight(OperationType.TRANSFER) > 0.0d)
+                    .collect(Collectors.toList());
+            if (transferring.isEmpty()) {
+                return;
+            }
+            for (MapType mapType : mapTypes) {
+                if (!mapType.provider().capabilities().contains(MapCapability.ATOMIC_MULTI_KEY)) {
+                    throw new IllegalArgumentException("Map " + mapType.id() + " cannot update several keys"
+                            + " atomically; workload " + transferring.get(0).id() + " issues transfers");
+                }
+            }
+            for (WorkloadProfile workload : workloads) {
+                List<WorkloadProfile> parts = workload.isPhased()
+                        ? workload.phases().stream().map(WorkloadProfile.Phase::workload).collect(Collectors.toList())
+                        : List.of(workload);
+                // Every phase shares the map its first phase seeded, so all of them must put ints.
+                if (parts.stream().anyMatch(part -> part.weight(OperationType.TRANSFER) > 0.0d)
+                        && parts.stream().anyMatch(part ->
+                                (part.valueSize() != null ? part.valueSize() : valueSize) != 0)) {
+                    throw new IllegalArgumentException("Transfers add up int values; workload " + workload.id()
+                            + " needs value size 0");
+                }
+            }
+            if (recordTrace != null) {
+                throw new IllegalArgumentException("--record-trace cannot record transfers");
+            }
+            for (WorkloadProfile workload : transferring) {
+                if (workload.batchSize(OperationType.TRANSFER) > keySpace) {
+                    throw new IllegalArgumentException("Workload " + workload.id() + " transfers between "
+                            + workload.batchSize(OperationType.TRANSFER) + " keys, more than the key space");
+                }
+            }
+        }
+
         private List<WorkloadProfile> parseWorkloads(String value) {
         return java.util.Arrays.stream(value.split(","))
                     .map(String::trim)
                     .filter(s -> !s.isEmpty())
-                    .map(WorkloadProfile::fromId)
+                    .map(this::resolveWorkload)
                     .collect(Collectors.toCollection(ArrayList::new));
         }
+
+        private WorkloadProfile resolveWorkload(String id) {
+            WorkloadProfile defined = definedWorkloads.get(id.trim().toLowerCase(Locale.ROOT));
+            return defined != null ? defined : WorkloadProfile.fromId(id.trim());
+        }
     }
 
     private static final class ConfigFile {
         List<String> maps;
         List<String> workloads;
+        List<WorkloadDefinition> workloadDefinitions;
         List<Integer> threads;
         String duration;
         String warmup;
-        Integer initialSize;
-        Integer keySpace;
+        String initialSize;
+        String keySpace;
+        Boolean bulkLoad;
+        String keyType;
+        Integer valueSize;
         Integer rangeWidth;
+        String keyDistribution;
         Long seed;
         String csv;
         String json;
         Integer repeats;
+        String targetCi;
+        Integer maxRepeats;
+        List<Integer> projectThreads;
+        String steadyCv;
+        String warmupWindow;
+        String stmProfile;
+        List<Long> rates;
+        String sloP99;
+        String recordTrace;
+        String replay;
+        String replayTiming;
+        String sampleInterval;
+        Boolean fork;
+        List<String> jvmArgs;
+        Integer parallel;
+        String cpuSet;
+        String workerMode;
+        String ioDelay;
+        Integer latencySample;
+        Boolean profile;
+        String profileDir;
+        Boolean footprint;
+        String baseline;
+        String regressionThreshold;
+        Double alpha;
+        String report;
+    }
+
+    /**
+     * JSON form of a custom workload. Operation names are {@code get}, {@code put}, {@code remove} and
+     * {@code range}; {@code rangeWidth}, {@code keyDistribution} and {@code valueSize} use the same specs as the
+     * CLI flags. A phased workload gives {@code phases} instead of weights; they may refer to presets and to
+     * workloads defined earlier in the list.
+     */
+    private static final class WorkloadDefinition {
+        String id;
+        Map<String, Double> weights;
+        String rangeWidth;
+        Map<String, Integer> batchSizes;
+        String keyDistribution;
+        Integer valueSize;
+        List<PhaseDefinition> phases;
+
+        WorkloadProfile toProfile(Function<String, WorkloadProfile> resolve) {
+            if (phases != null) {
+                if (weights != null) {
+                    throw new IllegalArgumentException("Workload definition " + id
+                            + " gives both weights and phases");
+                }
+                return WorkloadProfile.builder(id)
+                        .withPhases(phases.stream().map(phase -> phase.toPhase(resolve)).collect(Collectors.toList()))
+                        .withValueSize(valueSize)
+                        .build();
+            }
+            if (weights == null) {
+                throw new IllegalArgumentException("Workload definition " + id + " has no weights");
+            }
+            WorkloadProfile.Builder builder = WorkloadProfile.builder(id)
+                    .withWeights(WorkloadProfile.parseWeights(weights));
+            if (rangeWidth != null) {
+                builder.withRangeWidth(WorkloadProfile.RangeWidth.parse(rangeWidth));
+            }
+            if (batchSizes != null) {
+                batchSizes.forEach((name, size) -> builder.withBatchSize(WorkloadProfile.parseOperation(name), size));
+            }
+            if (keyDistribution != null) {
+                builder.withKeyDistribution(KeyDistribution.parse(keyDistribution));
+            }
+            return builder.withValueSize(valueSize).build();
+        }
+    }
+
+    /**
+     * One phase of a phased workload: a workload id, how long it runs and optionally the key distribution it
+     * runs with, overriding the workload's own.
+     */
+    private static final class PhaseDefinition {
+        String workload;
+        String duration;
+        String keyDistribution;
+
+        WorkloadProfile.Phase toPhase(Function<String, WorkloadProfile> resolve) {
+            if (workload == null || duration == null) {
+                throw new IllegalArgumentException("Every phase needs a workload and a duration");
+            }
+            WorkloadProfile profile = resolve.apply(workload);
+            if (keyDistribution != null) {
+                profile = profile.withKeyDistribution(KeyDistribution.parse(keyDistribution));
+            }
+            return new WorkloadProfile.Phase(parseDuration(duration), profile);
+        }
     }
 
     static class HelpException extends RuntimeException {
@@ -4,12 +4,17 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.example.orderedmap.api.AbortCause;
 import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -18,6 +23,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public final class BenchmarkResult {
 
+    /** Fraction of the target rate an open-loop run must achieve to count as sustained. */
+    static final double SUSTAINED_FRACTION = 0.95d;
+
     private final BenchmarkConfig config;
     private final List<RunResult> runs;
 
@@ -31,30 +39,351 @@ public final class BenchmarkResult {
     }
 
     public void printSummary(PrintStream out) {
-    out.printf("%n%-10s %-12s %-7s %-7s %-12s %-12s %-12s %-9s %-9s %-9s %-12s %-12s %-10s %-11s%n",
-        "Map", "Workload", "Threads", "Repeat", "Operations", "Ops/sec", "Duration(ms)",
-        "Avg(us)", "P50(us)", "P95(us)", "P99(us)", "STM commits", "STM aborts", "Max retries");
+    out.printf("%n%-10s %-12s %-22s %-7s %-7s %-10s %-12s %-12s %-12s %-9s %-9s %-9s %-9s %-10s %-10s %-12s %-12s %-10s %-11s %-20s %-12s %-10s %-8s%n",
+        "Map", "Workload", "Keys", "Threads", "Repeat", "Target/s", "Operations", "Ops/sec", "Duration(ms)",
+        "Avg(us)", "P50(us)", "P90(us)", "P99(us)", "P99.9(us)", "P99.99(us)", "Max(us)",
+        "STM commits", "STM aborts", "Max retries", "Aborts rv/val/lock", "Aborted(ms)", "B/op", "GC ms/s");
         for (RunResult run : runs) {
             LatencyStats latency = run.latency();
             MapMetrics metrics = run.metrics();
-        out.printf("%-10s %-12s %-7d %-7d %-12d %-12.2f %-12d %-9.2f %-9d %-9d %-12d %-12d %-10d %-11d%n",
+        out.printf("%-10s %-12s %-22s %-7d %-7d %-10s %-12d %-12.2f %-12d %-9.2f %-9.2f %-9.2f %-9.2f %-10.2f %-10.2f %-12.2f %-12d %-10d %-11d %-20s %-12.2f %-10s %-8.2f%n",
                     run.mapType().id(),
                     run.workload().id(),
+                    run.keyDistribution().spec(),
                     run.threadCount(),
                     run.repeat(),
+                    run.targetRate() > 0L ? Long.toString(run.targetRate()) : "closed",
                     run.totalOperations(),
                     run.operationsPerSecond(),
                     run.durationMillis(),
                     latency.meanMicros(),
                     latency.p50Micros(),
-                    latency.p95Micros(),
+                    latency.p90Micros(),
                     latency.p99Micros(),
+                    latency.p999Micros(),
+                    latency.p9999Micros(),
+                    latency.maxMicros(),
                     metrics.stmCommits(),
             metrics.stmAborts(),
-            metrics.maxRetries());
+            metrics.maxRetries(),
+                    metrics.aborts(AbortCause.READ_VERSION) + "/" + metrics.aborts(AbortCause.VALIDATION)
+                            + "/" + metrics.aborts(AbortCause.LOCK),
+                    metrics.abortedNanos() / 1_000_000.0d,
+                    run.memory().allocationKnown()
+                            ? String.format(Locale.ROOT, "%.1f", run.memory().bytesPerOperation(run.totalOperations()))
+                            : "n/a",
+                    run.memory().gcMillisPerSecond(run.durationMillis()));
+        }
+        if (config.isLatencySampled()) {
+            out.printf("%nLatencies time 1 in %d operations, net of %d ns timer overhead; operations and Ops/sec"
+                    + " come from a separate untimed pass%n", config.latencySample(), TimerOverhead.nanos());
+        }
+        if (runs.stream().anyMatch(run -> run.operationStats().size() > 1)) {
+            printOperationBreakdown(out);
+        }
+        if (runs.stream().anyMatch(run -> !run.phases().isEmpty())) {
+            printPhaseBreakdown(out);
+        }
+        if (runs.stream().anyMatch(run -> run.invariant() != null)) {
+            printInvariantChecks(out);
+        }
+        if (config.profile()) {
+            printProfiles(out);
+        }
+        if (config.repeats() > 1 || config.targetCi() > 0.0d || config.steadyCv() > 0.0d) {
+            printCellStatistics(out);
+        }
+        List<ScalabilityFit> fits = scalabilityFits();
+        if (!fits.isEmpty()) {
+            printScalability(out, fits);
+        }
+        if (config.sloP99() != null && config.isOpenLoop()) {
+            out.printf("%nMax sustainable rate (p99 <= %.1f us, achieved >= %.0f%% of target)%n",
+                    config.sloP99().toNanos() / 1_000.0d, SUSTAINED_FRACTION * 100.0d);
+            out.printf("%-10s %-12s %-7s %-14s%n", "Map", "Workload", "Threads", "Max rate/s");
+            for (SustainableRate rate : sustainableRates()) {
+                out.printf("%-10s %-12s %-7d %-14s%n",
+                        rate.mapType().id(),
+                        rate.workload().id(),
+                        rate.threadCount(),
+                        rate.maxRate() > 0L ? Long.toString(rate.maxRate()) : "none");
+            }
+        }
+    }
+
+    private void printOperationBreakdown(PrintStream out) {
+        out.printf("%nPer-operation breakdown%n");
+        out.printf("%-10s %-12s %-7s %-7s %-10s %-7s %-12s %-12s %-9s %-9s %-9s %-10s %-12s%n",
+                "Map", "Workload", "Threads", "Repeat", "Target/s", "Op", "Operations", "Ops/sec",
+                "Avg(us)", "P50(us)", "P99(us)", "P99.9(us)", "Max(us)");
+        for (RunResult run : runs) {
+            for (OperationStats operation : run.operationStats()) {
+                LatencyStats latency = operation.latency();
+                out.printf(Locale.ROOT, "%-10s %-12s %-7d %-7d %-10s %-7s %-12d %-12.2f %-9.2f %-9.2f %-9.2f %-10.2f %-12.2f%n",
+                        run.mapType().id(),
+                        run.workload().id(),
+                        run.threadCount(),
+                        run.repeat(),
+                        run.targetRate() > 0L ? Long.toString(run.targetRate()) : "closed",
+                        operation.operation().name().toLowerCase(Locale.ROOT),
+                        operation.operations(),
+                        operation.operationsPerSecond(),
+                        latency.meanMicros(),
+                        latency.p50Micros(),
+                        latency.p99Micros(),
+                        latency.p999Micros(),
+                        latency.maxMicros());
+            }
+        }
+    }
+
+    private void printInvariantChecks(PrintStream out) {
+        out.printf("%nConservation check (sum of all values before and after the run)%n");
+        out.printf("%-10s %-12s %-7s %-7s %-10s %-20s %-20s %-8s%n",
+                "Map", "Workload", "Threads", "Repeat", "Target/s", "Expected", "Actual", "Held");
+        for (RunResult run : runs) {
+            InvariantCheck check = run.invariant();
+            if (check == null) {
+                continue;
+            }
+            out.printf("%-10s %-12s %-7d %-7d %-10s %-20d %-20d %-8s%n",
+                    run.mapType().id(),
+                    run.workload().id(),
+                    run.threadCount(),
+                    run.repeat(),
+                    run.targetRate() > 0L ? Long.toString(run.targetRate()) : "closed",
+                    check.expectedTotal(),
+                    check.actualTotal(),
+                    check.held() ? "yes" : "NO");
+        }
+    }
+
+    private void printPhaseBreakdown(PrintStream out) {
+        out.printf("%nPer-phase breakdown (recovery: time to %.0f%% of the phase's steady throughput)%n",
+                PhaseStats.RECOVERED_FRACTION * 100.0d);
+        out.printf("%-10s %-12s %-7s %-7s %-10s %-18s %-22s %-10s %-12s %-12s %-9s %-9s %-12s%n",
+                "Map", "Workload", "Threads", "Repeat", "Target/s", "Phase", "Keys", "Start(ms)", "Operations",
+                "Ops/sec", "P50(us)", "P99(us)", "Recovery(ms)");
+        for (RunResult run : runs) {
+            for (int i = 0; i < run.phases().size(); i++) {
+                PhaseStats phase = run.phases().get(i);
+                WorkloadProfile workload = phase.phase().workload();
+                out.printf(Locale.ROOT, "%-10s %-12s %-7d %-7d %-10s %-18s %-22s %-10d %-12d %-12.2f %-9.2f %-9.2f %-12s%n",
+                        run.mapType().id(),
+                        run.workload().id(),
+                        run.threadCount(),
+                        run.repeat(),
+                        run.targetRate() > 0L ? Long.toString(run.targetRate()) : "closed",
+                        (i + 1) + ":" + workload.id(),
+                        BenchmarkRunner.keyDistributionFor(config, workload).spec(),
+                        phase.startMillis(),
+                        phase.operations(),
+                        phase.operationsPerSecond(),
+                        phase.latency().p50Micros(),
+                        phase.latency().p99Micros(),
+                        phase.recoveryMillis() == null ? "-" : Long.toString(phase.recoveryMillis()));
+            }
+        }
+    }
+
+    private void printCellStatistics(PrintStream out) {
+        out.printf("%nPer-cell throughput over repeats (95%% CI of the mean)%n");
+        out.printf("%-10s %-12s %-7s %-10s %-8s %-14s %-20s %-8s %-11s %-8s%n",
+                "Map", "Workload", "Threads", "Target/s", "Repeats", "Mean ops/s", "+/- CI", "CV",
+                "Warmup(ms)", "Steady");
+        for (CellStatistics cell : cellStatistics()) {
+            String ci = cell.repeats() < 2
+                    ? "n/a"
+                    : String.format(Locale.ROOT, "%.1f (%.1f%%)%s", cell.ciHalfWidth(), cell.relativeCi() * 100.0d,
+                            config.targetCi() > 0.0d && !cell.converged() ? " cap" : "");
+            out.printf(Locale.ROOT, "%-10s %-12s %-7d %-10s %-8d %-14.1f %-20s %-8s %-11.0f %-8s%n",
+                    cell.mapType().id(),
+                    cell.workload().id(),
+                    cell.threadCount(),
+                    cell.targetRate() > 0L ? Long.toString(cell.targetRate()) : "closed",
+                    cell.repeats(),
+                    cell.meanOpsPerSec(),
+                    ci,
+                    String.format(Locale.ROOT, "%.2f%%", cell.coefficientOfVariation() * 100.0d),
+                    cell.meanWarmupMillis(),
+                    cell.steadyWarmups() + "/" + cell.repeats());
+        }
+    }
+
+    private void printScalability(PrintStream out, List<ScalabilityFit> fits) {
+        out.printf("%nUniversal Scalability Law fit (closed loop): X(N) = lambda*N / (1 + sigma*(N-1) + kappa*N*(N-1))%n");
+        StringBuilder header = new StringBuilder(String.format("%-10s %-12s %-14s %-8s %-10s %-7s %-8s %-14s",
+                "Map", "Workload", "Lambda ops/s", "Sigma", "Kappa", "R^2", "Peak N", "Peak ops/s"));
+        for (int threads : config.projectThreads()) {
+            header.append(String.format(" %-12s", "@" + threads + "t"));
+        }
+        out.println(header);
+        for (ScalabilityFit fit : fits) {
+            StringBuilder row = new StringBuilder(String.format(Locale.ROOT,
+                    "%-10s %-12s %-14.1f %-8.4f %-10.2e %-7.3f %-8s %-14s",
+                    fit.mapType().id(),
+                    fit.workload().id(),
+                    fit.lambda(),
+                    fit.sigma(),
+                    fit.kappa(),
+                    fit.rSquared(),
+                    Double.isInfinite(fit.peakThreads())
+                            ? "inf"
+                            : String.format(Locale.ROOT, "%.0f", fit.peakThreads()),
+                    Double.isInfinite(fit.peakOpsPerSec())
+                            ? "unbounded"
+                            : String.format(Locale.ROOT, "%.1f", fit.peakOpsPerSec())));
+            for (ScalabilityFit.Point point : fit.projected()) {
+                row.append(String.format(Locale.ROOT, " %-12.1f", point.opsPerSec()));
+            }
+            out.println(row);
+        }
+    }
+
+    private void printProfiles(PrintStream out) {
+        out.printf("%nJFR profiles (top methods by execution samples)%n");
+        for (RunResult run : runs) {
+            ProfileSummary profile = run.profile();
+            if (profile == null) {
+                continue;
+            }
+            out.printf("%s/%s/%dt #%d: %s%n", run.mapType().id(), run.workload().id(), run.threadCount(),
+                    run.repeat(), profile.recording());
+            profile.hotMethods().stream().limit(3).forEach(method ->
+                    out.printf(Locale.ROOT, "    %5.1f%%  %s%n", method.percent(), method.method()));
+            profile.lockContention().stream().limit(1).forEach(lock ->
+                    out.printf(Locale.ROOT, "    lock  %s (%s) %d waits, %.2f ms%n", lock.site(), lock.kind(),
+                            lock.events(), lock.totalMillis()));
+        }
+    }
+
+    /**
+     * Mean, 95% confidence interval and coefficient of variation of ops/sec over the repeats of every
+     * (map, workload, threads, rate) cell, in matrix order.
+     */
+    public List<CellStatistics> cellStatistics() {
+        return cellStatistics(runs, config.targetCi());
+    }
+
+    /**
+     * Per-cell statistics of {@code runs}; a cell is converged once its CI is within {@code targetCi} of the
+     * mean, which never happens when {@code targetCi} is zero.
+     */
+    static List<CellStatistics> cellStatistics(List<RunResult> runs, double targetCi) {
+        Map<String, List<RunResult>> cells = new LinkedHashMap<>();
+        for (RunResult run : runs) {
+            cells.computeIfAbsent(cellKey(run), key -> new ArrayList<>()).add(run);
+        }
+        return cells.values().stream()
+                .map(repeats -> {
+                    double[] throughput = repeats.stream().mapToDouble(RunResult::operationsPerSecond).toArray();
+                    double mean = Statistics.mean(throughput);
+                    double halfWidth = Statistics.meanConfidenceHalfWidth(throughput);
+                    double warmupMillis = repeats.stream().mapToLong(run -> run.warmup().durationMillis())
+                            .average().orElse(0.0d);
+                    int steady = (int) repeats.stream().filter(run -> run.warmup().steady()).count();
+                    RunResult first = repeats.get(0);
+                    return new CellStatistics(first.mapType(), first.workload(), first.threadCount(),
+                            first.targetRate(), repeats.size(), mean, halfWidth,
+                            Statistics.coefficientOfVariation(throughput), warmupMillis, steady,
+                            targetCi > 0.0d && halfWidth <= targetCi * mean);
+                })
+                .collect(Collectors.toList());
+    }
+
+    static String cellKey(RunResult run) {
+        return run.mapType().id() + '|' + run.workload().id() + '|' + run.threadCount() + '|' + run.targetRate();
+    }
+
+    /**
+     * Throughput over the repeats of one cell. {@code ciHalfWidth} is infinite for a single repeat;
+     * {@code steadyWarmups} counts the repeats whose warmup reached steady state.
+     */
+    public record CellStatistics(
+            MapType mapType,
+            WorkloadProfile workload,
+            int threadCount,
+            long targetRate,
+            int repeats,
+            double meanOpsPerSec,
+            double ciHalfWidth,
+            double coefficientOfVariation,
+            double meanWarmupMillis,
+            int steadyWarmups,
+            boolean converged) {
+
+        public double relativeCi() {
+            return meanOpsPerSec == 0.0d ? Double.POSITIVE_INFINITY : ciHalfWidth / meanOpsPerSec;
         }
     }
 
+    /**
+     * Universal Scalability Law fit per (map, workload) over the closed-loop runs, for every pair swept over at
+     * least {@value ScalabilityFit#MIN_THREAD_COUNTS} thread counts. Open-loop runs are left out: their
+     * throughput is capped by the target rate rather than by the map.
+     */
+    public List<ScalabilityFit> scalabilityFits() {
+        Map<String, List<RunResult>> sweeps = new LinkedHashMap<>();
+        for (RunResult run : runs) {
+            if (run.targetRate() == 0L) {
+                sweeps.computeIfAbsent(run.mapType().id() + '|' + run.workload().id(), key -> new ArrayList<>())
+                        .add(run);
+            }
+        }
+        List<ScalabilityFit> fits = new ArrayList<>();
+        for (List<RunResult> sweep : sweeps.values()) {
+            int[] threads = sweep.stream().mapToInt(RunResult::threadCount).toArray();
+            double[] throughput = sweep.stream().mapToDouble(RunResult::operationsPerSecond).toArray();
+            ScalabilityFit fit = ScalabilityFit.fit(sweep.get(0).mapType(), sweep.get(0).workload(), threads,
+                    throughput, config.projectThreads());
+            if (fit != null) {
+                fits.add(fit);
+            }
+        }
+        return fits;
+    }
+
+    /**
+     * For every (map, workload, threads) cell swept at open-loop rates, the highest target rate at which every
+     * repeat kept p99 within {@link BenchmarkConfig#sloP99()} and achieved at least
+     * {@value #SUSTAINED_FRACTION} of the target throughput. Empty unless an SLO is configured.
+     */
+    public List<SustainableRate> sustainableRates() {
+        if (config.sloP99() == null) {
+            return List.of();
+        }
+        double sloMicros = config.sloP99().toNanos() / 1_000.0d;
+        Map<String, SustainableRate> cells = new LinkedHashMap<>();
+        Map<String, Map<Long, Boolean>> verdicts = new LinkedHashMap<>();
+        for (RunResult run : runs) {
+            if (run.targetRate() <= 0L) {
+                continue;
+            }
+            String cell = run.mapType().id() + '|' + run.workload().id() + '|' + run.threadCount();
+            cells.putIfAbsent(cell, new SustainableRate(run.mapType(), run.workload(), run.threadCount(), 0L));
+            boolean met = run.latency().p99Micros() <= sloMicros
+                    && run.operationsPerSecond() >= SUSTAINED_FRACTION * run.targetRate();
+            verdicts.computeIfAbsent(cell, key -> new LinkedHashMap<>()).merge(run.targetRate(), met, Boolean::logicalAnd);
+        }
+        return cells.entrySet().stream()
+                .map(entry -> {
+                    long best = verdicts.get(entry.getKey()).entrySet().stream()
+                            .filter(Map.Entry::getValue)
+                            .mapToLong(Map.Entry::getKey)
+                            .max()
+                            .orElse(0L);
+                    SustainableRate cell = entry.getValue();
+                    return new SustainableRate(cell.mapType(), cell.workload(), cell.threadCount(), best);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Highest open-loop rate (ops/sec) meeting the configured p99 SLO; zero when no swept rate met it.
+     */
+    public record SustainableRate(MapType mapType, WorkloadProfile workload, int threadCount, long maxRate) {
+    }
+
     public void writeCsv(Path path) throws IOException {
         if (path == null) {
             return;
@@ -64,31 +393,122 @@ public final class BenchmarkResult {
             Files.createDirectories(parent);
         }
         try (var writer = Files.newBufferedWriter(path)) {
-            writer.write("map,workload,threads,repeat,operations,ops_per_sec,duration_ms,avg_us,p50_us,p95_us,p99_us,stm_commits,stm_aborts,stm_max_retries");
+            writer.write("map,workload,key_distribution,threads,repeat,target_ops_per_sec,operations,ops_per_sec,duration_ms,avg_us,p50_us,p90_us,p95_us,p99_us,p999_us,p9999_us,max_us,stm_commits,stm_aborts,stm_max_retries,allocated_bytes,bytes_per_op,gc_count,gc_ms,gc_ms_per_sec,warmup_ms,warmup_steady,seed_ms");
+            writer.write(operationCsvHeader());
+            writer.write(stmCsvHeader());
             writer.newLine();
             for (RunResult run : runs) {
                 LatencyStats latency = run.latency();
                 MapMetrics metrics = run.metrics();
-        writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.4f,%d,%.4f,%d,%d,%d,%d,%d,%d",
+        writer.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%.4f,%d,%.4f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%s,%s,%d,%d,%.3f,%d,%b,%d",
                         run.mapType().id(),
                         run.workload().id(),
+                        run.keyDistribution().spec(),
                         run.threadCount(),
                         run.repeat(),
+                        run.targetRate(),
                         run.totalOperations(),
                         run.operationsPerSecond(),
                         run.durationMillis(),
                         latency.meanMicros(),
                         latency.p50Micros(),
+                        latency.p90Micros(),
                         latency.p95Micros(),
                         latency.p99Micros(),
+                        latency.p999Micros(),
+                        latency.p9999Micros(),
+                        latency.maxMicros(),
                         metrics.stmCommits(),
                         metrics.stmAborts(),
-                        metrics.maxRetries()));
+                        metrics.maxRetries(),
+                        run.memory().allocationKnown() ? Long.toString(run.memory().allocatedBytes()) : "",
+                        run.memory().allocationKnown()
+                                ? String.format(Locale.ROOT, "%.2f", run.memory().bytesPerOperation(run.totalOperations()))
+                                : "",
+                        run.memory().gcCount(),
+                        run.memory().gcMillis(),
+                        run.memory().gcMillisPerSecond(run.durationMillis()),
+                        run.warmup().durationMillis(),
+                        run.warmup().steady(),
+                        run.seedMillis()));
+                writer.write(operationCsvColumns(run));
+                writer.write(stmCsvColumns(metrics));
                 writer.newLine();
             }
         }
     }
 
+    /**
+     * Per-{@link OperationType} columns; empty for types the run did not issue.
+     */
+    private static String operationCsvHeader() {
+        StringBuilder header = new StringBuilder();
+        for (OperationType operation : OperationType.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            for (String column : new String[] {"operations", "ops_per_sec", "avg_us", "p50_us", "p99_us", "p999_us",
+                    "max_us"}) {
+                header.append(',').append(name).append('_').append(column);
+            }
+        }
+        return header.toString();
+    }
+
+    private static String operationCsvColumns(RunResult run) {
+        OperationStats[] byType = new OperationStats[OperationType.values().length];
+        run.operationStats().forEach(stats -> byType[stats.operation().ordinal()] = stats);
+        StringBuilder columns = new StringBuilder();
+        for (OperationStats stats : byType) {
+            if (stats == null) {
+                columns.append(",,,,,,,");
+                continue;
+            }
+            LatencyStats latency = stats.latency();
+            columns.append(String.format(Locale.ROOT, ",%d,%.4f,%.4f,%.3f,%.3f,%.3f,%.3f",
+                    stats.operations(),
+                    stats.operationsPerSecond(),
+                    latency.meanMicros(),
+                    latency.p50Micros(),
+                    latency.p99Micros(),
+                    latency.p999Micros(),
+                    latency.maxMicros()));
+        }
+        return columns.toString();
+    }
+
+    private static String stmCsvHeader() {
+        StringBuilder header = new StringBuilder();
+        for (AbortCause cause : AbortCause.values()) {
+            header.append(",stm_aborts_").append(cause.name().toLowerCase(Locale.ROOT));
+        }
+        header.append(",stm_aborted_ms,stm_retry_histogram");
+        for (MapOperation operation : MapOperation.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            header.append(",stm_").append(name).append("_commits");
+            header.append(",stm_").append(name).append("_aborts");
+        }
+        return header.toString();
+    }
+
+    private static String stmCsvColumns(MapMetrics metrics) {
+        StringBuilder columns = new StringBuilder();
+        for (AbortCause cause : AbortCause.values()) {
+            columns.append(',').append(metrics.aborts(cause));
+        }
+        columns.append(String.format(Locale.ROOT, ",%.4f,", metrics.abortedNanos() / 1_000_000.0d));
+        long[] histogram = metrics.retryHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                columns.append(';');
+            }
+            columns.append(MapMetrics.RETRY_BUCKET_LABELS[i]).append('=').append(histogram[i]);
+        }
+        for (MapOperation operation : MapOperation.values()) {
+            columns.append(',').append(metrics.commits(operation));
+            columns.append(',').append(metrics.aborts(operation));
+        }
+        return columns.toString();
+    }
+
     public void writeJson(Path path) throws IOException {
         if (path == null) {
             return;
@@ -98,31 +518,145 @@ public final class BenchmarkResult {
             Files.createDirectories(parent);
         }
         ObjectMapper mapper = new ObjectMapper();
-        mapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), SerializableResult.from(config, runs));
+        mapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), SerializableResult.from(this));
     }
 
-    private record SerializableResult(SerializableConfig config, List<SerializableRun> runs) {
-        static SerializableResult from(BenchmarkConfig config, List<RunResult> runs) {
-            List<SerializableRun> serializableRuns = runs.stream()
+    private record SerializableResult(
+            SerializableConfig config,
+            List<SerializableRun> runs,
+            List<SerializableCell> cells,
+            List<SerializableScalability> scalability,
+            List<SerializableSustainableRate> sustainableRates) {
+
+        static SerializableResult from(BenchmarkResult result) {
+            List<SerializableRun> serializableRuns = result.runs.stream()
                     .map(SerializableRun::from)
                     .collect(Collectors.toList());
-            return new SerializableResult(SerializableConfig.from(config), serializableRuns);
+            List<SerializableSustainableRate> rates = result.sustainableRates().stream()
+                    .map(rate -> new SerializableSustainableRate(
+                            rate.mapType().id(), rate.workload().id(), rate.threadCount(), rate.maxRate()))
+                    .collect(Collectors.toList());
+            List<SerializableCell> cells = result.cellStatistics().stream()
+                    .map(SerializableCell::from)
+                    .collect(Collectors.toList());
+            List<SerializableScalability> scalability = result.scalabilityFits().stream()
+                    .map(SerializableScalability::from)
+                    .collect(Collectors.toList());
+            return new SerializableResult(SerializableConfig.from(result.config), serializableRuns, cells,
+                    scalability, rates);
         }
     }
 
+    /**
+     * CI figures are null for cells run only once.
+     */
+    private record SerializableCell(
+            String map,
+            String workload,
+            int threads,
+            long targetRate,
+            int repeats,
+            double meanOpsPerSec,
+            Double ciHalfWidth,
+            Double relativeCi,
+            double coefficientOfVariation,
+            double meanWarmupMillis,
+            int steadyWarmups,
+            boolean converged) {
+
+        static SerializableCell from(CellStatistics cell) {
+            boolean interval = cell.repeats() > 1;
+            return new SerializableCell(
+                    cell.mapType().id(),
+                    cell.workload().id(),
+                    cell.threadCount(),
+                    cell.targetRate(),
+                    cell.repeats(),
+                    cell.meanOpsPerSec(),
+                    interval ? cell.ciHalfWidth() : null,
+                    interval ? cell.relativeCi() : null,
+                    cell.coefficientOfVariation(),
+                    cell.meanWarmupMillis(),
+                    cell.steadyWarmups(),
+                    cell.converged()
+            );
+        }
+    }
+
+    /**
+     * {@code peakThreads} is null when the fit has no coherency term, i.e. throughput never declines; then
+     * {@code peakOpsPerSec} is the asymptote {@code lambda / sigma}, or null without contention either.
+     */
+    private record SerializableScalability(
+            String map,
+            String workload,
+            double lambda,
+            double sigma,
+            double kappa,
+            double rSquared,
+            Double peakThreads,
+            Double peakOpsPerSec,
+            List<ScalabilityFit.Point> measured,
+            List<ScalabilityFit.Point> projected) {
+
+        static SerializableScalability from(ScalabilityFit fit) {
+            return new SerializableScalability(
+                    fit.mapType().id(),
+                    fit.workload().id(),
+                    fit.lambda(),
+                    fit.sigma(),
+                    fit.kappa(),
+                    fit.rSquared(),
+                    Double.isInfinite(fit.peakThreads()) ? null : fit.peakThreads(),
+                    Double.isInfinite(fit.peakOpsPerSec()) ? null : fit.peakOpsPerSec(),
+                    fit.measured(),
+                    fit.projected()
+            );
+        }
+    }
+
+    private record SerializableSustainableRate(String map, String workload, int threads, long maxRate) {
+    }
+
     private record SerializableConfig(
             List<String> maps,
             List<String> workloads,
             List<Integer> threads,
             int initialSize,
             int keySpace,
+            boolean bulkLoad,
+            String keyType,
+            int valueSize,
             int rangeWidth,
+            String keyDistribution,
             long warmupMillis,
             long durationMillis,
             int repeats,
+            double targetCi,
+            int maxRepeats,
+            List<Integer> projectThreads,
+            double steadyCv,
+            long warmupWindowMillis,
             long seed,
             String csvOutput,
-            String jsonOutput) {
+            String jsonOutput,
+            String stmProfile,
+            List<Long> rates,
+            Double sloP99Micros,
+            List<SerializableWorkload> workloadDefinitions,
+            String recordTrace,
+            String replayTrace,
+            String replayTiming,
+            long sampleIntervalMillis,
+            boolean fork,
+            List<String> jvmArgs,
+            int parallel,
+            String workerMode,
+            boolean virtualThreads,
+            String ioDelay,
+            int latencySample,
+            Long timerOverheadNanos,
+            boolean profile) {
 
         static SerializableConfig from(BenchmarkConfig config) {
             return new SerializableConfig(
@@ -131,60 +665,278 @@ public final class BenchmarkResult {
                     config.threadCounts(),
                     config.initialSize(),
                     config.keySpace(),
+                    config.bulkLoad(),
+                    config.keyType().spec(),
+                    config.valueSize(),
                     config.rangeWidth(),
+                    config.keyDistribution().spec(),
                     config.warmupDuration().toMillis(),
                     config.runDuration().toMillis(),
                     config.repeats(),
+                    config.targetCi(),
+                    config.maxRepeats(),
+                    config.projectThreads(),
+                    config.steadyCv(),
+                    config.warmupWindow().toMillis(),
                     config.seed(),
                     config.csvOutput() == null ? null : config.csvOutput().toString(),
-                    config.jsonOutput() == null ? null : config.jsonOutput().toString()
+                    config.jsonOutput() == null ? null : config.jsonOutput().toString(),
+                    config.stmProfile().id(),
+                    config.targetRates(),
+                    config.sloP99() == null ? null : config.sloP99().toNanos() / 1_000.0d,
+                    config.workloads().stream().map(SerializableWorkload::from).collect(Collectors.toList()),
+                    config.recordTrace() == null ? null : config.recordTrace().toString(),
+                    config.replayTrace() == null ? null : config.replayTrace().toString(),
+                    config.replayTrace() == null ? null : config.replayTiming().id(),
+                    config.sampleInterval().toMillis(),
+                    config.fork(),
+                    config.jvmArgs(),
+                    config.parallel(),
+                    config.workerMode().id(),
+                    config.workerMode() == WorkerMode.VIRTUAL && WorkerMode.virtualThreadsAvailable(),
+                    config.ioDelay() == null ? null : config.ioDelay().spec(),
+                    config.latencySample(),
+                    config.isLatencySampled() ? TimerOverhead.nanos() : null,
+                    config.profile()
             );
         }
     }
 
+    /**
+     * Fully resolved workload mix; {@code rangeWidth}, {@code keyDistribution} and {@code valueSize} are null when
+     * the workload inherits the session-wide setting, and {@code phases} is null unless the workload is phased.
+     */
+    private record SerializableWorkload(
+            String id,
+            boolean preset,
+            Map<String, Double> weights,
+            Map<String, Integer> batchSizes,
+            String rangeWidth,
+            String keyDistribution,
+            Integer valueSize,
+            List<SerializablePhaseDefinition> phases) {
+
+        static SerializableWorkload from(WorkloadProfile workload) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            Map<String, Integer> batchSizes = new LinkedHashMap<>();
+            for (OperationType operation : OperationType.values()) {
+                String name = operation.name().toLowerCase(Locale.ROOT);
+                weights.put(name, workload.weight(operation));
+                batchSizes.put(name, workload.batchSize(operation));
+            }
+            return new SerializableWorkload(
+                    workload.id(),
+                    workload.isPreset(),
+                    weights,
+                    batchSizes,
+                    workload.rangeWidth() == null ? null : workload.rangeWidth().spec(),
+                    workload.keyDistribution() == null ? null : workload.keyDistribution().spec(),
+                    workload.valueSize(),
+                    workload.isPhased()
+                            ? workload.phases().stream()
+                                    .map(SerializablePhaseDefinition::from)
+                                    .collect(Collectors.toList())
+                            : null
+            );
+        }
+    }
+
+    private record SerializablePhaseDefinition(long durationMillis, SerializableWorkload workload) {
+
+        static SerializablePhaseDefinition from(WorkloadProfile.Phase phase) {
+            return new SerializablePhaseDefinition(phase.duration().toMillis(),
+                    SerializableWorkload.from(phase.workload()));
+        }
+    }
+
     private record SerializableRun(
             String map,
             String workload,
+            String keyDistribution,
             int threads,
             int repeat,
+            long targetRate,
             long operations,
             double opsPerSec,
             long durationMillis,
+            long seedMillis,
             SerializableLatency latency,
-            SerializableMetrics metrics) {
+            List<SerializableOperation> byOperation,
+            SerializableMetrics metrics,
+            SerializableMemory memory,
+            WarmupStats warmup,
+            List<IntervalSample> timeSeries,
+            List<SerializablePhase> phases,
+            ProfileSummary profile,
+            SerializableInvariant invariant) {
 
         static SerializableRun from(RunResult run) {
             return new SerializableRun(
                     run.mapType().id(),
                     run.workload().id(),
+                    run.keyDistribution().spec(),
                     run.threadCount(),
                     run.repeat(),
+                    run.targetRate(),
                     run.totalOperations(),
                     run.operationsPerSecond(),
                     run.durationMillis(),
+                    run.seedMillis(),
                     SerializableLatency.from(run.latency()),
-                    SerializableMetrics.from(run.metrics())
+                    run.operationStats().stream().map(SerializableOperation::from).collect(Collectors.toList()),
+                    SerializableMetrics.from(run.metrics()),
+                    SerializableMemory.from(run),
+                    run.warmup(),
+                    run.timeSeries(),
+                    run.phases().stream().map(SerializablePhase::from).collect(Collectors.toList()),
+                    run.profile(),
+                    run.invariant() == null ? null : SerializableInvariant.from(run.invariant())
             );
         }
     }
 
-    private record SerializableLatency(double meanMicros, long p50Micros, long p95Micros, long p99Micros) {
+    private record SerializableInvariant(long expectedTotal, long actualTotal, boolean held) {
+
+        static SerializableInvariant from(InvariantCheck check) {
+            return new SerializableInvariant(check.expectedTotal(), check.actualTotal(), check.held());
+        }
+    }
+
+    /**
+     * A phase of a run; {@code recoveryMillis} is null for the first phase and when the time series cannot
+     * resolve it.
+     */
+    private record SerializablePhase(
+            String workload,
+            long startMillis,
+            long durationMillis,
+            long operations,
+            double opsPerSec,
+            SerializableLatency latency,
+            Long recoveryMillis) {
+
+        static SerializablePhase from(PhaseStats stats) {
+            return new SerializablePhase(
+                    stats.phase().workload().id(),
+                    stats.startMillis(),
+                    stats.durationMillis(),
+                    stats.operations(),
+                    stats.operationsPerSecond(),
+                    SerializableLatency.from(stats.latency()),
+                    stats.recoveryMillis()
+            );
+        }
+    }
+
+    private record SerializableOperation(
+            String operation,
+            long operations,
+            double opsPerSec,
+            SerializableLatency latency) {
+
+        static SerializableOperation from(OperationStats stats) {
+            return new SerializableOperation(
+                    stats.operation().name().toLowerCase(Locale.ROOT),
+                    stats.operations(),
+                    stats.operationsPerSecond(),
+                    SerializableLatency.from(stats.latency())
+            );
+        }
+    }
+
+    /**
+     * Allocation figures are null when the JVM could not attribute allocation to the workers.
+     */
+    private record SerializableMemory(
+            Long allocatedBytes,
+            Double bytesPerOp,
+            long gcCount,
+            long gcMillis,
+            double gcMillisPerSec) {
+
+        static SerializableMemory from(RunResult run) {
+            MemoryStats memory = run.memory();
+            return new SerializableMemory(
+                    memory.allocationKnown() ? memory.allocatedBytes() : null,
+                    memory.allocationKnown() ? memory.bytesPerOperation(run.totalOperations()) : null,
+                    memory.gcCount(),
+                    memory.gcMillis(),
+                    memory.gcMillisPerSecond(run.durationMillis())
+            );
+        }
+    }
+
+    private record SerializableLatency(
+            long count,
+            double meanMicros,
+            double p50Micros,
+            double p90Micros,
+            double p95Micros,
+            double p99Micros,
+            double p999Micros,
+            double p9999Micros,
+            double maxMicros,
+            List<SerializableBucket> histogram) {
+
         static SerializableLatency from(LatencyStats stats) {
             return new SerializableLatency(
+                    stats.count(),
                     stats.meanMicros(),
                     stats.p50Micros(),
+                    stats.p90Micros(),
                     stats.p95Micros(),
-                    stats.p99Micros()
+                    stats.p99Micros(),
+                    stats.p999Micros(),
+                    stats.p9999Micros(),
+                    stats.maxMicros(),
+                    stats.buckets().stream()
+                            .map(bucket -> new SerializableBucket(bucket[0], bucket[1]))
+                            .collect(Collectors.toList())
             );
         }
     }
 
-    private record SerializableMetrics(long stmCommits, long stmAborts, long maxRetries) {
+    /**
+     * Histogram bucket holding {@code count} samples no greater than {@code upperNanos}.
+     */
+    private record SerializableBucket(long upperNanos, long count) {
+    }
+
+    private record SerializableMetrics(
+            long stmCommits,
+            long stmAborts,
+            long maxRetries,
+            Map<String, Long> abortsByCause,
+            Map<String, Long> commitsByOperation,
+            Map<String, Long> abortsByOperation,
+            Map<String, Long> retryHistogram,
+            double abortedMillis) {
+
         static SerializableMetrics from(MapMetrics metrics) {
+            Map<String, Long> causes = new LinkedHashMap<>();
+            for (AbortCause cause : AbortCause.values()) {
+                causes.put(cause.name(), metrics.aborts(cause));
+            }
+            Map<String, Long> commits = new LinkedHashMap<>();
+            Map<String, Long> aborts = new LinkedHashMap<>();
+            for (MapOperation operation : MapOperation.values()) {
+                commits.put(operation.name(), metrics.commits(operation));
+                aborts.put(operation.name(), metrics.aborts(operation));
+            }
+            Map<String, Long> retries = new LinkedHashMap<>();
+            long[] histogram = metrics.retryHistogram();
+            for (int i = 0; i < histogram.length; i++) {
+                retries.put(MapMetrics.RETRY_BUCKET_LABELS[i], histogram[i]);
+            }
             return new SerializableMetrics(
                     metrics.stmCommits(),
                     metrics.stmAborts(),
-                    metrics.maxRetries()
+                    metrics.maxRetries(),
+                    causes,
+                    commits,
+                    aborts,
+                    retries,
+                    metrics.abortedNanos() / 1_000_000.0d
             );
         }
     }
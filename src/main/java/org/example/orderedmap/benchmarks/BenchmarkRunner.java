@@ -1,42 +1,108 @@
 package org.example.orderedmap.benchmarks;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SplittableRandom;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
 import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
 import org.example.orderedmap.api.OrderedMap;
-import org.example.orderedmap.util.LongArray;
+import org.example.orderedmap.profiling.RangeQueryEvent;
+import org.example.orderedmap.trace.TraceFile;
+import org.example.orderedmap.trace.TraceFormat;
+import org.example.orderedmap.trace.TraceWriter;
+import org.example.orderedmap.trace.TracingOrderedMap;
 
 /**
  * Entry point for the ordered map benchmark harness.
  */
 public final class BenchmarkRunner {
 
+    /** Open-loop workers park until this close to their next intended start, then spin. */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+
+    /** Exit status when a comparison against a baseline finds a regression (1 is a usage error). */
+    static final int REGRESSION_EXIT_STATUS = 2;
+
+    /**
+     * Virtual-thread workers share this many latency recorders per available processor instead of owning one
+     * each, which would cost tens of kilobytes per worker at 10k+ workers.
+     */
+    private static final int SHARED_SAMPLES_PER_PROCESSOR = 4;
+
+    /** Steady-state detection looks at the throughput of this many consecutive warmup windows. */
+    static final int STEADY_WINDOWS = 5;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    /** A transfer moves between one and this many units to each destination key. */
+    private static final int MAX_TRANSFER_AMOUNT = 100;
+
     public static void main(String[] args) {
         try {
             BenchmarkConfig config = BenchmarkConfig.fromArgs(args);
             BenchmarkRunner runner = new BenchmarkRunner();
-            BenchmarkResult result = runner.runAll(config);
-            result.printSummary(System.out);
-            if (config.csvOutput() != null) {
-                result.writeCsv(config.csvOutput());
+            if (config.cell() != null) {
+                ForkedCellScheduler.emit(runner.runCell(config, config.cell()), System.out);
+                return;
             }
-            if (config.jsonOutput() != null) {
-                result.writeJson(config.jsonOutput());
+            if (config.listMaps()) {
+                MapType.printProviders(System.out);
+                return;
+            }
+            if (config.footprint()) {
+                FootprintReport footprint = FootprintReport.measure(config);
+                footprint.printSummary(System.out);
+                if (config.csvOutput() != null) {
+                    footprint.writeCsv(config.csvOutput());
+                }
+                if (config.jsonOutput() != null) {
+                    footprint.writeJson(config.jsonOutput());
+                }
+                return;
+            }
+            BaselineComparison comparison;
+            if (config.candidate() != null) {
+                comparison = BaselineComparison.compare(config.baseline(), config.candidate(),
+                        config.regressionThreshold(), config.alpha());
+            } else {
+                BenchmarkResult result = runner.runAll(config);
+                result.printSummary(System.out);
+                if (config.csvOutput() != null) {
+                    result.writeCsv(config.csvOutput());
+                }
+                if (config.jsonOutput() != null) {
+                    result.writeJson(config.jsonOutput());
+                }
+                comparison = config.baseline() == null ? null : BaselineComparison.compare(config.baseline(), result,
+                        config.regressionThreshold(), config.alpha());
+            }
+            if (comparison != null) {
+                comparison.printSummary(System.out);
+                if (config.report() != null) {
+                    comparison.writeReport(config.report());
+                }
+                if (comparison.hasRegressions()) {
+                    System.exit(REGRESSION_EXIT_STATUS);
+                }
             }
         } catch (BenchmarkConfig.HelpException help) {
             BenchmarkConfig.printUsage(System.out);
-        } catch (IllegalArgumentException | IOException ex) {
+        } catch (IllegalArgumentException | IOException | UncheckedIOException ex) {
             System.err.println("Error: " + ex.getMessage());
             BenchmarkConfig.printUsage(System.err);
             System.exit(1);
@@ -44,59 +110,352 @@ public final class BenchmarkRunner {
     }
 
     public BenchmarkResult runAll(BenchmarkConfig config) {
-        List<RunResult> runs = new ArrayList<>();
+        if (config.workerMode() == WorkerMode.VIRTUAL && !WorkerMode.virtualThreadsAvailable()) {
+            System.err.println("Virtual threads need Java 21+; running one platform thread per worker instead");
+        }
+        TraceFile trace = openTrace(config);
+        List<WorkloadProfile> workloads = workloadsFor(config, trace);
+        boolean adaptive = config.targetCi() > 0.0d;
+        int repeats = adaptive ? Math.max(2, config.repeats()) : config.repeats();
+        List<BenchmarkCell> cells = new ArrayList<>();
         for (MapType mapType : config.mapTypes()) {
-            for (WorkloadProfile workload : config.workloads()) {
+            for (WorkloadProfile workload : workloads) {
                 for (int threads : config.threadCounts()) {
-                    for (int repeat = 1; repeat <= config.repeats(); repeat++) {
-                        runs.add(runSingle(config, mapType, workload, threads, repeat));
+                    for (long rate : config.targetRates()) {
+                        for (int repeat = 1; repeat <= repeats; repeat++) {
+                            cells.add(new BenchmarkCell(mapType, workload, threads, rate, repeat));
+                        }
                     }
                 }
             }
         }
+        ForkedCellScheduler scheduler = config.fork() ? new ForkedCellScheduler(config, System.out) : null;
+        // Forked children build their own pool.
+        KeyPool keyPool = scheduler == null ? KeyPool.of(config) : null;
+        List<RunResult> runs = new ArrayList<>(execute(config, trace, keyPool, scheduler, cells));
+        if (adaptive) {
+            runs = repeatUntilConverged(config, trace, keyPool, scheduler, runs);
+        }
         return new BenchmarkResult(config, runs);
     }
 
+    private List<RunResult> execute(BenchmarkConfig config,
+                                    TraceFile trace,
+                                    KeyPool keyPool,
+                                    ForkedCellScheduler scheduler,
+                                    List<BenchmarkCell> cells) {
+        if (scheduler != null) {
+            return scheduler.run(cells);
+        }
+        List<RunResult> runs = new ArrayList<>(cells.size());
+        for (BenchmarkCell cell : cells) {
+            runs.add(runSingle(config, cell.mapType(), cell.workload(), trace, keyPool, cell.threadCount(),
+                    cell.targetRate(), cell.repeat()));
+        }
+        return runs;
+    }
+
+    /**
+     * Adds one repeat per round to every cell whose confidence interval is still wider than
+     * {@link BenchmarkConfig#targetCi()}, until all cells converge or reach {@link BenchmarkConfig#maxRepeats()}.
+     * A round runs the outstanding cells as one batch, so forked rounds still run in parallel. The result keeps
+     * matrix order with each cell's repeats together.
+     */
+    private List<RunResult> repeatUntilConverged(BenchmarkConfig config,
+                                                 TraceFile trace,
+                                                 KeyPool keyPool,
+                                                 ForkedCellScheduler scheduler,
+                                                 List<RunResult> runs) {
+        while (true) {
+            List<BenchmarkCell> round = new ArrayList<>();
+            for (BenchmarkResult.CellStatistics cell : BenchmarkResult.cellStatistics(runs, config.targetCi())) {
+                if (!cell.converged() && cell.repeats() < config.maxRepeats()) {
+                    round.add(new BenchmarkCell(cell.mapType(), cell.workload(), cell.threadCount(),
+                            cell.targetRate(), cell.repeats() + 1));
+                }
+            }
+            if (round.isEmpty()) {
+                break;
+            }
+            runs.addAll(execute(config, trace, keyPool, scheduler, round));
+        }
+        Map<String, List<RunResult>> byCell = new LinkedHashMap<>();
+        for (RunResult run : runs) {
+            byCell.computeIfAbsent(BenchmarkResult.cellKey(run), key -> new ArrayList<>()).add(run);
+        }
+        List<RunResult> ordered = new ArrayList<>(runs.size());
+        byCell.values().forEach(ordered::addAll);
+        return ordered;
+    }
+
+    /**
+     * Runs the single cell a forked child was launched for.
+     */
+    RunResult runCell(BenchmarkConfig config, String spec) {
+        TraceFile trace = openTrace(config);
+        BenchmarkCell cell = BenchmarkCell.parse(spec, workloadsFor(config, trace));
+        return runSingle(config, cell.mapType(), cell.workload(), trace, KeyPool.of(config), cell.threadCount(),
+                cell.targetRate(), cell.repeat());
+    }
+
+    private static List<WorkloadProfile> workloadsFor(BenchmarkConfig config, TraceFile trace) {
+        return trace == null ? config.workloads() : List.of(replayProfile(trace));
+    }
+
+    private static TraceFile openTrace(BenchmarkConfig config) {
+        if (config.replayTrace() == null) {
+            return null;
+        }
+        try {
+            TraceFile trace = TraceFile.open(config.replayTrace());
+            if (trace.recordCount() == 0L) {
+                throw new IllegalArgumentException("Trace " + config.replayTrace() + " holds no records");
+            }
+            if (config.replayTiming() == ReplayTiming.ORIGINAL && !trace.hasTimestamps()) {
+                throw new IllegalArgumentException("Trace " + config.replayTrace()
+                        + " has no timestamps; replay it with --replay-timing fast");
+            }
+            return trace;
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to open trace " + config.replayTrace(), io);
+        }
+    }
+
+    /**
+     * Describes a replayed trace as a workload whose weights are the trace's operation mix, for reporting only.
+     * Rejects traces holding atomic updates, whose records do not carry the keys needed to replay them.
+     */
+    private static WorkloadProfile replayProfile(TraceFile trace) {
+        long[] counts = trace.operationCounts();
+        long atomicUpdates = counts[MapOperation.ATOMIC_UPDATE.ordinal()];
+        if (atomicUpdates > 0L) {
+            throw new IllegalArgumentException("Trace " + trace.path() + " holds " + atomicUpdates
+                    + " atomic update records, which cannot be replayed");
+        }
+        WorkloadProfile.Builder builder = WorkloadProfile.builder("replay:" + trace.path().getFileName())
+                .withKeyDistribution(KeyDistribution.TRACE);
+        for (OperationType operation : OperationType.values()) {
+            if (operation != OperationType.TRANSFER) {
+                builder.withWeight(operation, counts[MapOperation.valueOf(operation.name()).ordinal()]);
+            }
+        }
+        return builder.build();
+    }
+
     private RunResult runSingle(BenchmarkConfig config,
                                 MapType mapType,
                                 WorkloadProfile workload,
+                                TraceFile trace,
+                                KeyPool keyPool,
                                 int threadCount,
+                                long targetRate,
                                 int repeatIndex) {
-        try (OrderedMap<Integer, Integer> map = mapType.create()) {
-            seedData(map, config.initialSize());
-            if (!config.warmupDuration().isZero()) {
-                executePhase(map, config, workload, threadCount, config.warmupDuration(), false);
-            }
+        try (OrderedMap<Object, Object> map = mapType.create(config)) {
+            long seedMillis = seedData(map, config, keyPool, valueSizeFor(config, workload));
+            long seededTotal = workload.conservesValues() ? valueTotal(map, keyPool) : 0L;
+            // A phased workload warms up on its first phase, so the measurement starts in its steady state.
+            WorkloadProfile warmupWorkload = workload.isPhased() ? workload.phases().get(0).workload() : workload;
+            WarmupStats warmup = warmUp(map, config, warmupWorkload, trace, keyPool, threadCount, targetRate);
             MapMetrics baseline = map.snapshotMetrics();
-            ExecutionResult measurement = executePhase(map, config, workload, threadCount, config.runDuration(), true);
+            JfrProfiler profiler = config.profile() ? JfrProfiler.start() : null;
+            ExecutionResult measurement;
+            ProfileSummary profile = null;
+            try {
+                measurement = measure(map, config, workload, trace, keyPool, threadCount, targetRate);
+                if (profiler != null) {
+                    profile = profiler.stop(JfrProfiler.directory(config).resolve(
+                            JfrProfiler.fileName(mapType, workload, threadCount, targetRate, repeatIndex)));
+                }
+            } finally {
+                if (profiler != null) {
+                    profiler.close();
+                }
+            }
             MapMetrics metrics = map.snapshotMetrics().diff(baseline);
             double opsPerSecond = measurement.totalOperations / (measurement.durationNanos / 1_000_000_000.0d);
-            LatencyStats latency = LatencyStats.fromMicros(measurement.latencies);
+            LatencyStats latency = LatencyStats.fromHistogram(measurement.latencies);
+            List<OperationStats> operationStats = new ArrayList<>();
+            for (OperationType operation : OPERATION_TYPES) {
+                LatencyHistogram histogram = measurement.latenciesByOperation[operation.ordinal()];
+                long count = measurement.operationsByType[operation.ordinal()];
+                if (count > 0L) {
+                    operationStats.add(new OperationStats(operation, count,
+                            count / (measurement.durationNanos / 1_000_000_000.0d),
+                            LatencyStats.fromHistogram(histogram)));
+                }
+            }
+            List<IntervalSample> timeSeries = config.sampleInterval().isZero()
+                    ? List.of()
+                    : IntervalSeries.merge(measurement.series, config.sampleInterval().toNanos(),
+                            measurement.durationNanos);
             long durationMillis = TimeUnit.NANOSECONDS.toMillis(measurement.durationNanos);
-            return new RunResult(mapType, workload, threadCount, repeatIndex,
-                    measurement.totalOperations, opsPerSecond, durationMillis, latency, metrics);
+            InvariantCheck invariant = workload.conservesValues()
+                    ? new InvariantCheck(seededTotal, valueTotal(map, keyPool))
+                    : null;
+            return new RunResult(mapType, workload, keyDistributionFor(config, workload), threadCount, repeatIndex,
+                    targetRate, measurement.totalOperations, opsPerSecond, durationMillis, seedMillis, latency,
+                    List.copyOf(operationStats), metrics, timeSeries, phaseStats(workload, measurement, timeSeries),
+                    warmup, measurement.memory, profile, invariant);
         }
     }
 
-    private void seedData(OrderedMap<Integer, Integer> map, int initialSize) {
-        for (int i = 0; i < initialSize; i++) {
-            map.put(i, i);
+    /**
+     * Sum of the int values of every key in the key space, absent keys counting zero. Read with one get per key,
+     * so it is only a consistent total while no workers run.
+     */
+    static long valueTotal(OrderedMap<Object, Object> map, KeyPool keyPool) {
+        return IntStream.range(0, keyPool.keySpace()).parallel()
+                .mapToLong(index -> {
+                    Object value = map.get(keyPool.key(index));
+                    return value == null ? 0L : (Integer) value;
+                })
+                .sum();
+    }
+
+    /**
+     * Breaks the measurement down by the phases of a phased workload. Phases start at their scheduled offsets;
+     * the last one ends when the measurement does.
+     */
+    private static List<PhaseStats> phaseStats(WorkloadProfile workload,
+                                               ExecutionResult measurement,
+                                               List<IntervalSample> timeSeries) {
+        List<PhaseStats> phases = new ArrayList<>(workload.phases().size());
+        long startNanos = 0L;
+        for (int i = 0; i < workload.phases().size(); i++) {
+            WorkloadProfile.Phase phase = workload.phases().get(i);
+            boolean last = i == workload.phases().size() - 1;
+            long lengthNanos = last ? measurement.durationNanos - startNanos : phase.duration().toNanos();
+            long startMillis = TimeUnit.NANOSECONDS.toMillis(startNanos);
+            long endMillis = TimeUnit.NANOSECONDS.toMillis(startNanos + lengthNanos);
+            long operations = measurement.operationsByPhase[i];
+            phases.add(new PhaseStats(phase, startMillis, endMillis - startMillis, operations,
+                    operations / (lengthNanos / 1_000_000_000.0d),
+                    LatencyStats.fromHistogram(measurement.latenciesByPhase[i]),
+                    i == 0 ? null : PhaseStats.recoveryMillis(timeSeries, startMillis, endMillis)));
+            startNanos += lengthNanos;
+        }
+        return List.copyOf(phases);
+    }
+
+    /**
+     * Runs the warmup phase. With {@link BenchmarkConfig#steadyCv()} set, the warmup runs in windows and stops
+     * as soon as the throughput of the last {@value #STEADY_WINDOWS} windows has a coefficient of variation at
+     * or below it; {@link BenchmarkConfig#warmupDuration()} caps the warmup either way.
+     */
+    private WarmupStats warmUp(OrderedMap<Object, Object> map,
+                               BenchmarkConfig config,
+                               WorkloadProfile workload,
+                               TraceFile trace,
+                               KeyPool keyPool,
+                               int threadCount,
+                               long targetRate) {
+        Duration cap = config.warmupDuration();
+        if (cap.isZero()) {
+            return WarmupStats.NONE;
+        }
+        long start = System.nanoTime();
+        if (config.steadyCv() <= 0.0d) {
+            executePhase(map, config, workload, trace, keyPool, threadCount, targetRate, cap, false);
+            return new WarmupStats(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1, false);
         }
+        double[] recent = new double[STEADY_WINDOWS];
+        int windows = 0;
+        long remaining = cap.toNanos();
+        while (remaining > 0L) {
+            Duration window = Duration.ofNanos(Math.min(config.warmupWindow().toNanos(), remaining));
+            ExecutionResult result = executePhase(map, config, workload, trace, keyPool, threadCount, targetRate,
+                    window, false);
+            recent[windows % STEADY_WINDOWS] = result.totalOperations / (result.durationNanos / 1_000_000_000.0d);
+            windows++;
+            long elapsed = System.nanoTime() - start;
+            if (windows >= STEADY_WINDOWS && Statistics.coefficientOfVariation(recent) <= config.steadyCv()) {
+                return new WarmupStats(TimeUnit.NANOSECONDS.toMillis(elapsed), windows, true);
+            }
+            remaining = cap.toNanos() - elapsed;
+        }
+        return new WarmupStats(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), windows, false);
     }
 
-    private ExecutionResult executePhase(OrderedMap<Integer, Integer> map,
+    /**
+     * Runs the measurement phase, through a {@link TracingOrderedMap} when the run is being recorded. Recording
+     * is limited to {@link KeyType#INT} keys, which is what the casts rely on. A phased workload runs for its
+     * {@link WorkloadProfile#scheduleLength()} instead of {@link BenchmarkConfig#runDuration()}.
+     *
+     * <p>With {@link BenchmarkConfig#latencySample()} set the phase runs twice: first with nothing timed, which
+     * gives the throughput, operation counts and memory figures, then with one in N operations timed, which
+     * gives the latencies and the time series.
+     */
+    @SuppressWarnings("unchecked")
+    private ExecutionResult measure(OrderedMap<Object, Object> map,
+                                    BenchmarkConfig config,
+                                    WorkloadProfile workload,
+                                    TraceFile trace,
+                                    KeyPool keyPool,
+                                    int threadCount,
+                                    long targetRate) {
+        Duration duration = workload.isPhased() ? workload.scheduleLength() : config.runDuration();
+        if (config.isLatencySampled()) {
+            ExecutionResult untimed = executePhase(map, config, workload, trace, keyPool, threadCount, targetRate,
+                    duration, false);
+            ExecutionResult sampled = executePhase(map, config, workload, trace, keyPool, threadCount, targetRate,
+                    duration, true);
+            return untimed.withLatenciesOf(sampled);
+        }
+        if (config.recordTrace() == null) {
+            return executePhase(map, config, workload, trace, keyPool, threadCount, targetRate, duration, true);
+        }
+        try (TraceWriter writer = new TraceWriter(config.recordTrace(), true)) {
+            OrderedMap<?, ?> traced = new TracingOrderedMap<>((OrderedMap<Integer, Object>) (OrderedMap<?, ?>) map,
+                    writer);
+            return executePhase((OrderedMap<Object, Object>) traced, config, workload, trace, keyPool, threadCount,
+                    targetRate, duration, true);
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to record trace " + config.recordTrace(), io);
+        }
+    }
+
+    /**
+     * Populates the pooled keys {@code [0, initialSize)}, each with a fresh {@link KeyPool#seedValue} of
+     * {@code valueSize} bytes, and returns how long it took. The values are created in parallel and handed to {@link OrderedMap#bulkLoad} with the keys
+     * as one sorted batch; with bulk loading disabled they are put one at a time from a parallel stream instead.
+     */
+    private static long seedData(OrderedMap<Object, Object> map, BenchmarkConfig config, KeyPool keyPool,
+                                 int valueSize) {
+        long start = System.nanoTime();
+        int initialSize = config.initialSize();
+        if (config.bulkLoad()) {
+            map.bulkLoad(keyPool.seedEntries(initialSize, valueSize));
+        } else {
+            IntStream.range(0, initialSize).parallel()
+                    .forEach(index -> map.put(keyPool.key(index), KeyPool.seedValue(valueSize, index)));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private ExecutionResult executePhase(OrderedMap<Object, Object> map,
                                          BenchmarkConfig config,
                                          WorkloadProfile workload,
+                                         TraceFile trace,
+                                         KeyPool keyPool,
                                          int threadCount,
+                                         long targetRate,
                                          Duration duration,
                                          boolean collectSamples) {
-        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        long intervalNanos = targetRate > 0L
+                ? Math.max(1L, Math.round(1_000_000_000.0d * threadCount / targetRate))
+                : 0L;
+        PhaseSwitch phases = workload.isPhased() ? new PhaseSwitch(workload.phases()) : null;
+        List<WorkerSamples> recorders = collectSamples
+                ? newRecorders(config, threadCount, duration, workload.phases().size())
+                : List.of();
+        ExecutorService pool = config.workerMode().newExecutor(threadCount);
         CountDownLatch ready = new CountDownLatch(threadCount);
         CountDownLatch start = new CountDownLatch(1);
         List<Future<WorkerResult>> futures = new ArrayList<>(threadCount);
         for (int workerId = 0; workerId < threadCount; workerId++) {
-            final int id = workerId;
-            futures.add(pool.submit(workerTask(map, config, workload, duration, collectSamples, ready, start, id)));
+            WorkerSamples samples = recorders.isEmpty() ? null : recorders.get(workerId % recorders.size());
+            futures.add(pool.submit(workerTask(map, config, workload, phases, trace, keyPool, threadCount,
+                    intervalNanos, duration, samples, ready, start, workerId)));
         }
         try {
             ready.await();
@@ -105,9 +464,16 @@ public final class BenchmarkRunner {
             pool.shutdownNow();
             throw new IllegalStateException("Interrupted while waiting for workers", e);
         }
+        MemoryProbe.GcSnapshot gcBefore = MemoryProbe.gcSnapshot();
         long phaseStart = System.nanoTime();
+        for (WorkerSamples samples : recorders) {
+            samples.begin(phaseStart);
+        }
         start.countDown();
         pool.shutdown();
+        if (phases != null) {
+            phases.drive(phaseStart);
+        }
         try {
             boolean terminated = pool.awaitTermination(duration.toMillis() + 10_000L, TimeUnit.MILLISECONDS);
             if (!terminated) {
@@ -118,15 +484,25 @@ public final class BenchmarkRunner {
             pool.shutdownNow();
         }
         long phaseEnd = System.nanoTime();
+        MemoryProbe.GcSnapshot gc = MemoryProbe.gcSnapshot().since(gcBefore);
         long totalOperations = 0L;
-    LongArray latencies = collectSamples ? new LongArray(threadCount * 512) : null;
+        long allocatedBytes = 0L;
+        long[] operationsByType = new long[OPERATION_TYPES.length];
+        long[] operationsByPhase = new long[workload.phases().size()];
         for (Future<WorkerResult> future : futures) {
             try {
                 WorkerResult worker = future.get();
                 totalOperations += worker.operations();
-                if (collectSamples && latencies != null && worker.latencies() != null) {
-                    latencies.addAll(worker.latencies());
+                for (int i = 0; i < operationsByType.length; i++) {
+                    operationsByType[i] += worker.operationsByType()[i];
+                }
+                for (int i = 0; i < operationsByPhase.length; i++) {
+                    operationsByPhase[i] += worker.operationsByPhase()[i];
                 }
+                allocatedBytes = allocatedBytes == MemoryProbe.UNSUPPORTED
+                        || worker.allocatedBytes() == MemoryProbe.UNSUPPORTED
+                        ? MemoryProbe.UNSUPPORTED
+                        : allocatedBytes + worker.allocatedBytes();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 pool.shutdownNow();
@@ -136,21 +512,98 @@ public final class BenchmarkRunner {
                 throw new IllegalStateException("Worker execution failed", e.getCause());
             }
         }
-        long[] samples = collectSamples && latencies != null ? latencies.toArray() : new long[0];
-        return new ExecutionResult(totalOperations, phaseEnd - phaseStart, samples);
+        LatencyHistogram latencies = collectSamples ? new LatencyHistogram() : null;
+        LatencyHistogram[] latenciesByOperation = new LatencyHistogram[OPERATION_TYPES.length];
+        for (int i = 0; i < latenciesByOperation.length; i++) {
+            latenciesByOperation[i] = new LatencyHistogram();
+        }
+        LatencyHistogram[] latenciesByPhase = new LatencyHistogram[workload.phases().size()];
+        for (int i = 0; i < latenciesByPhase.length; i++) {
+            latenciesByPhase[i] = new LatencyHistogram();
+        }
+        List<IntervalSeries> series = new ArrayList<>(recorders.size());
+        for (WorkerSamples samples : recorders) {
+            latencies.merge(samples.latencies);
+            for (int i = 0; i < latenciesByOperation.length; i++) {
+                latenciesByOperation[i].merge(samples.latenciesByOperation[i]);
+            }
+            for (int i = 0; i < latenciesByPhase.length; i++) {
+                latenciesByPhase[i].merge(samples.latenciesByPhase[i]);
+            }
+            if (samples.series != null) {
+                series.add(samples.series);
+            }
+        }
+        return new ExecutionResult(totalOperations, phaseEnd - phaseStart, latencies, latenciesByOperation,
+                operationsByType, latenciesByPhase, operationsByPhase, series,
+                new MemoryStats(allocatedBytes, gc.count(), gc.millis()));
+    }
+
+    /**
+     * One recorder per platform worker; virtual-thread workers are striped over a few shared, locked ones.
+     */
+    private static List<WorkerSamples> newRecorders(BenchmarkConfig config,
+                                                    int threadCount,
+                                                    Duration duration,
+                                                    int phaseCount) {
+        boolean shared = config.workerMode() == WorkerMode.VIRTUAL;
+        int count = shared
+                ? Math.min(threadCount, SHARED_SAMPLES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors())
+                : threadCount;
+        long timerOverhead = config.isLatencySampled() ? TimerOverhead.nanos() : 0L;
+        List<WorkerSamples> recorders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recorders.add(new WorkerSamples(config.sampleInterval(), duration, phaseCount,
+                    shared && count < threadCount, timerOverhead));
+        }
+        return recorders;
     }
 
-    private Callable<WorkerResult> workerTask(OrderedMap<Integer, Integer> map,
+    /**
+     * One worker of a phase. With a {@link PhaseSwitch} the worker prepares key generators and range widths for
+     * every phase up front and reads the current phase before each operation, swapping them only when it changes.
+     * Operation counts are kept in plain worker-local arrays. In closed loop a countdown picks every
+     * {@link BenchmarkConfig#latencySample()}-th operation, or every operation when that is zero; only the picked
+     * ones read the clock, to check the deadline and, when recording, to time the operation. Each worker's
+     * countdown starts at a different point, which spreads the clock reads out across workers.
+     */
+    private Callable<WorkerResult> workerTask(OrderedMap<Object, Object> map,
                                               BenchmarkConfig config,
                                               WorkloadProfile workload,
+                                              PhaseSwitch phases,
+                                              TraceFile trace,
+                                              KeyPool keyPool,
+                                              int threadCount,
+                                              long intervalNanos,
                                               Duration duration,
-                                              boolean collectSamples,
+                                              WorkerSamples samples,
                                               CountDownLatch ready,
                                               CountDownLatch start,
                                               int workerId) {
         return () -> {
             SplittableRandom random = new SplittableRandom(config.seed() + workerId);
-            LongArray samples = collectSamples ? new LongArray(1024) : null;
+            WorkloadProfile[] mixes = phases == null
+                    ? new WorkloadProfile[] {workload}
+                    : workload.phases().stream().map(WorkloadProfile.Phase::workload).toArray(WorkloadProfile[]::new);
+            KeyDistribution.KeyGenerator[] generators = new KeyDistribution.KeyGenerator[mixes.length];
+            WorkloadProfile.RangeWidth[] rangeWidths = new WorkloadProfile.RangeWidth[mixes.length];
+            KeyPool.Values[] valuePools = new KeyPool.Values[mixes.length];
+            for (int i = 0; i < mixes.length; i++) {
+                generators[i] = trace != null ? null : keyDistributionFor(config, mixes[i])
+                        .newGenerator(config.keySpace(), config.initialSize(), workerId, threadCount);
+                rangeWidths[i] = mixes[i].rangeWidth() != null
+                        ? mixes[i].rangeWidth()
+                        : WorkloadProfile.RangeWidth.fixed(config.rangeWidth());
+                valuePools[i] = keyPool.values(valueSizeFor(config, mixes[i]));
+            }
+            long[] operationsByType = new long[OPERATION_TYPES.length];
+            long[] operationsByPhase = new long[mixes.length];
+            int phase = 0;
+            WorkloadProfile mix = mixes[0];
+            KeyDistribution.KeyGenerator keys = generators[0];
+            WorkloadProfile.RangeWidth widths = rangeWidths[0];
+            KeyPool.Values values = valuePools[0];
+            IoDelay ioDelay = config.ioDelay();
             ready.countDown();
             try {
                 start.await();
@@ -158,50 +611,420 @@ public final class BenchmarkRunner {
                 Thread.currentThread().interrupt();
                 throw new IllegalStateException("Worker interrupted before start", e);
             }
-            long deadline = System.nanoTime() + duration.toNanos();
+            long allocatedBefore = MemoryProbe.currentThreadAllocatedBytes();
+            long phaseStart = System.nanoTime();
+            long deadline = phaseStart + duration.toNanos();
             long operations = 0L;
-            while (System.nanoTime() < deadline) {
-                long opStart = collectSamples ? System.nanoTime() : 0L;
-                performOperation(map, workload, random, config);
-                if (collectSamples && samples != null) {
-                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - opStart);
-                    samples.add(micros);
+            if (trace != null) {
+                operations = replayPartition(map, trace, config.replayTiming(), workerId, threadCount, phaseStart,
+                        deadline, samples, operationsByType);
+            } else if (intervalNanos > 0L) {
+                // Open loop: latency is measured from the intended start, so queueing behind a slow
+                // operation is charged to the operations that waited (coordinated-omission correction).
+                long intended = phaseStart + intervalNanos * workerId / threadCount;
+                while (intended < deadline && awaitIntendedStart(intended) < deadline) {
+                    if (phases != null && phases.current() != phase) {
+                        phase = phases.current();
+                        mix = mixes[phase];
+                        keys = generators[phase];
+                        widths = rangeWidths[phase];
+                        values = valuePools[phase];
+                    }
+                    OperationType operation = mix.chooseOperation(random);
+                    int performed = performOperation(map, mix, operation, keys, keyPool, values, widths, random);
+                    if (samples != null) {
+                        samples.record(operation, phase, intended, performed);
+                    }
+                    operationsByType[operation.ordinal()] += performed;
+                    operationsByPhase[phase] += performed;
+                    operations += performed;
+                    intended += intervalNanos;
+                }
+            } else {
+                int sampleEvery = Math.max(1, config.latencySample());
+                int untilSample = 1 + workerId % sampleEvery;
+                long unsampled = 0L;
+                while (true) {
+                    boolean sampled = --untilSample == 0;
+                    long opStart = 0L;
+                    if (sampled) {
+                        untilSample = sampleEvery;
+                        opStart = System.nanoTime();
+                        if (opStart >= deadline) {
+                            break;
+                        }
+                    }
+                    if (phases != null && phases.current() != phase) {
+                        phase = phases.current();
+                        mix = mixes[phase];
+                        keys = generators[phase];
+                        widths = rangeWidths[phase];
+                        values = valuePools[phase];
+                    }
+                    OperationType operation = mix.chooseOperation(random);
+                    int performed = performOperation(map, mix, operation, keys, keyPool, values, widths, random);
+                    operationsByType[operation.ordinal()] += performed;
+                    operationsByPhase[phase] += performed;
+                    operations += performed;
+                    if (!sampled) {
+                        unsampled += performed;
+                    } else {
+                        if (samples != null) {
+                            // The series counts the operations since the last sample along with this one.
+                            samples.record(operation, phase, opStart, unsampled + performed);
+                        }
+                        unsampled = 0L;
+                    }
+                    if (ioDelay != null) {
+                        ioDelay.pause(random);
+                    }
                 }
-                operations++;
             }
-            return new WorkerResult(operations, samples);
+            long allocatedAfter = MemoryProbe.currentThreadAllocatedBytes();
+            long allocated = allocatedBefore == MemoryProbe.UNSUPPORTED || allocatedAfter == MemoryProbe.UNSUPPORTED
+                    ? MemoryProbe.UNSUPPORTED
+                    : allocatedAfter - allocatedBefore;
+            return new WorkerResult(operations, allocated, operationsByType, operationsByPhase);
         };
     }
 
-    private void performOperation(OrderedMap<Integer, Integer> map,
-                                  WorkloadProfile workload,
-                                  SplittableRandom random,
-                                  BenchmarkConfig config) {
-        OperationType operation = workload.chooseOperation(random);
-        int keySpace = config.keySpace();
-        int key = keySpace == 0 ? 0 : random.nextInt(keySpace);
-        switch (operation) {
-            case GET -> map.get(key);
-            case PUT -> map.put(key, random.nextInt());
-            case REMOVE -> map.remove(key);
+    /**
+     * Replays records {@code workerId, workerId + threadCount, ...} of the trace. Interleaving rather than
+     * splitting the trace into contiguous chunks keeps every worker's share spread over the trace's whole
+     * timeline. With original timing, latency is measured from each record's scheduled time, as in open-loop
+     * mode.
+     */
+    private static long replayPartition(OrderedMap<Object, Object> map,
+                                        TraceFile trace,
+                                        ReplayTiming timing,
+                                        int workerId,
+                                        int threadCount,
+                                        long phaseStart,
+                                        long deadline,
+                                        WorkerSamples samples,
+                                        long[] operationsByType) {
+        long count = trace.recordCount();
+        long origin = trace.timestampNanos(0L);
+        boolean timed = timing == ReplayTiming.ORIGINAL;
+        long operations = 0L;
+        for (long index = workerId; index < count; index += threadCount) {
+            long opStart;
+            if (timed) {
+                opStart = phaseStart + (trace.timestampNanos(index) - origin);
+                if (opStart >= deadline || awaitIntendedStart(opStart) >= deadline) {
+                    break;
+                }
+            } else {
+                opStart = System.nanoTime();
+                if (opStart >= deadline) {
+                    break;
+                }
+            }
+            OperationType operation = replayRecord(map, trace, index);
+            if (samples != null) {
+                samples.record(operation, 0, opStart, 1L);
+            }
+            if (operation != null) {
+                operationsByType[operation.ordinal()]++;
+            }
+            operations++;
+        }
+        return operations;
+    }
+
+    /**
+     * Issues one trace record and returns its operation type, or {@code null} for {@code size} and
+     * {@code clear}, which workloads never generate.
+     */
+    private static OperationType replayRecord(OrderedMap<Object, Object> map, TraceFile trace, long index) {
+        Integer key = trace.key(index);
+        switch (trace.operation(index)) {
+            case GET -> {
+                map.get(key);
+                return OperationType.GET;
+            }
+            case PUT -> {
+                map.put(key, key);
+                return OperationType.PUT;
+            }
+            case REMOVE -> {
+                map.remove(key);
+                return OperationType.REMOVE;
+            }
             case RANGE -> {
-                int width = Math.max(1, config.rangeWidth());
-                long candidate = (long) key + width;
-                int upper = (int) Math.min((long) keySpace - 1L, candidate);
-                if (upper < key) {
-                    upper = key;
+                int flags = trace.flags(index);
+                Integer from = (flags & TraceFormat.FROM_UNBOUNDED) != 0 ? null : key;
+                Integer to = (flags & TraceFormat.TO_UNBOUNDED) != 0 ? null : trace.toKey(index);
+                RangeQueryEvent event = new RangeQueryEvent();
+                event.begin();
+                var result = map.rangeQuery(from, (flags & TraceFormat.FROM_INCLUSIVE) != 0,
+                        to, (flags & TraceFormat.TO_INCLUSIVE) != 0);
+                int size = result != null ? result.size() : 0;
+                event.complete(from != null && to != null ? to - from : -1, size);
+                return OperationType.RANGE;
+            }
+            case SIZE -> map.size();
+            case CLEAR -> map.clear();
+            case ATOMIC_UPDATE -> throw new IllegalStateException("Cannot replay atomic update record " + index
+                    + " of " + trace.path());
+        }
+        return null;
+    }
+
+    private static long awaitIntendedStart(long intended) {
+        long now;
+        while ((now = System.nanoTime()) < intended) {
+            long remaining = intended - now;
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return now;
+    }
+
+    static KeyDistribution keyDistributionFor(BenchmarkConfig config, WorkloadProfile workload) {
+        return workload.keyDistribution() != null ? workload.keyDistribution() : config.keyDistribution();
+    }
+
+    /**
+     * Value size a workload puts and seeds with. A phased workload seeds with the value size of its first phase.
+     */
+    static int valueSizeFor(BenchmarkConfig config, WorkloadProfile workload) {
+        if (workload.isPhased()) {
+            return valueSizeFor(config, workload.phases().get(0).workload());
+        }
+        return workload.valueSize() != null ? workload.valueSize() : config.valueSize();
+    }
+
+    /**
+     * Performs one draw of the workload: a single operation, or a batch of the same operation over consecutive
+     * keys (adjacent pages for range queries). A transfer is one atomic update over its batch of distinct keys.
+     * Keys come from {@code keyPool} and put values from {@code values}. Returns the number of map operations
+     * issued.
+     */
+    private int performOperation(OrderedMap<Object, Object> map,
+                                 WorkloadProfile workload,
+                                 OperationType operation,
+                                 KeyDistribution.KeyGenerator keys,
+                                 KeyPool keyPool,
+                                 KeyPool.Values values,
+                                 WorkloadProfile.RangeWidth widths,
+                                 SplittableRandom random) {
+        int keySpace = keyPool.keySpace();
+        int key = keys.nextKey(operation, random);
+        int batchSize = workload.batchSize(operation);
+        switch (operation) {
+            case GET -> {
+                for (int i = 0; i < batchSize; i++) {
+                    map.get(keyPool.key(batchKey(key, i, keySpace)));
                 }
-                var result = map.rangeQuery(key, true, upper, true);
-                if (result != null) {
-                    result.size();
+            }
+            case PUT -> {
+                for (int i = 0; i < batchSize; i++) {
+                    map.put(keyPool.key(batchKey(key, i, keySpace)), values.next(random));
+                }
+            }
+            case REMOVE -> {
+                for (int i = 0; i < batchSize; i++) {
+                    map.remove(keyPool.key(batchKey(key, i, keySpace)));
+                }
+            }
+            case RANGE -> {
+                int width = Math.max(1, widths.next(random));
+                long lower = key;
+                int pages = 0;
+                while (pages < batchSize && lower < keySpace) {
+                    int upper = (int) Math.min((long) keySpace - 1L, lower + width);
+                    RangeQueryEvent event = new RangeQueryEvent();
+                    event.begin();
+                    var result = map.rangeQuery(keyPool.key((int) lower), true, keyPool.key(upper), true);
+                    event.complete(width, result != null ? result.size() : 0);
+                    lower = upper + 1L;
+                    pages++;
                 }
+                return pages;
+            }
+            case TRANSFER -> {
+                transfer(map, key, batchSize, keys, keyPool, random);
+                return 1;
             }
         }
+        return batchSize;
     }
 
-    private record ExecutionResult(long totalOperations, long durationNanos, long[] latencies) {
+    /**
+     * Moves a random amount from the first of {@code count} distinct keys to each of the others, in one
+     * {@link OrderedMap#atomicUpdate}. Further keys come from the workload's distribution; one it already drew is
+     * replaced by the next key not drawn, which keeps skewed distributions from redrawing for long. Absent keys
+     * hold zero.
+     */
+    private static void transfer(OrderedMap<Object, Object> map,
+                                 int first,
+                                 int count,
+                                 KeyDistribution.KeyGenerator keys,
+                                 KeyPool keyPool,
+                                 SplittableRandom random) {
+        int keySpace = keyPool.keySpace();
+        int[] drawn = new int[count];
+        List<Object> chosen = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int key = i == 0 ? first : keys.nextKey(OperationType.TRANSFER, random);
+            while (contains(drawn, i, key)) {
+                key = batchKey(key, 1, keySpace);
+            }
+            drawn[i] = key;
+            chosen.add(keyPool.key(key));
+        }
+        int amount = 1 + random.nextInt(MAX_TRANSFER_AMOUNT);
+        map.atomicUpdate(chosen, values -> {
+            List<Object> updated = new ArrayList<>(values.size());
+            updated.add(intValue(values.get(0)) - amount * (values.size() - 1));
+            for (int i = 1; i < values.size(); i++) {
+                updated.add(intValue(values.get(i)) + amount);
+            }
+            return updated;
+        });
     }
 
-    private record WorkerResult(long operations, LongArray latencies) {
+    private static boolean contains(int[] keys, int length, int key) {
+        for (int i = 0; i < length; i++) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int intValue(Object value) {
+        return value == null ? 0 : (Integer) value;
+    }
+
+    private static int batchKey(int key, int offset, int keySpace) {
+        return (int) (((long) key + offset) % keySpace);
+    }
+
+    private record ExecutionResult(long totalOperations,
+                                   long durationNanos,
+                                   LatencyHistogram latencies,
+                                   LatencyHistogram[] latenciesByOperation,
+                                   long[] operationsByType,
+                                   LatencyHistogram[] latenciesByPhase,
+                                   long[] operationsByPhase,
+                                   List<IntervalSeries> series,
+                                   MemoryStats memory) {
+
+        /**
+         * This untimed pass's counts, duration and memory figures with the latencies and time series of
+         * {@code timed}.
+         */
+        ExecutionResult withLatenciesOf(ExecutionResult timed) {
+            return new ExecutionResult(totalOperations, durationNanos, timed.latencies, timed.latenciesByOperation,
+                    operationsByType, timed.latenciesByPhase, operationsByPhase, timed.series, memory);
+        }
+    }
+
+    private record WorkerResult(long operations, long allocatedBytes, long[] operationsByType,
+                                long[] operationsByPhase) {
+    }
+
+    /**
+     * Latency recording for one or more workers: the whole-phase histogram, one histogram per
+     * {@link OperationType} and per phase of a phased workload and, when sampling intervals are enabled, the
+     * per-interval series. Each latency is net of {@code timerOverhead}. A recorder owned by a single platform
+     * worker is not synchronised; one shared by several virtual-thread workers is guarded by a
+     * {@link ReentrantLock}, which unlike a monitor never pins the carrier thread.
+     */
+    private static final class WorkerSamples {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LatencyHistogram[] latenciesByOperation = new LatencyHistogram[OPERATION_TYPES.length];
+        final LatencyHistogram[] latenciesByPhase;
+        final IntervalSeries series;
+        private final long timerOverhead;
+        private final ReentrantLock lock;
+
+        WorkerSamples(Duration interval, Duration phase, int phaseCount, boolean shared, long timerOverhead) {
+            this.latenciesByPhase = new LatencyHistogram[phaseCount];
+            this.series = interval.isZero() ? null : new IntervalSeries(interval.toNanos(), phase.toNanos());
+            this.timerOverhead = timerOverhead;
+            this.lock = shared ? new ReentrantLock() : null;
+        }
+
+        void begin(long phaseStart) {
+            if (series != null) {
+                series.begin(phaseStart);
+            }
+        }
+
+        /**
+         * Records the latency of a draw of {@code operation} issued at (or scheduled for) {@code startNanos}
+         * during phase {@code phase}, which is ignored for a plain workload, and credits {@code operations} map
+         * operations to the current interval of the series. A {@code null} type only counts toward the totals.
+         */
+        void record(OperationType operation, int phase, long startNanos, long operations) {
+            long end = System.nanoTime();
+            long latency = Math.max(0L, end - startNanos - timerOverhead);
+            if (lock != null) {
+                lock.lock();
+            }
+            try {
+                latencies.record(latency);
+                if (operation != null) {
+                    LatencyHistogram histogram = latenciesByOperation[operation.ordinal()];
+                    if (histogram == null) {
+                        // Allocated on first use: thousands of workers would otherwise each hold a
+                        // histogram for every type, including types the workload never issues.
+                        histogram = new LatencyHistogram();
+                        latenciesByOperation[operation.ordinal()] = histogram;
+                    }
+                    histogram.record(latency);
+                }
+                if (latenciesByPhase.length > 0) {
+                    if (latenciesByPhase[phase] == null) {
+                        latenciesByPhase[phase] = new LatencyHistogram();
+                    }
+                    latenciesByPhase[phase].record(latency);
+                }
+                if (series != null) {
+                    series.record(end, latency, operations);
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * The current phase of a phased workload's measurement. The thread that started the workers drives the
+     * schedule and publishes each switch with one volatile write, so every worker sees it before its next
+     * operation and the hot path takes no lock.
+     */
+    private static final class PhaseSwitch {
+        private final long[] startOffsets;
+        private volatile int current;
+
+        PhaseSwitch(List<WorkloadProfile.Phase> phases) {
+            this.startOffsets = new long[phases.size()];
+            for (int i = 1; i < startOffsets.length; i++) {
+                startOffsets[i] = startOffsets[i - 1] + phases.get(i - 1).duration().toNanos();
+            }
+        }
+
+        int current() {
+            return current;
+        }
+
+        /**
+         * Switches to each later phase at its offset from {@code originNanos}; returns once the last has begun.
+         */
+        void drive(long originNanos) {
+            for (int i = 1; i < startOffsets.length; i++) {
+                awaitIntendedStart(originNanos + startOffsets[i]);
+                current = i;
+            }
+        }
     }
 }
@@ -0,0 +1,269 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.orderedmap.api.OrderedMap;
+
+/**
+ * Measures how much heap each map type retains per entry (the {@code --footprint} mode).
+ *
+ * <p>Each map is filled with {@link BenchmarkConfig#initialSize()} entries of the configured key type and value
+ * size, seeded the same way as a benchmark run, and its retained size is how much the used heap shrinks once the
+ * map and its keys become unreachable, each side read after full collections. The same is done once for the keys
+ * and values alone, held in arrays, which separates what the payload costs on this JVM (object headers,
+ * alignment, compressed oops) from what the map structure adds. Measuring heap deltas instead of walking the object graph keeps the mode free of
+ * agents and counts everything the map really holds, including locks and version chains; it needs
+ * {@code System.gc()} to trigger a full collection, so {@code -XX:+DisableExplicitGC} and concurrent explicit GCs
+ * make it fail or read high.
+ */
+final class FootprintReport {
+
+    private static final int MAX_GC_ROUNDS = 20;
+    private static final int SETTLED_ROUNDS = 2;
+    private static final long GC_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(20L);
+    private static final double GC_SETTLED_FRACTION = 0.001d;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final BenchmarkConfig config;
+    private final int rawBytesPerEntry;
+    private final double boxedBytesPerEntry;
+    private final List<MapFootprint> maps;
+
+    private FootprintReport(BenchmarkConfig config, double boxedBytesPerEntry, List<MapFootprint> maps) {
+        this.config = config;
+        this.rawBytesPerEntry = rawBytesPerEntry(config);
+        this.boxedBytesPerEntry = boxedBytesPerEntry;
+        this.maps = List.copyOf(maps);
+    }
+
+    /**
+     * Retained heap of one map type. {@code bytesPerEntry} covers keys, values and structure;
+     * {@code structureBytesPerEntry} is what remains after subtracting the payload objects, and {@code overhead}
+     * is {@code bytesPerEntry} over the raw payload bytes, see {@link #rawBytesPerEntry()}.
+     */
+    record MapFootprint(MapType mapType, int entries, long retainedBytes, double bytesPerEntry,
+                        double structureBytesPerEntry, double overhead) {
+    }
+
+    static FootprintReport measure(BenchmarkConfig config) {
+        int entries = config.initialSize();
+        if (entries == 0) {
+            throw new IllegalArgumentException("--footprint needs a positive --initial-size");
+        }
+        double boxed = measureBoxedPayload(config);
+        int raw = rawBytesPerEntry(config);
+        List<MapFootprint> maps = new ArrayList<>(config.mapTypes().size());
+        for (MapType mapType : config.mapTypes()) {
+            long retained = Math.max(0L, usedWithMap(mapType, config) - usedAfterFullGc());
+            double perEntry = retained / (double) entries;
+            maps.add(new MapFootprint(mapType, entries, retained, perEntry, perEntry - boxed,
+                    perEntry / raw));
+        }
+        return new FootprintReport(config, boxed, maps);
+    }
+
+    List<MapFootprint> maps() {
+        return maps;
+    }
+
+    double boxedBytesPerEntry() {
+        return boxedBytesPerEntry;
+    }
+
+    /**
+     * Payload of one entry without object headers: the key's {@link KeyType#rawBytes()} plus the value size, or
+     * four bytes for an int value.
+     */
+    int rawBytesPerEntry() {
+        return rawBytesPerEntry;
+    }
+
+    private static int rawBytesPerEntry(BenchmarkConfig config) {
+        return config.keyType().rawBytes() + (config.valueSize() > 0 ? config.valueSize() : Integer.BYTES);
+    }
+
+    void printSummary(PrintStream out) {
+        out.printf(Locale.ROOT, "%nRetained heap after full GC (%s keys, raw payload %d B/entry, "
+                + "boxed payload %.1f B/entry)%n", config.keyType().spec(), rawBytesPerEntry, boxedBytesPerEntry);
+        out.printf("%-12s %-12s %-14s %-12s %-16s %-10s%n",
+                "Map", "Entries", "Retained(MB)", "B/entry", "Structure B/ent", "Overhead");
+        for (MapFootprint footprint : maps) {
+            out.printf(Locale.ROOT, "%-12s %-12d %-14.1f %-12.1f %-16.1f %-10s%n",
+                    footprint.mapType().id(),
+                    footprint.entries(),
+                    footprint.retainedBytes() / (1024.0d * 1024.0d),
+                    footprint.bytesPerEntry(),
+                    footprint.structureBytesPerEntry(),
+                    String.format(Locale.ROOT, "%.1fx", footprint.overhead()));
+        }
+    }
+
+    void writeCsv(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        StringBuilder csv = new StringBuilder(
+                "map,entries,retained_bytes,bytes_per_entry,structure_bytes_per_entry,raw_bytes_per_entry,overhead\n");
+        for (MapFootprint footprint : maps) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%d,%.3f%n",
+                    footprint.mapType().id(),
+                    footprint.entries(),
+                    footprint.retainedBytes(),
+                    footprint.bytesPerEntry(),
+                    footprint.structureBytesPerEntry(),
+                    rawBytesPerEntry,
+                    footprint.overhead()));
+        }
+        Files.writeString(path, csv);
+    }
+
+    void writeJson(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), SerializableFootprint.from(this));
+    }
+
+    /**
+     * Heap held by the keys and values of {@code initialSize} entries alone: the arrays stay reachable across
+     * both readings and only their contents are dropped, so the figure excludes the array slots the maps never
+     * hold.
+     */
+    private static double measureBoxedPayload(BenchmarkConfig config) {
+        int entries = config.initialSize();
+        Object[] keys = new Object[entries];
+        Object[] values = new Object[entries];
+        KeyType keyType = config.keyType();
+        Arrays.setAll(keys, keyType::encode);
+        Arrays.setAll(values, index -> KeyPool.seedValue(config.valueSize(), index));
+        long filled = usedAfterFullGc();
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        long emptied = usedAfterFullGc();
+        Reference.reachabilityFence(keys);
+        Reference.reachabilityFence(values);
+        return Math.max(0L, filled - emptied) / (double) entries;
+    }
+
+    /**
+     * Used heap while a seeded map of {@code mapType} is reachable. The caller reads the heap again once it is
+     * not; measuring what is released rather than what was added keeps garbage that other threads were still
+     * holding at the start (pools winding down, a JFR recording closing) out of the figure.
+     */
+    private static long usedWithMap(MapType mapType, BenchmarkConfig config) {
+        try (OrderedMap<Object, Object> map = mapType.create(config)) {
+            seed(map, config);
+            return usedAfterFullGc();
+        }
+    }
+
+    /**
+     * Fills the map like {@link BenchmarkRunner} seeds it, from a key pool of exactly {@code initialSize} keys
+     * that is dropped on return, so only the keys the map holds stay reachable.
+     */
+    private static void seed(OrderedMap<Object, Object> map, BenchmarkConfig config) {
+        int entries = config.initialSize();
+        KeyPool pool = new KeyPool(config.keyType(), entries, entries, config.seed());
+        if (config.bulkLoad()) {
+            map.bulkLoad(pool.seedEntries(entries, config.valueSize()));
+        } else {
+            IntStream.range(0, entries).parallel()
+                    .forEach(i -> map.put(pool.key(i), KeyPool.seedValue(config.valueSize(), i)));
+        }
+    }
+
+    /**
+     * Used heap once repeated full collections stop freeing more than a tiny fraction of it. Objects reclaimed
+     * through reference processing (cleaners, finalizers) only go in a later collection, after the reference
+     * handler threads have run, so each round pauses briefly and the heap has to hold still for
+     * {@value #SETTLED_ROUNDS} rounds in a row.
+     */
+    private static long usedAfterFullGc() {
+        long collections = MemoryProbe.gcSnapshot().count();
+        long used = Long.MAX_VALUE;
+        int settled = 0;
+        for (int round = 0; round < MAX_GC_ROUNDS && settled < SETTLED_ROUNDS; round++) {
+            System.gc();
+            LockSupport.parkNanos(GC_PAUSE_NANOS);
+            long current = MEMORY.getHeapMemoryUsage().getUsed();
+            settled = Math.abs(used - current) <= used * GC_SETTLED_FRACTION ? settled + 1 : 0;
+            used = Math.min(used, current);
+        }
+        if (MemoryProbe.gcSnapshot().count() == collections) {
+            throw new IllegalStateException("System.gc() did not collect; --footprint cannot run with "
+                    + "-XX:+DisableExplicitGC");
+        }
+        return used;
+    }
+
+    private record SerializableFootprint(
+            List<String> maps,
+            int entries,
+            boolean bulkLoad,
+            String keyType,
+            int valueSize,
+            String jvm,
+            List<String> collectors,
+            long maxHeapBytes,
+            int rawBytesPerEntry,
+            double boxedBytesPerEntry,
+            List<SerializableMap> footprint) {
+
+        static SerializableFootprint from(FootprintReport report) {
+            BenchmarkConfig config = report.config;
+            return new SerializableFootprint(
+                    config.mapTypes().stream().map(MapType::id).collect(Collectors.toList()),
+                    config.initialSize(),
+                    config.bulkLoad(),
+                    config.keyType().spec(),
+                    config.valueSize(),
+                    System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"),
+                    ManagementFactory.getGarbageCollectorMXBeans().stream()
+                            .map(GarbageCollectorMXBean::getName)
+                            .collect(Collectors.toList()),
+                    MEMORY.getHeapMemoryUsage().getMax(),
+                    report.rawBytesPerEntry,
+                    report.boxedBytesPerEntry,
+                    report.maps.stream().map(SerializableMap::from).collect(Collectors.toList())
+            );
+        }
+    }
+
+    private record SerializableMap(
+            String map,
+            int entries,
+            long retainedBytes,
+            double bytesPerEntry,
+            double structureBytesPerEntry,
+            double overhead) {
+
+        static SerializableMap from(MapFootprint footprint) {
+            return new SerializableMap(
+                    footprint.mapType().id(),
+                    footprint.entries(),
+                    footprint.retainedBytes(),
+                    footprint.bytesPerEntry(),
+                    footprint.structureBytesPerEntry(),
+                    footprint.overhead()
+            );
+        }
+    }
+}
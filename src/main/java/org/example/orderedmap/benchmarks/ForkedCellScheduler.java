@@ -0,0 +1,359 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.example.orderedmap.api.AbortCause;
+import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs benchmark cells in forked JVMs so that JIT profiles, heap state and GC history cannot leak from one map
+ * implementation into the next.
+ *
+ * <p>Each child receives the parent's command line minus the fork and output options plus a hidden
+ * {@code --cell} option, runs that single cell and prints its result as one marker-prefixed JSON line on
+ * stdout; everything else the child prints is echoed with the cell's label. With {@code --parallel n} up to
+ * {@code n} cells run at once, each pinned via {@code taskset} to its own CPUs: a cell takes as many CPUs as it
+ * has threads (all of them if it has more), and cells start in matrix order as soon as enough CPUs are free.
+ */
+final class ForkedCellScheduler {
+
+    static final String RESULT_MARKER = "@@cell-result ";
+
+    /** Parent options a child must not inherit; each takes one value. */
+    private static final Set<String> PARENT_ONLY_OPTIONS = Set.of(
+            "--fork", "--jvm-args", "--parallel", "--cpu-set", "--cell", "--csv", "--json", "--profile-dir");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BenchmarkConfig config;
+    private final List<Integer> cpus;
+    private final boolean pin;
+    private final int slots;
+    private final PrintStream out;
+    /** Children still running; a failed run kills them, since interrupting their readers does not. */
+    private final Set<Process> children = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    ForkedCellScheduler(BenchmarkConfig config, PrintStream out) {
+        this.config = config;
+        this.out = out;
+        this.cpus = config.cpuSet() != null ? config.cpuSet() : allProcessors();
+        boolean taskset = tasksetAvailable();
+        if (config.parallel() > 1 && !taskset) {
+            out.println("taskset not found; running forked cells one at a time");
+        }
+        this.pin = taskset && (config.parallel() > 1 || config.cpuSet() != null);
+        this.slots = pin ? config.parallel() : 1;
+    }
+
+    /**
+     * Runs every cell and returns the results in cell order, regardless of completion order.
+     */
+    List<RunResult> run(List<BenchmarkCell> cells) {
+        RunResult[] results = new RunResult[cells.size()];
+        ExecutorService pool = Executors.newFixedThreadPool(slots);
+        CompletionService<Integer> completions = new ExecutorCompletionService<>(pool);
+        BitSet free = new BitSet(cpus.size());
+        free.set(0, cpus.size());
+        Map<Integer, BitSet> held = new HashMap<>();
+        int next = 0;
+        int running = 0;
+        try {
+            while (next < cells.size() || running > 0) {
+                while (next < cells.size() && running < slots) {
+                    BenchmarkCell cell = cells.get(next);
+                    int needed = Math.min(cell.threadCount(), cpus.size());
+                    if (free.cardinality() < needed) {
+                        break;
+                    }
+                    BitSet assigned = new BitSet(cpus.size());
+                    for (int i = free.nextSetBit(0); assigned.cardinality() < needed; i = free.nextSetBit(i + 1)) {
+                        assigned.set(i);
+                    }
+                    free.andNot(assigned);
+                    final int index = next;
+                    held.put(index, assigned);
+                    completions.submit(() -> {
+                        results[index] = runChild(cell, assigned);
+                        return index;
+                    });
+                    next++;
+                    running++;
+                }
+                int finished = completions.take().get();
+                free.or(held.remove(finished));
+                running--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for forked cells", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Forked cell failed", cause);
+        } finally {
+            pool.shutdownNow();
+            stopping = true;
+            children.forEach(Process::destroyForcibly);
+        }
+        return Arrays.asList(results);
+    }
+
+    private RunResult runChild(BenchmarkCell cell, BitSet assigned) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        if (pin) {
+            command.add("taskset");
+            command.add("-c");
+            command.add(assigned.stream().mapToObj(i -> cpus.get(i).toString()).collect(Collectors.joining(",")));
+        }
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(config.jvmArgs());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkRunner.class.getName());
+        command.addAll(childArguments(config.commandLine()));
+        if (config.profile()) {
+            // Children do not see --json/--csv, so tell them where the parent would put recordings.
+            command.add("--profile-dir");
+            command.add(JfrProfiler.directory(config).toString());
+        }
+        command.add("--cell");
+        command.add(cell.spec());
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        children.add(process);
+        if (stopping) {
+            process.destroyForcibly();
+        }
+        String payload = null;
+        int status;
+        try {
+            process.getOutputStream().close();
+            String prefix = "[fork " + cell.label() + "] ";
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(RESULT_MARKER)) {
+                        payload = line.substring(RESULT_MARKER.length());
+                    } else if (!line.isBlank()) {
+                        out.println(prefix + line);
+                    }
+                }
+            }
+            status = process.waitFor();
+        } finally {
+            children.remove(process);
+        }
+        if (status != 0 || payload == null) {
+            throw new IllegalStateException("Forked cell " + cell.label() + " exited with status " + status
+                    + (payload == null ? " without a result" : ""));
+        }
+        return MAPPER.readValue(payload, CellResult.class).toRunResult(config, cell);
+    }
+
+    /**
+     * Strips the options only the parent acts on; everything else, including {@code --config}, is passed on so
+     * the child resolves exactly the same configuration.
+     */
+    static List<String> childArguments(List<String> commandLine) {
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < commandLine.size(); i++) {
+            if (PARENT_ONLY_OPTIONS.contains(commandLine.get(i))) {
+                i++;
+            } else {
+                arguments.add(commandLine.get(i));
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Prints a child's result for the parent to pick up.
+     */
+    static void emit(RunResult run, PrintStream out) {
+        try {
+            out.println(RESULT_MARKER + MAPPER.writeValueAsString(CellResult.from(run)));
+            out.flush();
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to encode cell result", io);
+        }
+    }
+
+    private static List<Integer> allProcessors() {
+        List<Integer> all = new ArrayList<>();
+        for (int cpu = 0; cpu < Runtime.getRuntime().availableProcessors(); cpu++) {
+            all.add(cpu);
+        }
+        return all;
+    }
+
+    private static boolean tasksetAvailable() {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        return Arrays.stream(path.split(java.io.File.pathSeparator))
+                .anyMatch(dir -> !dir.isEmpty() && Files.isExecutable(Path.of(dir, "taskset")));
+    }
+
+    /**
+     * Lossless wire form of a {@link RunResult}. Map, workload and key distribution are not sent: the parent
+     * already knows the cell it launched.
+     */
+    private record CellResult(
+            long operations,
+            double opsPerSec,
+            long durationMillis,
+            long seedMillis,
+            WireLatency latency,
+            List<WireOperation> operationStats,
+            long stmCommits,
+            long stmAborts,
+            long maxRetries,
+            long[] abortsByCause,
+            long[] commitsByOperation,
+            long[] abortsByOperation,
+            long[] retryHistogram,
+            long abortedNanos,
+            List<IntervalSample> timeSeries,
+            List<WirePhase> phases,
+            WarmupStats warmup,
+            MemoryStats memory,
+            ProfileSummary profile,
+            InvariantCheck invariant) {
+
+        static CellResult from(RunResult run) {
+            MapMetrics metrics = run.metrics();
+            long[] causes = new long[AbortCause.values().length];
+            for (AbortCause cause : AbortCause.values()) {
+                causes[cause.ordinal()] = metrics.aborts(cause);
+            }
+            long[] commits = new long[MapOperation.values().length];
+            long[] aborts = new long[MapOperation.values().length];
+            for (MapOperation operation : MapOperation.values()) {
+                commits[operation.ordinal()] = metrics.commits(operation);
+                aborts[operation.ordinal()] = metrics.aborts(operation);
+            }
+            return new CellResult(
+                    run.totalOperations(),
+                    run.operationsPerSecond(),
+                    run.durationMillis(),
+                    run.seedMillis(),
+                    WireLatency.from(run.latency()),
+                    run.operationStats().stream().map(WireOperation::from).toList(),
+                    metrics.stmCommits(),
+                    metrics.stmAborts(),
+                    metrics.maxRetries(),
+                    causes,
+                    commits,
+                    aborts,
+                    metrics.retryHistogram(),
+                    metrics.abortedNanos(),
+                    run.timeSeries(),
+                    run.phases().stream().map(WirePhase::from).toList(),
+                    run.warmup(),
+                    run.memory(),
+                    run.profile(),
+                    run.invariant());
+        }
+
+        RunResult toRunResult(BenchmarkConfig config, BenchmarkCell cell) {
+            MapMetrics metrics = new MapMetrics(stmCommits, stmAborts, maxRetries, abortsByCause,
+                    commitsByOperation, abortsByOperation, retryHistogram, abortedNanos);
+            return new RunResult(cell.mapType(), cell.workload(),
+                    BenchmarkRunner.keyDistributionFor(config, cell.workload()), cell.threadCount(), cell.repeat(),
+                    cell.targetRate(), operations, opsPerSec, durationMillis, seedMillis, latency.toStats(),
+                    operationStats.stream().map(WireOperation::toStats).toList(), metrics,
+                    List.copyOf(timeSeries),
+                    IntStream.range(0, phases.size())
+                            .mapToObj(i -> phases.get(i).toStats(cell.workload().phases().get(i)))
+                            .toList(),
+                    warmup, memory, profile, invariant);
+        }
+    }
+
+    /**
+     * Lossless wire form of {@link LatencyStats}. Quantiles are whole nanoseconds scaled to micros, so rounding
+     * back recovers them exactly.
+     */
+    private record WireLatency(long count, double meanNanos, long[] quantileNanos, long maxNanos,
+                               List<long[]> buckets) {
+
+        static WireLatency from(LatencyStats latency) {
+            long[] quantiles = {
+                    Math.round(latency.p50Micros() * 1_000.0d),
+                    Math.round(latency.p90Micros() * 1_000.0d),
+                    Math.round(latency.p95Micros() * 1_000.0d),
+                    Math.round(latency.p99Micros() * 1_000.0d),
+                    Math.round(latency.p999Micros() * 1_000.0d),
+                    Math.round(latency.p9999Micros() * 1_000.0d)};
+            return new WireLatency(latency.count(), latency.meanMicros() * 1_000.0d, quantiles,
+                    Math.round(latency.maxMicros() * 1_000.0d), latency.buckets());
+        }
+
+        LatencyStats toStats() {
+            return LatencyStats.of(count, meanNanos, quantileNanos[0], quantileNanos[1], quantileNanos[2],
+                    quantileNanos[3], quantileNanos[4], quantileNanos[5], maxNanos, buckets);
+        }
+    }
+
+    private record WireOperation(OperationType operation, long operations, double opsPerSec,
+                                 WireLatency latency) {
+
+        static WireOperation from(OperationStats stats) {
+            return new WireOperation(stats.operation(), stats.operations(), stats.operationsPerSecond(),
+                    WireLatency.from(stats.latency()));
+        }
+
+        OperationStats toStats() {
+            return new OperationStats(operation, operations, opsPerSec, latency.toStats());
+        }
+    }
+
+    /**
+     * Wire form of {@link PhaseStats}; phases are sent in schedule order and matched up with the cell's workload.
+     */
+    private record WirePhase(long startMillis, long durationMillis, long operations, double opsPerSec,
+                             WireLatency latency, Long recoveryMillis) {
+
+        static WirePhase from(PhaseStats stats) {
+            return new WirePhase(stats.startMillis(), stats.durationMillis(), stats.operations(),
+                    stats.operationsPerSecond(), WireLatency.from(stats.latency()), stats.recoveryMillis());
+        }
+
+        PhaseStats toStats(WorkloadProfile.Phase phase) {
+            return new PhaseStats(phase, startMillis, durationMillis, operations, opsPerSec,
+                    latency.toStats(), recoveryMillis);
+        }
+    }
+}
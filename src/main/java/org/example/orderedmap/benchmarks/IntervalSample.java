@@ -0,0 +1,16 @@
+package org.example.orderedmap.benchmarks;
+
+/**
+ * Throughput and latency of one sampling interval of a measurement phase. {@code startMillis} is the offset of
+ * the interval from the start of the phase; the last interval may be shorter than the configured length.
+ */
+public record IntervalSample(
+        long startMillis,
+        double lengthMillis,
+        long operations,
+        double operationsPerSecond,
+        double p50Micros,
+        double p99Micros,
+        double p999Micros,
+        double maxMicros) {
+}
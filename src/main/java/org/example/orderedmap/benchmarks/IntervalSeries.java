@@ -0,0 +1,101 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-worker throughput and latency broken down into fixed-length intervals of the measurement phase.
+ *
+ * <p>Each worker owns one instance, so recording needs no synchronisation. The hot path is one comparison
+ * against the current interval's end plus the histogram update; a new interval histogram is allocated only
+ * when an operation completes past that boundary. Series are merged across workers once the phase ends.
+ */
+final class IntervalSeries {
+
+    private final long intervalNanos;
+    private final int lastIndex;
+    private final List<LatencyHistogram> histograms = new ArrayList<>();
+    private long[] operations = new long[16];
+    private LatencyHistogram current;
+    private int currentIndex = -1;
+    private long currentEnd = Long.MAX_VALUE;
+    private long origin;
+
+    IntervalSeries(long intervalNanos, long phaseNanos) {
+        this.intervalNanos = intervalNanos;
+        this.lastIndex = (int) Math.max(0L, (phaseNanos - 1L) / intervalNanos);
+    }
+
+    /**
+     * Sets the phase start that interval boundaries are measured from; must precede the first record.
+     */
+    void begin(long originNanos) {
+        this.origin = originNanos;
+        this.currentEnd = Long.MIN_VALUE;
+    }
+
+    /**
+     * Attributes {@code ops} operations that completed at {@code endNanos} with the given latency to the
+     * interval containing {@code endNanos}. Completions after the phase end count towards the last interval.
+     */
+    void record(long endNanos, long latencyNanos, long ops) {
+        if (endNanos >= currentEnd) {
+            advance(endNanos);
+        }
+        current.record(latencyNanos);
+        operations[currentIndex] += ops;
+    }
+
+    private void advance(long endNanos) {
+        int index = (int) Math.min(lastIndex, Math.max(0L, (endNanos - origin) / intervalNanos));
+        while (histograms.size() <= index) {
+            histograms.add(null);
+        }
+        if (operations.length <= index) {
+            long[] grown = new long[Math.max(index + 1, operations.length * 2)];
+            System.arraycopy(operations, 0, grown, 0, operations.length);
+            operations = grown;
+        }
+        LatencyHistogram histogram = histograms.get(index);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            histograms.set(index, histogram);
+        }
+        current = histogram;
+        currentIndex = index;
+        currentEnd = index == lastIndex ? Long.MAX_VALUE : origin + (index + 1L) * intervalNanos;
+    }
+
+    /**
+     * Merges the workers' series into one sample per interval, including empty intervals (e.g. a stall).
+     */
+    static List<IntervalSample> merge(List<IntervalSeries> series, long intervalNanos, long phaseNanos) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        int intervals = series.get(0).lastIndex + 1;
+        List<IntervalSample> samples = new ArrayList<>(intervals);
+        for (int i = 0; i < intervals; i++) {
+            LatencyHistogram merged = new LatencyHistogram();
+            long ops = 0L;
+            for (IntervalSeries worker : series) {
+                if (i < worker.histograms.size()) {
+                    merged.merge(worker.histograms.get(i));
+                    ops += worker.operations[i];
+                }
+            }
+            long startNanos = i * intervalNanos;
+            long lengthNanos = Math.max(1L, Math.min(intervalNanos, phaseNanos - startNanos));
+            samples.add(new IntervalSample(
+                    startNanos / 1_000_000L,
+                    lengthNanos / 1_000_000.0d,
+                    ops,
+                    ops / (lengthNanos / 1_000_000_000.0d),
+                    merged.valueAtQuantile(0.50d) / 1_000.0d,
+                    merged.valueAtQuantile(0.99d) / 1_000.0d,
+                    merged.valueAtQuantile(0.999d) / 1_000.0d,
+                    merged.maxNanos() / 1_000.0d));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.orderedmap.benchmarks;
+
+/**
+ * Outcome of checking that a run of a {@link WorkloadProfile#conservesValues() conserving} workload kept the sum
+ * of the map's values: {@code expectedTotal} was read right after seeding, {@code actualTotal} once the
+ * measurement had finished, each as the sum of a get of every key in the key space, absent keys counting zero.
+ * A difference means some transfer was not atomic.
+ */
+public record InvariantCheck(long expectedTotal, long actualTotal) {
+
+    public boolean held() {
+        return expectedTotal == actualTotal;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.orderedmap.benchmarks;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated I/O a closed-loop worker blocks on after every operation, modelling a request handler that
+ * touches the map between calls to other services. Either a fixed pause or exponentially distributed pauses
+ * with the given mean.
+ */
+public record IoDelay(Duration mean, boolean exponential) {
+
+    public IoDelay {
+        Objects.requireNonNull(mean, "mean");
+        if (mean.isZero() || mean.isNegative()) {
+            throw new IllegalArgumentException("io-delay must be positive");
+        }
+    }
+
+    /**
+     * Parses {@code <duration>} or {@code exponential:<duration>}, e.g. {@code 200us} or {@code exponential:1ms}.
+     */
+    public static IoDelay parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("exponential:")) {
+            return new IoDelay(BenchmarkConfig.parseDuration(normalized.substring("exponential:".length())), true);
+        }
+        return new IoDelay(BenchmarkConfig.parseDuration(normalized), false);
+    }
+
+    public String spec() {
+        String duration = mean.toNanos() % 1_000_000L == 0L
+                ? mean.toMillis() + "ms"
+                : mean.toNanos() / 1_000L + "us";
+        return exponential ? "exponential:" + duration : duration;
+    }
+
+    /**
+     * Blocks the calling thread for one draw of the delay; a virtual thread unmounts while it waits.
+     */
+    void pause(SplittableRandom random) {
+        long nanos = mean.toNanos();
+        if (exponential) {
+            nanos = (long) (-Math.log(1.0d - random.nextDouble()) * nanos);
+        }
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0L) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
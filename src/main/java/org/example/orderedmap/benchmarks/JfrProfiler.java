@@ -0,0 +1,235 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.example.orderedmap.profiling.LockWaitEvent;
+import org.example.orderedmap.profiling.RangeQueryEvent;
+import org.example.orderedmap.profiling.StmAbortEvent;
+
+/**
+ * Flight Recorder session scoped to one measurement phase.
+ *
+ * <p>The recording uses the JDK's {@code profile} settings plus the harness's own events. Lock waits shorter
+ * than {@value #LOCK_WAIT_THRESHOLD_MICROS} µs are dropped to keep the recording small under heavy contention;
+ * aborts and range queries are recorded without stack traces. Once stopped, the recording is dumped next to
+ * the results and digested into a {@link ProfileSummary}.
+ */
+final class JfrProfiler implements AutoCloseable {
+
+    private static final int TOP = 10;
+    private static final long LOCK_WAIT_THRESHOLD_MICROS = 10L;
+
+    private final Recording recording;
+    private final long coordinatorThreadId;
+
+    private JfrProfiler(Recording recording) {
+        this.recording = recording;
+        this.coordinatorThreadId = Thread.currentThread().getId();
+    }
+
+    static JfrProfiler start() {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("orderedmap-measurement");
+            recording.enable(StmAbortEvent.NAME);
+            recording.enable(RangeQueryEvent.NAME);
+            recording.enable(LockWaitEvent.NAME).withThreshold(Duration.ofNanos(LOCK_WAIT_THRESHOLD_MICROS * 1_000L));
+            recording.start();
+            return new JfrProfiler(recording);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to load the JFR profile configuration", e);
+        }
+    }
+
+    /**
+     * Stops the recording, writes it to {@code destination} and summarises it.
+     */
+    ProfileSummary stop(Path destination) {
+        recording.stop();
+        try {
+            Path parent = destination.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            recording.dump(destination);
+            return summarize(destination, coordinatorThreadId);
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to write JFR recording " + destination, io);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    /**
+     * Digests a recording. Allocation samples from {@code excludedThreadId} are skipped: the first sample on the
+     * coordinating thread is weighted with everything it allocated since its previous sample, seeding included.
+     */
+    static ProfileSummary summarize(Path file, long excludedThreadId) throws IOException {
+        Map<String, Long> samples = new HashMap<>();
+        long totalSamples = 0L;
+        Map<String, LockAccumulator> locks = new LinkedHashMap<>();
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, Long> aborts = new TreeMap<>();
+        long ranges = 0L;
+        long rangeEntries = 0L;
+        long largestRange = 0L;
+        try (RecordingFile events = new RecordingFile(file)) {
+            while (events.hasMoreEvents()) {
+                RecordedEvent event = events.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        totalSamples++;
+                        samples.merge(topFrame(event.getStackTrace()), 1L, Long::sum);
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        if (event.getThread() != null && event.getThread().getJavaThreadId() == excludedThreadId) {
+                            continue;
+                        }
+                        String key = site(event.getStackTrace()) + '\u0000' + event.getClass("objectClass").getName();
+                        allocations.merge(key, event.getLong("weight"), Long::sum);
+                    }
+                    case "jdk.JavaMonitorEnter" -> locks
+                            .computeIfAbsent(site(event.getStackTrace()) + "\u0000monitor", LockAccumulator::new)
+                            .add(event.getDuration());
+                    case LockWaitEvent.NAME -> {
+                        String kind = event.getBoolean("exclusive") ? "write" : "read";
+                        locks.computeIfAbsent(site(event.getStackTrace()) + '\u0000' + kind, LockAccumulator::new)
+                                .add(event.getDuration());
+                    }
+                    case StmAbortEvent.NAME -> aborts.merge(event.getString("cause"), 1L, Long::sum);
+                    case RangeQueryEvent.NAME -> {
+                        long size = event.getInt("size");
+                        ranges++;
+                        rangeEntries += size;
+                        largestRange = Math.max(largestRange, size);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        final long sampleCount = totalSamples;
+        List<ProfileSummary.HotMethod> hotMethods = samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .map(entry -> new ProfileSummary.HotMethod(entry.getKey(), entry.getValue(),
+                        100.0d * entry.getValue() / sampleCount))
+                .toList();
+        List<ProfileSummary.LockSite> lockSites = locks.values().stream()
+                .sorted(Comparator.comparingLong((LockAccumulator lock) -> lock.totalNanos).reversed())
+                .limit(TOP)
+                .map(LockAccumulator::toSite)
+                .toList();
+        List<ProfileSummary.AllocationSite> allocationSites = allocations.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .map(entry -> {
+                    String[] parts = entry.getKey().split("\u0000", 2);
+                    return new ProfileSummary.AllocationSite(parts[0], parts[1], entry.getValue());
+                })
+                .toList();
+        ProfileSummary.RangeSizes rangeSizes = new ProfileSummary.RangeSizes(ranges,
+                ranges == 0L ? 0.0d : rangeEntries / (double) ranges, largestRange);
+        return new ProfileSummary(file.toString(), totalSamples, hotMethods, lockSites, allocationSites, aborts,
+                rangeSizes);
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    /**
+     * Names the innermost frame that is not JDK or profiling code, falling back to the top frame.
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")
+                    && !type.startsWith("org.example.orderedmap.profiling.")) {
+                return describe(frame);
+            }
+        }
+        return describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + '.' + frame.getMethod().getName();
+    }
+
+    private static final class LockAccumulator {
+        private final String site;
+        private final String kind;
+        private long events;
+        private long totalNanos;
+        private long maxNanos;
+
+        LockAccumulator(String key) {
+            String[] parts = key.split("\u0000", 2);
+            this.site = parts[0];
+            this.kind = parts[1];
+        }
+
+        void add(Duration wait) {
+            long nanos = wait.toNanos();
+            events++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        ProfileSummary.LockSite toSite() {
+            return new ProfileSummary.LockSite(site, kind, events, totalNanos / 1_000_000.0d,
+                    maxNanos / 1_000_000.0d);
+        }
+    }
+
+    /**
+     * File name of a cell's recording, e.g. {@code profile-sharded-mixed-8t-r1.jfr}.
+     */
+    static String fileName(MapType mapType, WorkloadProfile workload, int threads, long targetRate, int repeat) {
+        String name = "profile-" + mapType.id() + '-' + workload.id() + '-' + threads + 't'
+                + (targetRate > 0L ? "-" + targetRate + "ops" : "") + "-r" + repeat + ".jfr";
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Recordings go to {@code --profile-dir}, else next to the JSON results, else next to the CSV, else into the
+     * working directory.
+     */
+    static Path directory(BenchmarkConfig config) {
+        if (config.profileDirectory() != null) {
+            return config.profileDirectory();
+        }
+        Path results = config.jsonOutput() != null ? config.jsonOutput() : config.csvOutput();
+        Path parent = results == null ? null : results.toAbsolutePath().getParent();
+        return parent != null ? parent : Path.of("").toAbsolutePath();
+    }
+}
@@ -0,0 +1,325 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Describes how workload operations pick their keys from {@code [0, keySpace)}.
+ *
+ * <p>A distribution is an immutable, shareable description parsed from a spec such as {@code zipfian:0.99} or
+ * {@code hotspot:0.9:0.1}. Each worker asks it for its own {@link KeyGenerator}, which holds any per-worker
+ * cursor state and draws keys without allocating. Supported specs:
+ * <ul>
+ *     <li>{@code uniform} &ndash; every key equally likely (the default)</li>
+ *     <li>{@code zipfian[:theta]} &ndash; rank {@code i} drawn with probability proportional to
+ *     {@code 1/(i+1)^theta}; low keys are hottest, so hot keys are also adjacent</li>
+ *     <li>{@code scrambled-zipfian[:theta]} &ndash; the same popularity curve with ranks hashed across the key
+ *     space, so hot keys are scattered</li>
+ *     <li>{@code hotspot[:opsFraction:keyFraction]} &ndash; {@code opsFraction} of the operations go to the
+ *     lowest {@code keyFraction} of the keys, the rest uniformly to the remainder</li>
+ *     <li>{@code latest[:theta]} &ndash; puts append at a moving insertion frontier and every other operation
+ *     picks a Zipfian-distributed distance behind it, so the most recently written keys are the hottest</li>
+ *     <li>{@code sequential} &ndash; each worker walks the key space in order, interleaved with the other
+ *     workers, wrapping at the end</li>
+ * </ul>
+ */
+public abstract class KeyDistribution {
+
+    public static final double DEFAULT_THETA = 0.99d;
+    private static final double DEFAULT_HOT_OPS_FRACTION = 0.9d;
+    private static final double DEFAULT_HOT_KEY_FRACTION = 0.1d;
+
+    public static final KeyDistribution UNIFORM = new Uniform();
+
+    /**
+     * Marker recorded for runs whose keys come from a replayed trace; it cannot generate keys.
+     */
+    public static final KeyDistribution TRACE = new KeyDistribution("trace") {
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            throw new UnsupportedOperationException("Trace replay supplies its own keys");
+        }
+    };
+
+    private final String spec;
+
+    private KeyDistribution(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Canonical spec string; {@link #parse(String)} of it yields an equivalent distribution.
+     */
+    public String spec() {
+        return spec;
+    }
+
+    /**
+     * Creates the generator used by one worker. {@code initialSize} is the number of keys seeded before the run,
+     * which is where the {@code latest} insertion frontier starts.
+     */
+    public abstract KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount);
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    public static KeyDistribution parse(String value) {
+        String[] parts = value.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            return switch (parts[0]) {
+                case "uniform" -> {
+                    requireArity(parts, 0, value);
+                    yield UNIFORM;
+                }
+                case "zipfian" -> {
+                    requireArity(parts, 1, value);
+                    yield new Zipfian(theta(parts, value), false);
+                }
+                case "scrambled-zipfian" -> {
+                    requireArity(parts, 1, value);
+                    yield new Zipfian(theta(parts, value), true);
+                }
+                case "hotspot" -> {
+                    if (parts.length != 1 && parts.length != 3) {
+                        throw new IllegalArgumentException("hotspot takes opsFraction:keyFraction: " + value);
+                    }
+                    double ops = parts.length == 3 ? Double.parseDouble(parts[1]) : DEFAULT_HOT_OPS_FRACTION;
+                    double keys = parts.length == 3 ? Double.parseDouble(parts[2]) : DEFAULT_HOT_KEY_FRACTION;
+                    yield new Hotspot(ops, keys);
+                }
+                case "latest" -> {
+                    requireArity(parts, 1, value);
+                    yield new Latest(theta(parts, value));
+                }
+                case "sequential" -> {
+                    requireArity(parts, 0, value);
+                    yield new Sequential();
+                }
+                default -> throw new IllegalArgumentException("Unknown key distribution: " + value);
+            };
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid key distribution parameters: " + value, ex);
+        }
+    }
+
+    private static void requireArity(String[] parts, int maxParameters, String value) {
+        if (parts.length - 1 > maxParameters) {
+            throw new IllegalArgumentException("Too many parameters for key distribution: " + value);
+        }
+    }
+
+    private static double theta(String[] parts, String value) {
+        double theta = parts.length > 1 ? Double.parseDouble(parts[1]) : DEFAULT_THETA;
+        if (!(theta > 0.0d && theta < 1.0d)) {
+            throw new IllegalArgumentException("Zipfian theta must be in (0, 1): " + value);
+        }
+        return theta;
+    }
+
+    private static String format(double value) {
+        String text = Double.toString(value);
+        return text.endsWith(".0") ? text.substring(0, text.length() - 2) : text;
+    }
+
+    /**
+     * Per-worker key source. Implementations are not thread-safe and must not allocate in {@link #nextKey}.
+     */
+    public interface KeyGenerator {
+
+        int nextKey(OperationType operation, SplittableRandom random);
+    }
+
+    /**
+     * Base for distributions drawing Zipfian ranks. The sampler's zeta constant is O(keySpace) to compute, so it
+     * is built once per key space and shared by every worker generator.
+     */
+    private abstract static class ZipfianBased extends KeyDistribution {
+
+        private final double theta;
+        private ZipfianSampler cached;
+
+        ZipfianBased(String spec, double theta) {
+            super(spec);
+            this.theta = theta;
+        }
+
+        final synchronized ZipfianSampler sampler(int keySpace) {
+            ZipfianSampler sampler = cached;
+            if (sampler == null || sampler.items != keySpace) {
+                sampler = new ZipfianSampler(keySpace, theta);
+                cached = sampler;
+            }
+            return sampler;
+        }
+    }
+
+    private static final class Uniform extends KeyDistribution {
+
+        Uniform() {
+            super("uniform");
+        }
+
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            return (operation, random) -> random.nextInt(keySpace);
+        }
+    }
+
+    /**
+     * Zipfian ranks used directly as keys, or scrambled through FNV-1a so the popular keys are spread out.
+     */
+    private static final class Zipfian extends ZipfianBased {
+
+        private final boolean scrambled;
+
+        Zipfian(double theta, boolean scrambled) {
+            super((scrambled ? "scrambled-zipfian:" : "zipfian:") + format(theta), theta);
+            this.scrambled = scrambled;
+        }
+
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            ZipfianSampler sampler = sampler(keySpace);
+            if (!scrambled) {
+                return (operation, random) -> (int) sampler.nextRank(random);
+            }
+            return (operation, random) -> (int) Long.remainderUnsigned(fnv64(sampler.nextRank(random)), keySpace);
+        }
+    }
+
+    private static final class Hotspot extends KeyDistribution {
+
+        private final double hotOpsFraction;
+        private final double hotKeyFraction;
+
+        Hotspot(double hotOpsFraction, double hotKeyFraction) {
+            super("hotspot:" + format(hotOpsFraction) + ":" + format(hotKeyFraction));
+            if (!(hotOpsFraction >= 0.0d && hotOpsFraction <= 1.0d)) {
+                throw new IllegalArgumentException("hotspot opsFraction must be in [0, 1]");
+            }
+            if (!(hotKeyFraction > 0.0d && hotKeyFraction <= 1.0d)) {
+                throw new IllegalArgumentException("hotspot keyFraction must be in (0, 1]");
+            }
+            this.hotOpsFraction = hotOpsFraction;
+            this.hotKeyFraction = hotKeyFraction;
+        }
+
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            int hotKeys = (int) Math.max(1L, Math.min(keySpace, Math.round(keySpace * hotKeyFraction)));
+            int coldKeys = keySpace - hotKeys;
+            return (operation, random) -> {
+                if (coldKeys == 0 || random.nextDouble() < hotOpsFraction) {
+                    return random.nextInt(hotKeys);
+                }
+                return hotKeys + random.nextInt(coldKeys);
+            };
+        }
+    }
+
+    /**
+     * Recency skew without a shared counter: every worker owns an insertion frontier that advances by the
+     * thread count on each put, so the workers' frontiers interleave and move together through the key space.
+     */
+    private static final class Latest extends ZipfianBased {
+
+        Latest(double theta) {
+            super("latest:" + format(theta), theta);
+        }
+
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            ZipfianSampler sampler = sampler(keySpace);
+            return new KeyGenerator() {
+                private long frontier = Math.min(initialSize, keySpace) + (long) workerId;
+
+                @Override
+                public int nextKey(OperationType operation, SplittableRandom random) {
+                    if (operation == OperationType.PUT) {
+                        int key = (int) (frontier % keySpace);
+                        frontier += threadCount;
+                        return key;
+                    }
+                    return (int) Math.floorMod(frontier - 1L - sampler.nextRank(random), (long) keySpace);
+                }
+            };
+        }
+    }
+
+    private static final class Sequential extends KeyDistribution {
+
+        Sequential() {
+            super("sequential");
+        }
+
+        @Override
+        public KeyGenerator newGenerator(int keySpace, int initialSize, int workerId, int threadCount) {
+            return new KeyGenerator() {
+                private long next = workerId;
+
+                @Override
+                public int nextKey(OperationType operation, SplittableRandom random) {
+                    int key = (int) (next % keySpace);
+                    next += threadCount;
+                    return key;
+                }
+            };
+        }
+    }
+
+    private static long fnv64(long value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= value & 0xFFL;
+            hash *= 0x100000001B3L;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    /**
+     * Gray et al.'s rejection-free Zipfian sampler ("Quickly generating billion-record synthetic databases"), as
+     * used by YCSB. Immutable constants for a fixed item count; {@link #nextRank} returns a rank in {@code [0, items)}
+     * with rank 0 the most popular.
+     */
+    private static final class ZipfianSampler {
+
+        private final long items;
+        private final double zetan;
+        private final double alpha;
+        private final double eta;
+        private final double halfPowTheta;
+
+        ZipfianSampler(long items, double theta) {
+            this.items = items;
+            this.zetan = zeta(items, theta);
+            double zeta2 = zeta(Math.min(2L, items), theta);
+            this.alpha = 1.0d / (1.0d - theta);
+            this.eta = items <= 2L ? 0.0d : (1.0d - Math.pow(2.0d / items, 1.0d - theta)) / (1.0d - zeta2 / zetan);
+            this.halfPowTheta = 1.0d + Math.pow(0.5d, theta);
+        }
+
+        long nextRank(SplittableRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetan;
+            if (uz < 1.0d || items == 1L) {
+                return 0L;
+            }
+            if (uz < halfPowTheta || items == 2L) {
+                return 1L;
+            }
+            long rank = (long) (items * Math.pow(eta * u - eta + 1.0d, alpha));
+            return Math.min(rank, items - 1L);
+        }
+
+        private static double zeta(long items, double theta) {
+            double sum = 0.0d;
+            for (long i = 1; i <= items; i++) {
+                sum += 1.0d / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.orderedmap.api.SortedEntries;
+
+/**
+ * The keys of the key space, encoded once up front by the configured {@link KeyType}, plus a small pool of
+ * values to put for each value size the session's workloads use. Workers look keys and values up by index, so
+ * neither boxing nor encoding is timed, and each pooled index always yields the same key instance. Built once per
+ * benchmark session and shared by all runs.
+ *
+ * <p>Only the seeded keys are pooled, or the first {@value #POOLED_KEYS} when fewer are seeded; the map holds the
+ * seeded ones anyway. Keys above that are encoded each time they are drawn, so a sparse key space up to 2^31-1
+ * costs no heap beyond the entries actually inserted.
+ */
+final class KeyPool {
+
+    /** Distinct values workers put; enough that puts do not all write the same object. */
+    static final int VALUE_POOL_SIZE = 1024;
+    /** Keys pooled even when fewer are seeded, so default-sized key spaces never encode while timed. */
+    static final int POOLED_KEYS = 1 << 20;
+    /** Most keys a map can be seeded with: seeding builds arrays that long, and the VM caps array length. */
+    static final int MAX_SEEDED = Integer.MAX_VALUE - 8;
+
+    private final KeyType keyType;
+    private final int keySpace;
+    private final Object[] keys;
+    private final long seed;
+    private final Map<Integer, Values> values = new ConcurrentHashMap<>();
+
+    /**
+     * @param pooled how many keys, from index zero, to encode up front; at least as many as are seeded
+     */
+    KeyPool(KeyType keyType, int keySpace, int pooled, long seed) {
+        this.keyType = keyType;
+        this.keySpace = keySpace;
+        this.keys = new Object[Math.min(keySpace, pooled)];
+        Arrays.parallelSetAll(keys, keyType::encode);
+        this.seed = seed;
+    }
+
+    static KeyPool of(BenchmarkConfig config) {
+        return new KeyPool(config.keyType(), config.keySpace(), Math.max(config.initialSize(), POOLED_KEYS),
+                config.seed());
+    }
+
+    KeyType keyType() {
+        return keyType;
+    }
+
+    int keySpace() {
+        return keySpace;
+    }
+
+    Object key(int index) {
+        return index < keys.length ? keys[index] : keyType.encode(index);
+    }
+
+    /**
+     * The values of {@code valueSize} bytes workers put, built on first use and shared by every run of that size.
+     */
+    Values values(int valueSize) {
+        return values.computeIfAbsent(valueSize, size -> new Values(size, seed));
+    }
+
+    /**
+     * A new value for seeding entry {@code index}: the boxed index, or a zeroed array of the value size. Seeded
+     * values are never shared, so the map holds what a real data set of that size would.
+     */
+    static Object seedValue(int valueSize, int index) {
+        return valueSize == 0 ? Integer.valueOf(index) : new byte[valueSize];
+    }
+
+    /**
+     * Keys {@code [0, count)} in map order, each with a fresh {@link #seedValue} of {@code valueSize} bytes;
+     * {@code count} must not exceed the pooled keys.
+     */
+    SortedMap<Object, Object> seedEntries(int count, int valueSize) {
+        Object[] seedValues = new Object[count];
+        Arrays.parallelSetAll(seedValues, index -> seedValue(valueSize, index));
+        return new SortedEntries<>(keys, seedValues, count, keyType.comparator());
+    }
+
+    /**
+     * {@value #VALUE_POOL_SIZE} distinct values of one size: random ints when the size is zero, random byte arrays
+     * otherwise.
+     */
+    static final class Values {
+        private final Object[] pool = new Object[VALUE_POOL_SIZE];
+
+        private Values(int valueSize, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = valueSize == 0 ? Integer.valueOf(random.nextInt()) : randomBytes(random, valueSize);
+            }
+        }
+
+        /**
+         * One of the pooled values, drawn uniformly.
+         */
+        Object next(SplittableRandom random) {
+            return pool[random.nextInt(pool.length)];
+        }
+    }
+
+    private static byte[] randomBytes(SplittableRandom random, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) random.nextInt();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Codec that turns the int key indices a {@link KeyDistribution} draws into map keys of a given type, preserving
+ * their order: {@code int} (boxed as is), {@code long} (spread over the long range), {@code string:<len>}
+ * (zero-padded decimal, so keys share long common prefixes the way composite keys do) and {@code bytes:<len>}
+ * (big-endian, left-padded with zeros, compared lexicographically as unsigned bytes). The string and byte
+ * lengths make comparisons cost more the longer they are, which is what the wider types are for.
+ *
+ * <p>{@code byte[]} keys hash by identity, so the sharded map only finds them because the harness always passes
+ * the same instance for the same index, see {@link KeyPool}.
+ */
+public record KeyType(Kind kind, int length) {
+
+    public static final KeyType INT = new KeyType(Kind.INT, Integer.BYTES);
+
+    /** Length of {@code string} and {@code bytes} keys when the spec gives none. */
+    static final int DEFAULT_LENGTH = 16;
+
+    /** Consecutive indices map to long keys this far apart, so most keys need all 64 bits. */
+    private static final long LONG_STRIDE = 0xFFFF_FFFFL;
+
+    private static final Comparator<Object> UNSIGNED_BYTES =
+            (left, right) -> Arrays.compareUnsigned((byte[]) left, (byte[]) right);
+
+    public enum Kind {
+        INT("int", Integer.BYTES),
+        LONG("long", Long.BYTES),
+        /** Ten digits hold any non-negative int. */
+        STRING("string", 10),
+        BYTES("bytes", Integer.BYTES);
+
+        private final String id;
+        private final int minLength;
+
+        Kind(String id, int minLength) {
+            this.id = id;
+            this.minLength = minLength;
+        }
+
+        private boolean sized() {
+            return this == STRING || this == BYTES;
+        }
+    }
+
+    public KeyType {
+        if (kind == null) {
+            throw new IllegalArgumentException("kind must not be null");
+        }
+        if (!kind.sized() && length != kind.minLength) {
+            throw new IllegalArgumentException(kind.id + " keys are " + kind.minLength + " bytes long");
+        }
+        if (length < kind.minLength) {
+            throw new IllegalArgumentException(kind.id + " keys need a length of at least " + kind.minLength);
+        }
+    }
+
+    /**
+     * Parses {@code int}, {@code long}, {@code string[:<len>]} or {@code bytes[:<len>]}, e.g. {@code bytes:32}.
+     */
+    public static KeyType parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        int colon = normalized.indexOf(':');
+        String id = colon < 0 ? normalized : normalized.substring(0, colon);
+        for (Kind kind : Kind.values()) {
+            if (!kind.id.equals(id)) {
+                continue;
+            }
+            if (colon >= 0 && !kind.sized()) {
+                throw new IllegalArgumentException(id + " keys take no length: " + value);
+            }
+            int length = !kind.sized() ? kind.minLength
+                    : colon < 0 ? DEFAULT_LENGTH
+                    : Integer.parseInt(normalized.substring(colon + 1));
+            return new KeyType(kind, length);
+        }
+        throw new IllegalArgumentException("Unknown key type: " + value);
+    }
+
+    public String spec() {
+        return kind.sized() ? kind.id + ":" + length : kind.id;
+    }
+
+    /**
+     * Key for {@code index}; keys compare in index order under {@link #comparator()}.
+     */
+    Object encode(int index) {
+        return switch (kind) {
+            case INT -> index;
+            case LONG -> index * LONG_STRIDE;
+            case STRING -> {
+                String digits = Integer.toString(index);
+                yield "0".repeat(length - digits.length()) + digits;
+            }
+            case BYTES -> {
+                byte[] bytes = new byte[length];
+                for (int i = 0; i < Integer.BYTES; i++) {
+                    bytes[length - 1 - i] = (byte) (index >>> (8 * i));
+                }
+                yield bytes;
+            }
+        };
+    }
+
+    /**
+     * Order the maps must use for these keys, or {@code null} for natural ordering.
+     */
+    Comparator<Object> comparator() {
+        return kind == Kind.BYTES ? UNSIGNED_BYTES : null;
+    }
+
+    /**
+     * Bytes of key data, without object headers: the primitive width, or one byte per character or element.
+     */
+    int rawBytes() {
+        return length;
+    }
+}
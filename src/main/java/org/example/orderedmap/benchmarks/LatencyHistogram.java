@@ -0,0 +1,111 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size, log-bucketed latency histogram with nanosecond resolution in the style of HdrHistogram.
+ *
+ * <p>Values below {@value #SUB_BUCKET_COUNT} ns are recorded exactly; larger values land in one of
+ * {@value #SUB_BUCKET_HALF_COUNT} linear sub-buckets per power of two, bounding the relative error to
+ * 1/{@value #SUB_BUCKET_HALF_COUNT}. Recording never allocates, so one instance per worker thread can be
+ * used on the hot path and merged once the phase ends.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    /** Largest trackable value is 2^36 ns (about 68 s); slower operations are clamped into the top bucket. */
+    private static final int MAX_VALUE_BITS = 36;
+    private static final long MAX_TRACKABLE = (1L << MAX_VALUE_BITS) - 1L;
+    private static final int BUCKET_COUNT = MAX_VALUE_BITS - SUB_BUCKET_BITS + 1;
+    private static final int LENGTH = (BUCKET_COUNT + 1) * SUB_BUCKET_HALF_COUNT;
+
+    private final long[] counts = new long[LENGTH];
+    private long totalCount;
+    private long totalNanos;
+    private long maxNanos;
+
+    void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[indexOf(Math.min(value, MAX_TRACKABLE))]++;
+        totalCount++;
+        totalNanos += value;
+        if (value > maxNanos) {
+            maxNanos = value;
+        }
+    }
+
+    void merge(LatencyHistogram other) {
+        if (other == null) {
+            return;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    long totalCount() {
+        return totalCount;
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    double meanNanos() {
+        return totalCount == 0L ? 0.0d : totalNanos / (double) totalCount;
+    }
+
+    /**
+     * Returns the highest value equivalent to the sample at {@code quantile}, capped at the recorded maximum.
+     * Quantiles falling into the clamped top bucket report the maximum itself.
+     */
+    long valueAtQuantile(double quantile) {
+        if (totalCount == 0L) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(quantile * totalCount));
+        long seen = 0L;
+        for (int i = 0; i < LENGTH; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return i == LENGTH - 1 ? maxNanos : Math.min(highestEquivalentValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Non-empty buckets in ascending order as (inclusive upper bound in ns, count) pairs.
+     */
+    List<long[]> buckets() {
+        List<long[]> buckets = new ArrayList<>();
+        for (int i = 0; i < LENGTH; i++) {
+            if (counts[i] != 0L) {
+                buckets.add(new long[] {highestEquivalentValue(i), counts[i]});
+            }
+        }
+        return buckets;
+    }
+
+    private static int indexOf(long value) {
+        int bucket = 63 - Long.numberOfLeadingZeros(value | (SUB_BUCKET_COUNT - 1)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> bucket);
+        return (bucket + 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int bucket = index / SUB_BUCKET_HALF_COUNT - 1;
+        int subBucket = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        if (bucket < 0) {
+            bucket = 0;
+            subBucket -= SUB_BUCKET_HALF_COUNT;
+        }
+        return (((long) subBucket + 1L) << bucket) - 1L;
+    }
+}
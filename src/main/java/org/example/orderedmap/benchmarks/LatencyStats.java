@@ -1,68 +1,124 @@
 package org.example.orderedmap.benchmarks;
 
-import java.util.Arrays;
+import java.util.List;
 
 /**
- * Captures latency aggregates calculated from microsecond samples.
+ * Captures latency aggregates calculated from a merged nanosecond {@link LatencyHistogram}.
  */
 final class LatencyStats {
 
-    private final double meanMicros;
-    private final long p50Micros;
-    private final long p95Micros;
-    private final long p99Micros;
+    private static final LatencyStats EMPTY = new LatencyStats(0L, 0.0d, 0L, 0L, 0L, 0L, 0L, 0L, 0L, List.of());
 
-    private LatencyStats(double meanMicros, long p50Micros, long p95Micros, long p99Micros) {
-        this.meanMicros = meanMicros;
-        this.p50Micros = p50Micros;
-        this.p95Micros = p95Micros;
-        this.p99Micros = p99Micros;
+    private final long count;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long p9999Nanos;
+    private final long maxNanos;
+    private final List<long[]> buckets;
+
+    private LatencyStats(long count,
+                         double meanNanos,
+                         long p50Nanos,
+                         long p90Nanos,
+                         long p95Nanos,
+                         long p99Nanos,
+                         long p999Nanos,
+                         long p9999Nanos,
+                         long maxNanos,
+                         List<long[]> buckets) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.p9999Nanos = p9999Nanos;
+        this.maxNanos = maxNanos;
+        this.buckets = buckets;
     }
 
-    static LatencyStats fromMicros(long[] samples) {
-        if (samples == null || samples.length == 0) {
-            return new LatencyStats(0.0d, 0L, 0L, 0L);
+    static LatencyStats fromHistogram(LatencyHistogram histogram) {
+        if (histogram == null || histogram.totalCount() == 0L) {
+            return EMPTY;
         }
-        long[] copy = Arrays.copyOf(samples, samples.length);
-        Arrays.sort(copy);
-        long sum = 0L;
-        for (long sample : copy) {
-            sum += sample;
+        return new LatencyStats(
+                histogram.totalCount(),
+                histogram.meanNanos(),
+                histogram.valueAtQuantile(0.50d),
+                histogram.valueAtQuantile(0.90d),
+                histogram.valueAtQuantile(0.95d),
+                histogram.valueAtQuantile(0.99d),
+                histogram.valueAtQuantile(0.999d),
+                histogram.valueAtQuantile(0.9999d),
+                histogram.maxNanos(),
+                List.copyOf(histogram.buckets()));
+    }
+
+    /**
+     * Rebuilds statistics that were computed elsewhere, e.g. in a forked JVM.
+     */
+    static LatencyStats of(long count,
+                           double meanNanos,
+                           long p50Nanos,
+                           long p90Nanos,
+                           long p95Nanos,
+                           long p99Nanos,
+                           long p999Nanos,
+                           long p9999Nanos,
+                           long maxNanos,
+                           List<long[]> buckets) {
+        if (count == 0L) {
+            return EMPTY;
         }
-        double mean = sum / (double) copy.length;
-        long p50 = percentile(copy, 0.50d);
-        long p95 = percentile(copy, 0.95d);
-        long p99 = percentile(copy, 0.99d);
-        return new LatencyStats(mean, p50, p95, p99);
+        return new LatencyStats(count, meanNanos, p50Nanos, p90Nanos, p95Nanos, p99Nanos, p999Nanos, p9999Nanos,
+                maxNanos, List.copyOf(buckets));
+    }
+
+    long count() {
+        return count;
     }
 
     double meanMicros() {
-        return meanMicros;
+        return meanNanos / 1_000.0d;
     }
 
-    long p50Micros() {
-        return p50Micros;
+    double p50Micros() {
+        return p50Nanos / 1_000.0d;
     }
 
-    long p95Micros() {
-        return p95Micros;
+    double p90Micros() {
+        return p90Nanos / 1_000.0d;
     }
 
-    long p99Micros() {
-        return p99Micros;
+    double p95Micros() {
+        return p95Nanos / 1_000.0d;
     }
 
-    private static long percentile(long[] sorted, double quantile) {
-        if (sorted.length == 0) {
-            return 0L;
-        }
-        double index = quantile * (sorted.length - 1);
-        int lower = (int) Math.floor(index);
-        int upper = (int) Math.ceil(index);
-        if (lower == upper) {
-            return sorted[lower];
-        }
-        double fraction = index - lower;
-        return (long) Math.round(sorted[lower] + fraction * (sorted[upper] - sorted[lower]));
+    double p99Micros() {
+        return p99Nanos / 1_000.0d;
+    }
+
+    double p999Micros() {
+        return p999Nanos / 1_000.0d;
+    }
+
+    double p9999Micros() {
+        return p9999Nanos / 1_000.0d;
+    }
+
+    double maxMicros() {
+        return maxNanos / 1_000.0d;
+    }
+
+    /**
+     * Non-empty histogram buckets as (inclusive upper bound in ns, count) pairs.
+     */
+    List<long[]> buckets() {
+        return buckets;
     }
 }
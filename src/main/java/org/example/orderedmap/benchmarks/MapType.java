@@ -1,71 +1,152 @@
 package org.example.orderedmap.benchmarks;
 
+import java.io.PrintStream;
+import java.security.CodeSource;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import org.example.orderedmap.api.MapCapability;
 import org.example.orderedmap.api.OrderedMap;
-import org.example.orderedmap.locking.GlobalLockOrderedMap;
-import org.example.orderedmap.locking.ShardedOrderedMap;
-import org.example.orderedmap.skiplist.SkipListOrderedMap;
-import org.example.orderedmap.stm.library.LibraryStmOrderedMap;
-import org.example.orderedmap.stm.tiny.TinyStmOrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
 
 /**
- * Enumerates supported map implementations for the benchmark harness.
+ * A map the harness benchmarks: an {@link OrderedMapProvider} found through {@link ServiceLoader} together with
+ * the parameter values given in its spec. Specs are {@code id[:name=value]...}, e.g. {@code sharded} or
+ * {@code sharded:shards=64}; the spec, with parameters in alphabetical order, is the id every result carries.
+ * Two map types are equal when their ids are.
  */
-public enum MapType {
+public final class MapType {
 
-    GLOBAL("global") {
-        @Override
-        public OrderedMap<Integer, Integer> create() {
-            return new GlobalLockOrderedMap<>();
-        }
-    },
-    SHARDED("sharded") {
-        @Override
-        public OrderedMap<Integer, Integer> create() {
-            return new ShardedOrderedMap<>();
-        }
-    },
-    SKIPLIST("skiplist") {
-        @Override
-        public OrderedMap<Integer, Integer> create() {
-            return new SkipListOrderedMap<>();
-        }
-    },
-    TINY_STM("tinystm") {
-        @Override
-        public OrderedMap<Integer, Integer> create() {
-            return new TinyStmOrderedMap<>();
-        }
-    },
-    LIBRARY_STM("stm") {
-        @Override
-        public OrderedMap<Integer, Integer> create() {
-            return new LibraryStmOrderedMap<>();
-        }
-    };
+    public static final MapType GLOBAL = fromId("global");
+    public static final MapType SHARDED = fromId("sharded");
+    public static final MapType SKIPLIST = fromId("skiplist");
+    public static final MapType TINY_STM = fromId("tinystm");
+    public static final MapType TINY_STM_MV = fromId("tinystm-mv");
+    public static final MapType LIBRARY_STM = fromId("stm");
+
+    /** Parameter of the {@code stm} provider that {@code --stm-profile} fills in when a spec leaves it out. */
+    private static final String STM_PROFILE_PARAMETER = "profile";
 
+    private final OrderedMapProvider provider;
+    private final Map<String, String> explicit;
     private final String id;
 
-    MapType(String id) {
-        this.id = id;
+    private MapType(OrderedMapProvider provider, Map<String, String> explicit) {
+        this.provider = provider;
+        this.explicit = Collections.unmodifiableMap(explicit);
+        StringBuilder spec = new StringBuilder(provider.id());
+        explicit.forEach((name, value) -> spec.append(':').append(name).append('=').append(value));
+        this.id = spec.toString();
+    }
+
+    /**
+     * Every discovered provider with its default parameters, built-in maps first.
+     */
+    public static List<MapType> all() {
+        return Registry.PROVIDERS.values().stream()
+                .map(provider -> new MapType(provider, new LinkedHashMap<>()))
+                .collect(Collectors.toList());
+    }
+
+    public static List<OrderedMapProvider> providers() {
+        return List.copyOf(Registry.PROVIDERS.values());
     }
 
-    public abstract OrderedMap<Integer, Integer> create();
+    public OrderedMapProvider provider() {
+        return provider;
+    }
+
+    /**
+     * Value of every parameter the provider declares: the spec's where it gives one, the default otherwise.
+     */
+    public Map<String, String> parameters() {
+        Map<String, String> resolved = new TreeMap<>(provider.parameters());
+        resolved.putAll(explicit);
+        return resolved;
+    }
+
+    /**
+     * Creates the map ordering keys by {@code comparator}, or naturally when it is {@code null}.
+     */
+    public <K, V> OrderedMap<K, V> create(Comparator<? super K> comparator) {
+        return create(parameters(), comparator);
+    }
+
+    public <K, V> OrderedMap<K, V> create() {
+        return create((Comparator<? super K>) null);
+    }
+
+    /**
+     * Creates the map ordered for the configuration's {@link BenchmarkConfig#keyType()}. Session-wide knobs
+     * fill parameters the spec leaves out: {@code --stm-profile} sets the {@code stm} map's {@code profile}.
+     */
+    public OrderedMap<Object, Object> create(BenchmarkConfig config) {
+        Map<String, String> parameters = parameters();
+        if (provider.id().equals("stm") && !explicit.containsKey(STM_PROFILE_PARAMETER)) {
+            parameters.put(STM_PROFILE_PARAMETER, config.stmProfile().id());
+        }
+        return create(parameters, config.keyType().comparator());
+    }
+
+    private <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        if (comparator != null && !provider.capabilities().contains(MapCapability.CUSTOM_ORDER)) {
+            throw new IllegalArgumentException("Map " + id + " only supports natural key order");
+        }
+        return provider.create(Collections.unmodifiableMap(parameters), comparator);
+    }
 
     public String id() {
         return id;
     }
 
-    public static MapType fromId(String id) {
-        String normalized = id.toLowerCase(Locale.ROOT);
-        return Arrays.stream(values())
-                .filter(type -> type.id.equals(normalized))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Unknown map type: " + id));
+    /**
+     * Parses a map spec, {@code id[:name=value]...}. A spec with parameters creates and closes one empty map
+     * so that a bad value fails here rather than halfway through a session.
+     */
+    public static MapType fromId(String spec) {
+        String[] parts = spec.trim().split(":", -1);
+        OrderedMapProvider provider = Registry.PROVIDERS.get(parts[0].toLowerCase(Locale.ROOT));
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown map type: " + parts[0] + " (available: "
+                    + String.join(", ", Registry.PROVIDERS.keySet()) + ")");
+        }
+        Map<String, String> given = new LinkedHashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Map parameters take the form name=value: " + spec);
+            }
+            String name = parts[i].substring(0, equals).trim().toLowerCase(Locale.ROOT);
+            if (!provider.parameters().containsKey(name)) {
+                throw new IllegalArgumentException("Map " + provider.id() + " has no parameter " + name
+                        + (provider.parameters().isEmpty() ? "" : " (accepts: "
+                        + String.join(", ", new TreeMap<>(provider.parameters()).keySet()) + ")"));
+            }
+            if (given.put(name, parts[i].substring(equals + 1).trim()) != null) {
+                throw new IllegalArgumentException("Map parameter " + name + " given twice: " + spec);
+            }
+        }
+        Map<String, String> explicit = new LinkedHashMap<>();
+        new TreeMap<>(provider.parameters()).keySet().forEach(name -> {
+            if (given.containsKey(name)) {
+                explicit.put(name, given.get(name));
+            }
+        });
+        MapType mapType = new MapType(provider, explicit);
+        if (!explicit.isEmpty()) {
+            mapType.create().close();
+        }
+        return mapType;
     }
 
     public static List<MapType> parseList(String csv) {
@@ -75,4 +156,66 @@ public enum MapType {
                 .map(MapType::fromId)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Lists every discovered provider with its parameters, their defaults and its capabilities.
+     */
+    static void printProviders(PrintStream out) {
+        out.printf("%-12s %-28s %-62s %s%n", "Map", "Parameters", "Capabilities", "Provider");
+        for (OrderedMapProvider provider : Registry.PROVIDERS.values()) {
+            String parameters = new TreeMap<>(provider.parameters()).entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(Collectors.joining(", "));
+            String capabilities = provider.capabilities().stream()
+                    .sorted()
+                    .map(capability -> capability.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .collect(Collectors.joining(", "));
+            out.printf("%-12s %-28s %-62s %s%n", provider.id(), parameters.isEmpty() ? "-" : parameters,
+                    capabilities.isEmpty() ? "-" : capabilities, provider.getClass().getName());
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MapType mapType && mapType.id.equals(id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+
+    /**
+     * Providers by id, loaded once on first use: those shipped with the harness in the order of its service file,
+     * then the others in discovery order.
+     */
+    private static final class Registry {
+        static final Map<String, OrderedMapProvider> PROVIDERS = load();
+
+        private static Map<String, OrderedMapProvider> load() {
+            CodeSource harness = MapType.class.getProtectionDomain().getCodeSource();
+            List<OrderedMapProvider> discovered = ServiceLoader.load(OrderedMapProvider.class).stream()
+                    .sorted(Comparator.comparing(candidate ->
+                            !Objects.equals(harness, candidate.type().getProtectionDomain().getCodeSource())))
+                    .map(ServiceLoader.Provider::get)
+                    .collect(Collectors.toList());
+            Map<String, OrderedMapProvider> providers = new LinkedHashMap<>();
+            List<String> duplicates = new ArrayList<>();
+            for (OrderedMapProvider provider : discovered) {
+                String id = provider.id().toLowerCase(Locale.ROOT);
+                if (providers.putIfAbsent(id, provider) != null) {
+                    duplicates.add(id);
+                }
+            }
+            if (!duplicates.isEmpty()) {
+                throw new IllegalStateException("More than one OrderedMapProvider claims the id(s) " + duplicates);
+            }
+            return Collections.unmodifiableMap(providers);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package org.example.orderedmap.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Reads the JVM's allocation and garbage-collection counters around a measurement phase.
+ *
+ * <p>Allocation is read per thread through {@code com.sun.management.ThreadMXBean}, so each worker measures
+ * only what it allocated itself; the call reads a thread-local counter and does not safepoint. GC counts and
+ * accumulated collection time come from the {@link GarbageCollectorMXBean}s and cover the whole JVM.
+ */
+final class MemoryProbe {
+
+    /** Returned when the JVM cannot attribute allocation to the current thread (e.g. a virtual thread). */
+    static final long UNSUPPORTED = -1L;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private MemoryProbe() {
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread, or {@link #UNSUPPORTED}.
+     */
+    static long currentThreadAllocatedBytes() {
+        if (THREADS == null) {
+            return UNSUPPORTED;
+        }
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        return bytes < 0L ? UNSUPPORTED : bytes;
+    }
+
+    static GcSnapshot gcSnapshot() {
+        long count = 0L;
+        long millis = 0L;
+        for (GarbageCollectorMXBean collector : COLLECTORS) {
+            count += Math.max(0L, collector.getCollectionCount());
+            millis += Math.max(0L, collector.getCollectionTime());
+        }
+        return new GcSnapshot(count, millis);
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Cumulative collections and collection time across all collectors.
+     */
+    record GcSnapshot(long count, long millis) {
+
+        GcSnapshot since(GcSnapshot baseline) {
+            return new GcSnapshot(count - baseline.count, millis - baseline.millis);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.orderedmap.benchmarks;
+
+/**
+ * Allocation and garbage-collection cost of a measurement phase. {@code allocatedBytes} sums what the workers
+ * allocated and is negative when the JVM could not attribute allocation to them; {@code gcCount} and
+ * {@code gcMillis} cover every collector of the JVM during the phase. For concurrent collectors the time
+ * includes concurrent cycles, not only pauses.
+ */
+public record MemoryStats(long allocatedBytes, long gcCount, long gcMillis) {
+
+    public boolean allocationKnown() {
+        return allocatedBytes >= 0L;
+    }
+
+    /**
+     * Bytes allocated per map operation, or {@code NaN} when unknown or no operation completed.
+     */
+    public double bytesPerOperation(long operations) {
+        return allocationKnown() && operations > 0L ? allocatedBytes / (double) operations : Double.NaN;
+    }
+
+    /**
+     * Milliseconds of GC per second of the phase.
+     */
+    public double gcMillisPerSecond(long durationMillis) {
+        return durationMillis > 0L ? gcMillis * 1_000.0d / durationMillis : 0.0d;
+    }
+}
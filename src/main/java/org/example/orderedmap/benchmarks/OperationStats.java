@@ -0,0 +1,13 @@
+package org.example.orderedmap.benchmarks;
+
+/**
+ * Share of a run issued as one {@link OperationType}. {@code operations} counts map calls like
+ * {@link RunResult#totalOperations()} (a batch or a paged range counts each call), while {@code latency} holds
+ * one sample per batch, as the run's overall latency does.
+ */
+public record OperationStats(
+        OperationType operation,
+        long operations,
+        double operationsPerSecond,
+        LatencyStats latency) {
+}
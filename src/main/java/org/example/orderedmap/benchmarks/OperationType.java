@@ -1,11 +1,13 @@
 package org.example.orderedmap.benchmarks;
 
 /**
- * Supported operation categories for workload generation.
+ * Supported operation categories for workload generation. A {@link #TRANSFER} moves value between several keys
+ * in one {@link org.example.orderedmap.api.OrderedMap#atomicUpdate}.
  */
 public enum OperationType {
     GET,
     PUT,
     REMOVE,
-    RANGE
+    RANGE,
+    TRANSFER
 }
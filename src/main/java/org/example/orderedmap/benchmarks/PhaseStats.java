@@ -0,0 +1,50 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.List;
+
+/**
+ * One phase of a run of a phased workload. {@code startMillis} is the phase's offset from the start of the
+ * measurement; {@code operations} and {@code latency} cover what workers issued while the phase was current.
+ * {@code recoveryMillis} is how long after the switch into the phase its throughput took to come back to
+ * {@value #RECOVERED_FRACTION} of the phase's steady state, read from the run's time series at the resolution of
+ * {@link BenchmarkConfig#sampleInterval()}. It is {@code null} for the first phase, which follows a warmup on the
+ * same mix, and when interval sampling is off or the phase spans fewer than two intervals.
+ */
+public record PhaseStats(
+        WorkloadProfile.Phase phase,
+        long startMillis,
+        long durationMillis,
+        long operations,
+        double operationsPerSecond,
+        LatencyStats latency,
+        Long recoveryMillis) {
+
+    /** Fraction of the steady-state throughput at which a phase counts as recovered. */
+    static final double RECOVERED_FRACTION = 0.9d;
+
+    /**
+     * Offset from {@code startMillis} of the first interval of the phase {@code [startMillis, endMillis)} whose
+     * throughput reaches {@link #RECOVERED_FRACTION} of the steady state, taken as the median throughput of the
+     * intervals in the second half of the phase. Intervals belong to the phase they start in.
+     */
+    static Long recoveryMillis(List<IntervalSample> timeSeries, long startMillis, long endMillis) {
+        List<IntervalSample> intervals = timeSeries.stream()
+                .filter(sample -> sample.startMillis() >= startMillis && sample.startMillis() < endMillis)
+                .toList();
+        long secondHalf = startMillis + (endMillis - startMillis) / 2L;
+        double[] steady = intervals.stream()
+                .filter(sample -> sample.startMillis() >= secondHalf)
+                .mapToDouble(IntervalSample::operationsPerSecond)
+                .toArray();
+        if (intervals.size() < 2 || steady.length == 0) {
+            return null;
+        }
+        double recovered = RECOVERED_FRACTION * Statistics.median(steady);
+        for (IntervalSample sample : intervals) {
+            if (sample.operationsPerSecond() >= recovered) {
+                return sample.startMillis() - startMillis;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Digest of the JFR recording taken during one measurement phase with {@code --profile}. Hot methods are the
+ * top frames of execution samples. Lock and allocation sites are named after the innermost frame outside the
+ * JDK, so an allocation inside {@code TreeMap.put} is charged to the map operation that called it.
+ */
+public record ProfileSummary(
+        String recording,
+        long executionSamples,
+        List<HotMethod> hotMethods,
+        List<LockSite> lockContention,
+        List<AllocationSite> allocationSites,
+        Map<String, Long> stmAbortsByCause,
+        RangeSizes rangeSizes) {
+
+    /**
+     * Method on top of the stack in {@code samples} execution samples.
+     */
+    public record HotMethod(String method, long samples, double percent) {
+    }
+
+    /**
+     * Blocking at one call site. {@code kind} is {@code read}/{@code write} for map locks and {@code monitor}
+     * for contended {@code synchronized} blocks.
+     */
+    public record LockSite(String site, String kind, long events, double totalMillis, double maxMillis) {
+    }
+
+    /**
+     * Sampled allocation weight (an estimate of the bytes allocated) of one class at one site.
+     */
+    public record AllocationSite(String site, String objectClass, long weightBytes) {
+    }
+
+    /**
+     * Result sizes of the range queries issued during the phase.
+     */
+    public record RangeSizes(long count, double mean, long max) {
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Pacing of trace replay.
+ */
+public enum ReplayTiming {
+
+    /** Issue each worker's records back to back. */
+    FAST("fast"),
+    /** Issue every record at its recorded offset from the start of the trace. */
+    ORIGINAL("original");
+
+    private final String id;
+
+    ReplayTiming(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public static ReplayTiming fromId(String id) {
+        String normalized = id.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(timing -> timing.id.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown replay timing: " + id));
+    }
+}
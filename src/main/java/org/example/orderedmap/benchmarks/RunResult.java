@@ -1,18 +1,40 @@
 package org.example.orderedmap.benchmarks;
 
+import java.util.List;
+
 import org.example.orderedmap.api.MapMetrics;
 
 /**
- * Encapsulates the outcome of a single benchmark run.
+ * Encapsulates the outcome of a single benchmark run. {@code targetRate} is the open-loop arrival rate in
+ * ops/sec, or zero for closed-loop runs; {@code keyDistribution} is how the run's operations chose their keys.
+ * {@code operationStats} breaks counts, throughput and latency down by {@link OperationType}, listing only the
+ * types the run issued; size and clear records of a replayed trace count toward the totals only.
+ * {@code timeSeries} holds one sample per {@link BenchmarkConfig#sampleInterval()} of the measurement phase, and
+ * is empty when interval sampling is disabled. {@code phases} breaks a phased workload's run down by phase and is
+ * empty for a plain workload. {@code seedMillis} is how long populating the map with
+ * {@link BenchmarkConfig#initialSize()} entries took, and {@code warmup} describes the warmup that followed.
+ * {@code memory} is the allocation and GC cost of the measurement phase. {@code profile} digests the phase's
+ * JFR recording and is {@code null} unless profiling is enabled. {@code invariant} is {@code null} unless the
+ * workload {@link WorkloadProfile#conservesValues() conserves values}.
  */
 public record RunResult(
         MapType mapType,
         WorkloadProfile workload,
+        KeyDistribution keyDistribution,
         int threadCount,
         int repeat,
+        long targetRate,
         long totalOperations,
         double operationsPerSecond,
         long durationMillis,
+        long seedMillis,
         LatencyStats latency,
-        MapMetrics metrics) {
+        List<OperationStats> operationStats,
+        MapMetrics metrics,
+        List<IntervalSample> timeSeries,
+        List<PhaseStats> phases,
+        WarmupStats warmup,
+        MemoryStats memory,
+        ProfileSummary profile,
+        InvariantCheck invariant) {
 }
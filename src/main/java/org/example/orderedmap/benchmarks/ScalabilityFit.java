@@ -0,0 +1,165 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Universal Scalability Law fit of one (map, workload) thread sweep:
+ * {@code X(N) = lambda * N / (1 + sigma * (N - 1) + kappa * N * (N - 1))}.
+ *
+ * <p>{@code lambda} is the ideal single-thread throughput, {@code sigma} the contention coefficient (the
+ * serialised fraction, e.g. a global lock) and {@code kappa} the coherency coefficient (pairwise crosstalk such
+ * as cache-line ping-pong or STM validation against other writers). With {@code kappa > 0} throughput peaks at
+ * {@code peakThreads} and declines beyond it; with {@code kappa == 0} it approaches {@code lambda / sigma} and
+ * {@code peakThreads} is infinite. {@code measured} holds the mean throughput per tested thread count and
+ * {@code projected} the model's prediction at the configured projection thread counts.
+ */
+public record ScalabilityFit(
+        MapType mapType,
+        WorkloadProfile workload,
+        double lambda,
+        double sigma,
+        double kappa,
+        double rSquared,
+        double peakThreads,
+        double peakOpsPerSec,
+        List<Point> measured,
+        List<Point> projected) {
+
+    /** Fewer distinct thread counts leave the three parameters underdetermined. */
+    static final int MIN_THREAD_COUNTS = 3;
+
+    private static final int SIGMA_STEPS = 100;
+    private static final int KAPPA_DECADES = 8;
+    private static final int KAPPA_STEPS_PER_DECADE = 10;
+    private static final int REFINE_ITERATIONS = 60;
+
+    /**
+     * Throughput at {@code threads}; {@code efficiency} is the fraction of linear scaling from {@code lambda}.
+     */
+    public record Point(int threads, double opsPerSec, double efficiency) {
+    }
+
+    /**
+     * Throughput the model predicts at {@code threads}.
+     */
+    public double predict(double threads) {
+        return predict(lambda, sigma, kappa, threads);
+    }
+
+    /**
+     * Fits the law to every (threads, ops/sec) sample by least squares with {@code sigma} and {@code kappa}
+     * constrained to [0, 1]. For fixed coefficients the best {@code lambda} has a closed form, so only the two
+     * coefficients are searched: a coarse grid (linear in sigma, logarithmic in kappa) followed by a pattern
+     * search around the best grid point. Returns {@code null} when fewer than {@value #MIN_THREAD_COUNTS}
+     * distinct thread counts were measured.
+     */
+    static ScalabilityFit fit(MapType mapType,
+                              WorkloadProfile workload,
+                              int[] threads,
+                              double[] opsPerSec,
+                              List<Integer> projections) {
+        Map<Integer, List<Double>> byThreads = new TreeMap<>();
+        for (int i = 0; i < threads.length; i++) {
+            byThreads.computeIfAbsent(threads[i], key -> new ArrayList<>()).add(opsPerSec[i]);
+        }
+        if (byThreads.size() < MIN_THREAD_COUNTS) {
+            return null;
+        }
+        double bestSigma = 0.0d;
+        double bestKappa = 0.0d;
+        double bestError = Double.POSITIVE_INFINITY;
+        for (int s = 0; s <= SIGMA_STEPS; s++) {
+            double sigma = s / (double) SIGMA_STEPS;
+            for (int k = -1; k <= KAPPA_DECADES * KAPPA_STEPS_PER_DECADE; k++) {
+                double kappa = k < 0 ? 0.0d : Math.pow(10.0d, (double) k / KAPPA_STEPS_PER_DECADE - KAPPA_DECADES);
+                double error = squaredError(threads, opsPerSec, sigma, kappa);
+                if (error < bestError) {
+                    bestError = error;
+                    bestSigma = sigma;
+                    bestKappa = kappa;
+                }
+            }
+        }
+        double sigmaStep = 1.0d / SIGMA_STEPS;
+        double kappaStep = Math.max(bestKappa, Math.pow(10.0d, -KAPPA_DECADES));
+        for (int iteration = 0; iteration < REFINE_ITERATIONS; iteration++) {
+            boolean improved = false;
+            double[][] moves = {{sigmaStep, 0.0d}, {-sigmaStep, 0.0d}, {0.0d, kappaStep}, {0.0d, -kappaStep}};
+            for (double[] move : moves) {
+                double sigma = clamp(bestSigma + move[0]);
+                double kappa = clamp(bestKappa + move[1]);
+                double error = squaredError(threads, opsPerSec, sigma, kappa);
+                if (error < bestError) {
+                    bestError = error;
+                    bestSigma = sigma;
+                    bestKappa = kappa;
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                sigmaStep /= 2.0d;
+                kappaStep /= 2.0d;
+            }
+        }
+        double lambda = bestLambda(threads, opsPerSec, bestSigma, bestKappa);
+        double mean = Statistics.mean(opsPerSec);
+        double total = 0.0d;
+        for (double value : opsPerSec) {
+            total += (value - mean) * (value - mean);
+        }
+        double rSquared = total == 0.0d ? 1.0d : 1.0d - bestError / total;
+        double peakThreads = bestKappa > 0.0d
+                ? Math.sqrt((1.0d - bestSigma) / bestKappa)
+                : Double.POSITIVE_INFINITY;
+        double peakOpsPerSec = bestKappa > 0.0d
+                ? predict(lambda, bestSigma, bestKappa, Math.max(1.0d, peakThreads))
+                : bestSigma > 0.0d ? lambda / bestSigma : Double.POSITIVE_INFINITY;
+        List<Point> measured = new ArrayList<>(byThreads.size());
+        byThreads.forEach((count, values) -> {
+            double average = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0d);
+            measured.add(new Point(count, average, average / (lambda * count)));
+        });
+        List<Point> projected = new ArrayList<>(projections.size());
+        for (int count : projections) {
+            double predicted = predict(lambda, bestSigma, bestKappa, count);
+            projected.add(new Point(count, predicted, predicted / (lambda * count)));
+        }
+        return new ScalabilityFit(mapType, workload, lambda, bestSigma, bestKappa, rSquared, peakThreads,
+                peakOpsPerSec, List.copyOf(measured), List.copyOf(projected));
+    }
+
+    private static double predict(double lambda, double sigma, double kappa, double threads) {
+        return lambda * threads / (1.0d + sigma * (threads - 1.0d) + kappa * threads * (threads - 1.0d));
+    }
+
+    private static double squaredError(int[] threads, double[] opsPerSec, double sigma, double kappa) {
+        double lambda = bestLambda(threads, opsPerSec, sigma, kappa);
+        double error = 0.0d;
+        for (int i = 0; i < threads.length; i++) {
+            double residual = opsPerSec[i] - predict(lambda, sigma, kappa, threads[i]);
+            error += residual * residual;
+        }
+        return error;
+    }
+
+    /**
+     * Least-squares {@code lambda} for fixed coefficients; the model is linear in it.
+     */
+    private static double bestLambda(int[] threads, double[] opsPerSec, double sigma, double kappa) {
+        double numerator = 0.0d;
+        double denominator = 0.0d;
+        for (int i = 0; i < threads.length; i++) {
+            double shape = predict(1.0d, sigma, kappa, threads[i]);
+            numerator += opsPerSec[i] * shape;
+            denominator += shape * shape;
+        }
+        return denominator == 0.0d ? 0.0d : numerator / denominator;
+    }
+
+    private static double clamp(double coefficient) {
+        return Math.min(1.0d, Math.max(0.0d, coefficient));
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Small-sample statistics used to compare repeated benchmark runs.
+ */
+final class Statistics {
+
+    /** Above this many samples per side the Mann-Whitney p-value uses the normal approximation. */
+    private static final int EXACT_LIMIT = 20;
+
+    /** Two-sided 95% quantiles of Student's t for 1 to 30 degrees of freedom. */
+    private static final double[] T_975 = {
+            12.706d, 4.303d, 3.182d, 2.776d, 2.571d, 2.447d, 2.365d, 2.306d, 2.262d, 2.228d,
+            2.201d, 2.179d, 2.160d, 2.145d, 2.131d, 2.120d, 2.110d, 2.101d, 2.093d, 2.086d,
+            2.080d, 2.074d, 2.069d, 2.064d, 2.060d, 2.056d, 2.052d, 2.048d, 2.045d, 2.042d};
+
+    private Statistics() {
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0d;
+    }
+
+    static double mean(double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0.0d;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Sample standard deviation (n - 1 denominator); zero for fewer than two values.
+     */
+    static double standardDeviation(double[] values) {
+        if (values.length < 2) {
+            return 0.0d;
+        }
+        double mean = mean(values);
+        double squares = 0.0d;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / (values.length - 1));
+    }
+
+    /**
+     * Standard deviation over mean; zero when the mean is zero.
+     */
+    static double coefficientOfVariation(double[] values) {
+        double mean = mean(values);
+        return mean == 0.0d ? 0.0d : standardDeviation(values) / Math.abs(mean);
+    }
+
+    /**
+     * Half-width of the 95% Student's t confidence interval of the mean; infinite for fewer than two values.
+     */
+    static double meanConfidenceHalfWidth(double[] values) {
+        if (values.length < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return studentT975(values.length - 1) * standardDeviation(values) / Math.sqrt(values.length);
+    }
+
+    /**
+     * Two-sided 95% quantile of Student's t; beyond the table, the Cornish-Fisher expansion around the normal
+     * quantile (off by less than 0.001 from 31 degrees of freedom on).
+     */
+    static double studentT975(int degreesOfFreedom) {
+        if (degreesOfFreedom <= 0) {
+            throw new IllegalArgumentException("degrees of freedom must be positive");
+        }
+        if (degreesOfFreedom <= T_975.length) {
+            return T_975[degreesOfFreedom - 1];
+        }
+        double z = 1.959964d;
+        double z3 = z * z * z;
+        double df = degreesOfFreedom;
+        return z + (z3 + z) / (4.0d * df) + (5.0d * z3 * z * z + 16.0d * z3 + 3.0d * z) / (96.0d * df * df);
+    }
+
+    /**
+     * Two-sided p-value of the Mann-Whitney U test that {@code a} and {@code b} come from the same distribution.
+     * Small samples without ties use the exact distribution of U; otherwise the tie-corrected normal
+     * approximation with continuity correction.
+     */
+    static double mannWhitneyP(double[] a, double[] b) {
+        int n1 = a.length;
+        int n2 = b.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1.0d;
+        }
+        int n = n1 + n2;
+        double[] pooled = new double[n];
+        System.arraycopy(a, 0, pooled, 0, n1);
+        System.arraycopy(b, 0, pooled, n1, n2);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(pooled[x], pooled[y]));
+        double[] ranks = new double[n];
+        double tieTerm = 0.0d;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && pooled[order[j + 1]] == pooled[order[i]]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0d + 1.0d;
+            for (int k = i; k <= j; k++) {
+                ranks[order[k]] = rank;
+            }
+            int tied = j - i + 1;
+            tieTerm += (double) tied * tied * tied - tied;
+            i = j + 1;
+        }
+        double rankSum = 0.0d;
+        for (int i = 0; i < n1; i++) {
+            rankSum += ranks[i];
+        }
+        double u1 = rankSum - n1 * (n1 + 1) / 2.0d;
+        double u = Math.min(u1, (double) n1 * n2 - u1);
+        if (tieTerm == 0.0d && n1 <= EXACT_LIMIT && n2 <= EXACT_LIMIT) {
+            return Math.min(1.0d, 2.0d * exactCumulative(n1, n2, (int) u));
+        }
+        double mean = n1 * n2 / 2.0d;
+        double variance = n1 * n2 / 12.0d * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0.0d) {
+            return 1.0d;
+        }
+        double z = Math.max(0.0d, Math.abs(u1 - mean) - 0.5d) / Math.sqrt(variance);
+        return Math.min(1.0d, 2.0d * (1.0d - normalCdf(z)));
+    }
+
+    /**
+     * Smallest two-sided p-value the exact test can produce, i.e. whether {@code n1} vs {@code n2} repeats can
+     * show significance at all: three repeats per side never get below 0.1.
+     */
+    static double minimumMannWhitneyP(int n1, int n2) {
+        if (n1 == 0 || n2 == 0) {
+            return 1.0d;
+        }
+        double arrangements = 1.0d;
+        for (int i = 1; i <= n1; i++) {
+            arrangements = arrangements * (n2 + i) / i;
+        }
+        return Math.min(1.0d, 2.0d / arrangements);
+    }
+
+    /**
+     * Percentile bootstrap interval for the relative change of the median, {@code median(b) / median(a) - 1}.
+     * Returns {@code {low, high}}; the fixed seed keeps reports reproducible.
+     */
+    static double[] bootstrapRelativeMedianChange(double[] a, double[] b, double confidence, int resamples) {
+        SplittableRandom random = new SplittableRandom(0x5eedL);
+        double[] changes = new double[resamples];
+        double[] resampledA = new double[a.length];
+        double[] resampledB = new double[b.length];
+        for (int r = 0; r < resamples; r++) {
+            for (int i = 0; i < a.length; i++) {
+                resampledA[i] = a[random.nextInt(a.length)];
+            }
+            for (int i = 0; i < b.length; i++) {
+                resampledB[i] = b[random.nextInt(b.length)];
+            }
+            changes[r] = median(resampledB) / median(resampledA) - 1.0d;
+        }
+        Arrays.sort(changes);
+        double tail = (1.0d - confidence) / 2.0d;
+        int low = (int) Math.floor(tail * (resamples - 1));
+        int high = (int) Math.ceil((1.0d - tail) * (resamples - 1));
+        return new double[] {changes[low], changes[high]};
+    }
+
+    /**
+     * P(U <= u) under the null hypothesis, by counting the arrangements of the two samples.
+     */
+    private static double exactCumulative(int n1, int n2, int u) {
+        int max = n1 * n2;
+        // counts[i][j][k]: arrangements of i values from a and j from b with U = k.
+        double[][][] counts = new double[n1 + 1][n2 + 1][];
+        for (int i = 0; i <= n1; i++) {
+            for (int j = 0; j <= n2; j++) {
+                counts[i][j] = new double[i * j + 1];
+                if (i == 0 || j == 0) {
+                    counts[i][j][0] = 1.0d;
+                    continue;
+                }
+                for (int k = 0; k <= i * j; k++) {
+                    // The largest value belongs either to a (adding j to U) or to b.
+                    double fromA = k - j >= 0 && k - j <= (i - 1) * j ? counts[i - 1][j][k - j] : 0.0d;
+                    double fromB = k <= i * (j - 1) ? counts[i][j - 1][k] : 0.0d;
+                    counts[i][j][k] = fromA + fromB;
+                }
+            }
+        }
+        double total = 0.0d;
+        double below = 0.0d;
+        for (int k = 0; k <= max; k++) {
+            total += counts[n1][n2][k];
+            if (k <= u) {
+                below += counts[n1][n2][k];
+            }
+        }
+        return below / total;
+    }
+
+    /**
+     * Standard normal CDF via the Abramowitz-Stegun 7.1.26 approximation of erf (absolute error below 1.5e-7).
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2.0d);
+        double t = 1.0d / (1.0d + 0.3275911d * x);
+        double erf = 1.0d - t * (0.254829592d + t * (-0.284496736d + t * (1.421413741d
+                + t * (-1.453152027d + t * 1.061405429d)))) * Math.exp(-x * x);
+        return z >= 0.0d ? 0.5d * (1.0d + erf) : 0.5d * (1.0d - erf);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * What timing an operation adds to its measured latency: the interval between two {@link System#nanoTime()}
+ * reads includes the cost of one read on top of the operation. Calibrated once per JVM, on first use, as the
+ * median gap between back-to-back reads after enough of them for the JIT to compile the loop; the median keeps
+ * interrupts and preemption out of the figure. On platforms whose timer ticks more coarsely than a read costs,
+ * most gaps are zero and so is the overhead.
+ */
+final class TimerOverhead {
+
+    private static final int WARMUP_READS = 200_000;
+    private static final int SAMPLES = 100_001;
+
+    private TimerOverhead() {
+    }
+
+    static long nanos() {
+        return Calibration.NANOS;
+    }
+
+    static long calibrate() {
+        for (int i = 0; i < WARMUP_READS; i++) {
+            System.nanoTime();
+        }
+        long[] gaps = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long first = System.nanoTime();
+            gaps[i] = System.nanoTime() - first;
+        }
+        Arrays.sort(gaps);
+        return gaps[SAMPLES / 2];
+    }
+
+    private static final class Calibration {
+        static final long NANOS = calibrate();
+    }
+}
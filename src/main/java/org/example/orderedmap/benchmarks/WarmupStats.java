@@ -0,0 +1,11 @@
+package org.example.orderedmap.benchmarks;
+
+/**
+ * How a run warmed up. With steady-state detection, {@code windows} is the number of warmup windows executed
+ * and {@code steady} tells whether their throughput settled before {@link BenchmarkConfig#warmupDuration()}
+ * ran out; a fixed warmup is a single window that is never reported as steady.
+ */
+public record WarmupStats(long durationMillis, int windows, boolean steady) {
+
+    static final WarmupStats NONE = new WarmupStats(0L, 0, false);
+}
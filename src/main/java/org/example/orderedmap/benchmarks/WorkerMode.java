@@ -0,0 +1,84 @@
+package org.example.orderedmap.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kind of threads the benchmark workers run on.
+ */
+public enum WorkerMode {
+
+    /** One pooled platform thread per worker; the thread count should not exceed the core count by much. */
+    PLATFORM("platform"),
+    /**
+     * One virtual thread per worker, for oversubscribed runs with thousands of workers. Virtual threads need
+     * Java 21; older runtimes fall back to one small-stack platform thread per worker.
+     */
+    VIRTUAL("virtual");
+
+    /** Stack size of fallback threads, small enough for ten thousand of them. */
+    private static final long FALLBACK_STACK_BYTES = 256L * 1024L;
+
+    private static final MethodHandle VIRTUAL_EXECUTOR = lookupVirtualExecutor();
+
+    private final String id;
+
+    WorkerMode(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Whether {@link #VIRTUAL} workers really run on virtual threads in this JVM.
+     */
+    public static boolean virtualThreadsAvailable() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    ExecutorService newExecutor(int threadCount) {
+        if (this == PLATFORM) {
+            return Executors.newFixedThreadPool(threadCount);
+        }
+        if (VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invokeExact();
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to create virtual thread executor", t);
+            }
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(null, task, "worker-" + sequence.incrementAndGet(), FALLBACK_STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    public static WorkerMode fromId(String id) {
+        String normalized = id.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(mode -> mode.id.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown worker mode: " + id));
+    }
+
+    private static MethodHandle lookupVirtualExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
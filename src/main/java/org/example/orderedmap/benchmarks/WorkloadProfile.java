@@ -1,59 +1,454 @@
 package org.example.orderedmap.benchmarks;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.SplittableRandom;
 
 /**
- * Encapsulates the probability mix for a named workload.
+ * A named workload: the operation mix plus optional overrides for range widths, batch sizes, key selection and
+ * value size.
+ *
+ * <p>The built-in mixes are available as presets: the four default mixes plus {@code transfer}, which only
+ * issues transfers and needs maps with {@link org.example.orderedmap.api.MapCapability#ATOMIC_MULTI_KEY}; further workloads are declared in the JSON config under
+ * {@code workloadDefinitions}. Weights need not sum to one. They are normalised and compiled into a Walker/Vose
+ * alias table, so {@link #chooseOperation(SplittableRandom)} costs one random draw and at most one table lookup
+ * regardless of how many operation types have a non-zero weight.
+ *
+ * <p>A phased workload runs a schedule of other workloads instead of a mix of its own, see {@link #phases()}.
+ * Its weights are the phases' weights averaged over their durations and only describe it in reports.
  */
-public enum WorkloadProfile {
+public final class WorkloadProfile {
 
-    READ_HEAVY("read-heavy", 0.90, 0.05, 0.05, 0.0),
-    WRITE_HEAVY("write-heavy", 0.20, 0.40, 0.40, 0.0),
-    MIXED("mixed", 0.60, 0.20, 0.20, 0.0),
-    RANGE_HEAVY("range-heavy", 0.30, 0.10, 0.10, 0.50);
+    private static final OperationType[] OPERATIONS = OperationType.values();
+
+    public static final WorkloadProfile READ_HEAVY = preset("read-heavy", 0.90, 0.05, 0.05, 0.0);
+    public static final WorkloadProfile WRITE_HEAVY = preset("write-heavy", 0.20, 0.40, 0.40, 0.0);
+    public static final WorkloadProfile MIXED = preset("mixed", 0.60, 0.20, 0.20, 0.0);
+    public static final WorkloadProfile RANGE_HEAVY = preset("range-heavy", 0.30, 0.10, 0.10, 0.50);
+    public static final WorkloadProfile TRANSFER = builder("transfer").withWeight(OperationType.TRANSFER, 1.0).build();
+
+    /** Keys one transfer touches unless a workload sets its {@code transfer} batch size. */
+    static final int DEFAULT_TRANSFER_KEYS = 2;
+
+    private static final List<WorkloadProfile> DEFAULTS = List.of(READ_HEAVY, WRITE_HEAVY, MIXED, RANGE_HEAVY);
+    private static final List<WorkloadProfile> PRESETS = List.of(READ_HEAVY, WRITE_HEAVY, MIXED, RANGE_HEAVY,
+            TRANSFER);
 
     private final String id;
-    private final double[] cumulative;
+    private final double[] weights;
+    private final RangeWidth rangeWidth;
+    private final int[] batchSizes;
+    private final KeyDistribution keyDistribution;
+    private final Integer valueSize;
+    private final List<Phase> phases;
+    private final double[] aliasProbability;
+    private final OperationType[] aliasOperation;
 
-    WorkloadProfile(String id, double getWeight, double putWeight, double removeWeight, double rangeWeight) {
-        this.id = id;
-        double total = getWeight + putWeight + removeWeight + rangeWeight;
-        if (Math.abs(total - 1.0d) > 1e-9) {
-            throw new IllegalArgumentException("weights must sum to 1.0");
+    private WorkloadProfile(Builder builder) {
+        this.id = builder.id;
+        double total = Arrays.stream(builder.weights).sum();
+        this.weights = new double[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            weights[i] = builder.weights[i] / total;
         }
-        this.cumulative = new double[] {
-                getWeight,
-                getWeight + putWeight,
-                getWeight + putWeight + removeWeight,
-                1.0d
-        };
+        this.rangeWidth = builder.rangeWidth;
+        this.batchSizes = builder.batchSizes.clone();
+        this.keyDistribution = builder.keyDistribution;
+        this.valueSize = builder.valueSize;
+        this.phases = List.copyOf(builder.phases);
+        this.aliasProbability = new double[OPERATIONS.length];
+        this.aliasOperation = new OperationType[OPERATIONS.length];
+        buildAliasTable();
     }
 
     public String id() {
         return id;
     }
 
-    public OperationType chooseOperation(SplittableRandom random) {
-        double draw = random.nextDouble();
-        if (draw < cumulative[0]) {
-            return OperationType.GET;
-        }
-        if (draw < cumulative[1]) {
-            return OperationType.PUT;
+    /**
+     * Normalised probability of {@code operation}.
+     */
+    public double weight(OperationType operation) {
+        return weights[operation.ordinal()];
+    }
+
+    /**
+     * Range-width distribution, or {@code null} to use the fixed {@link BenchmarkConfig#rangeWidth()}.
+     */
+    public RangeWidth rangeWidth() {
+        return rangeWidth;
+    }
+
+    /**
+     * Number of consecutive keys one draw of {@code operation} touches; always at least one. For
+     * {@link OperationType#TRANSFER} it is the number of distinct keys each transfer moves value between, at
+     * least two.
+     */
+    public int batchSize(OperationType operation) {
+        return batchSizes[operation.ordinal()];
+    }
+
+    /**
+     * Key distribution for this workload, or {@code null} to use {@link BenchmarkConfig#keyDistribution()}.
+     */
+    public KeyDistribution keyDistribution() {
+        return keyDistribution;
+    }
+
+    /**
+     * Size in bytes of the values this workload puts, or {@code null} to use {@link BenchmarkConfig#valueSize()}.
+     */
+    public Integer valueSize() {
+        return valueSize;
+    }
+
+    /**
+     * The schedule of a phased workload, in the order the phases run; empty for a plain workload.
+     */
+    public List<Phase> phases() {
+        return phases;
+    }
+
+    public boolean isPhased() {
+        return !phases.isEmpty();
+    }
+
+    /**
+     * Total duration of the phases, which replaces {@link BenchmarkConfig#runDuration()} for a phased workload;
+     * zero for a plain one.
+     */
+    public Duration scheduleLength() {
+        return phases.stream().map(Phase::duration).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * Copy of this plain workload that draws its keys from {@code distribution}.
+     */
+    WorkloadProfile withKeyDistribution(KeyDistribution distribution) {
+        if (isPhased()) {
+            throw new IllegalArgumentException("phased workload " + id + " has no key distribution of its own");
         }
-        if (draw < cumulative[2]) {
-            return OperationType.REMOVE;
+        Builder builder = builder(id).withRangeWidth(rangeWidth).withKeyDistribution(distribution)
+                .withValueSize(valueSize);
+        for (OperationType operation : OPERATIONS) {
+            builder.withWeight(operation, weights[operation.ordinal()])
+                    .withBatchSize(operation, batchSizes[operation.ordinal()]);
         }
-        return OperationType.RANGE;
+        return builder.build();
+    }
+
+    /**
+     * Whether every run of this workload keeps the sum of the map's values: it issues transfers, which move
+     * value between keys, but no puts or removes, which create or destroy it.
+     */
+    public boolean conservesValues() {
+        return weight(OperationType.TRANSFER) > 0.0d && weight(OperationType.PUT) == 0.0d
+                && weight(OperationType.REMOVE) == 0.0d;
+    }
+
+    public boolean isPreset() {
+        return PRESETS.contains(this);
+    }
+
+    public OperationType chooseOperation(SplittableRandom random) {
+        double scaled = random.nextDouble() * OPERATIONS.length;
+        int column = (int) scaled;
+        return scaled - column < aliasProbability[column] ? OPERATIONS[column] : aliasOperation[column];
+    }
+
+    public static List<WorkloadProfile> presets() {
+        return PRESETS;
+    }
+
+    /**
+     * The presets a session runs when it names no workloads: all but {@code transfer}, which not every map
+     * supports.
+     */
+    public static List<WorkloadProfile> defaults() {
+        return DEFAULTS;
     }
 
     public static WorkloadProfile fromId(String id) {
         String normalized = id.toLowerCase(Locale.ROOT);
-        return Arrays.stream(values())
+        return PRESETS.stream()
                 .filter(profile -> profile.id.equals(normalized))
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Unknown workload profile: " + id));
     }
+
+    public static Builder builder(String id) {
+        return new Builder(id);
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+
+    /**
+     * Vose's alias method: every column holds its own operation with probability {@code aliasProbability} and
+     * otherwise defers to {@code aliasOperation}, so each column carries exactly {@code 1/n} of the mass.
+     */
+    private void buildAliasTable() {
+        int n = OPERATIONS.length;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n;
+            if (scaled[i] < 1.0d) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            aliasProbability[less] = scaled[less];
+            aliasOperation[less] = OPERATIONS[more];
+            scaled[more] = scaled[more] + scaled[less] - 1.0d;
+            if (scaled[more] < 1.0d) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever remains is within rounding error of a full column.
+        while (largeCount > 0) {
+            int column = large[--largeCount];
+            aliasProbability[column] = 1.0d;
+            aliasOperation[column] = OPERATIONS[column];
+        }
+        while (smallCount > 0) {
+            int column = small[--smallCount];
+            aliasProbability[column] = 1.0d;
+            aliasOperation[column] = OPERATIONS[column];
+        }
+    }
+
+    private static WorkloadProfile preset(String id, double get, double put, double remove, double range) {
+        return builder(id)
+                .withWeight(OperationType.GET, get)
+                .withWeight(OperationType.PUT, put)
+                .withWeight(OperationType.REMOVE, remove)
+                .withWeight(OperationType.RANGE, range)
+                .build();
+    }
+
+    public static final class Builder {
+        private final String id;
+        private final double[] weights = new double[OPERATIONS.length];
+        private final int[] batchSizes = new int[OPERATIONS.length];
+        private RangeWidth rangeWidth;
+        private KeyDistribution keyDistribution;
+        private Integer valueSize;
+        private List<Phase> phases = List.of();
+
+        private Builder(String id) {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("workload id must not be empty");
+            }
+            this.id = id.trim().toLowerCase(Locale.ROOT);
+            Arrays.fill(batchSizes, 1);
+            batchSizes[OperationType.TRANSFER.ordinal()] = DEFAULT_TRANSFER_KEYS;
+        }
+
+        public Builder withWeight(OperationType operation, double weight) {
+            if (!(weight >= 0.0d) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("weight for " + operation + " must be a non-negative number");
+            }
+            weights[operation.ordinal()] = weight;
+            return this;
+        }
+
+        public Builder withWeights(Map<OperationType, Double> weights) {
+            weights.forEach(this::withWeight);
+            return this;
+        }
+
+        public Builder withRangeWidth(RangeWidth rangeWidth) {
+            this.rangeWidth = rangeWidth;
+            return this;
+        }
+
+        public Builder withBatchSize(OperationType operation, int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batch size for " + operation + " must be positive");
+            }
+            if (operation == OperationType.TRANSFER && batchSize < DEFAULT_TRANSFER_KEYS) {
+                throw new IllegalArgumentException("a transfer needs at least " + DEFAULT_TRANSFER_KEYS + " keys");
+            }
+            batchSizes[operation.ordinal()] = batchSize;
+            return this;
+        }
+
+        public Builder withKeyDistribution(KeyDistribution keyDistribution) {
+            this.keyDistribution = keyDistribution;
+            return this;
+        }
+
+        /**
+         * Value size in bytes, zero for boxed ints, or {@code null} to inherit the session's.
+         */
+        public Builder withValueSize(Integer valueSize) {
+            if (valueSize != null && valueSize < 0) {
+                throw new IllegalArgumentException("value size of workload " + id + " must not be negative");
+            }
+            this.valueSize = valueSize;
+            return this;
+        }
+
+        /**
+         * Makes this a phased workload running {@code phases} in order. Its weights are derived from the phases,
+         * so it takes no weights, batch sizes, range width, key distribution or value size of its own.
+         */
+        public Builder withPhases(List<Phase> phases) {
+            if (phases.isEmpty()) {
+                throw new IllegalArgumentException("phased workload " + id + " needs at least one phase");
+            }
+            this.phases = List.copyOf(phases);
+            return this;
+        }
+
+        public WorkloadProfile build() {
+            if (!phases.isEmpty()) {
+                if (Arrays.stream(weights).sum() > 0.0d || rangeWidth != null || keyDistribution != null
+                        || valueSize != null || !Arrays.equals(batchSizes, new Builder(id).batchSizes)) {
+                    throw new IllegalArgumentException("phased workload " + id
+                            + " takes its mix from its phases");
+                }
+                double total = phases.stream().mapToLong(phase -> phase.duration().toNanos()).sum();
+                for (Phase phase : phases) {
+                    for (OperationType operation : OPERATIONS) {
+                        weights[operation.ordinal()] += phase.workload().weight(operation)
+                                * (phase.duration().toNanos() / total);
+                    }
+                }
+            }
+            if (Arrays.stream(weights).sum() <= 0.0d) {
+                throw new IllegalArgumentException("workload " + id + " needs at least one positive weight");
+            }
+            return new WorkloadProfile(this);
+        }
+    }
+
+    /**
+     * One step of a phased workload's schedule: {@code workload} runs for {@code duration}. The workload is a
+     * plain one and brings its own key distribution and value size, if any.
+     */
+    public record Phase(Duration duration, WorkloadProfile workload) {
+
+        public Phase {
+            Objects.requireNonNull(duration, "duration");
+            Objects.requireNonNull(workload, "workload");
+            if (duration.isZero() || duration.isNegative()) {
+                throw new IllegalArgumentException("phase duration must be positive");
+            }
+            if (workload.isPhased()) {
+                throw new IllegalArgumentException("phase workload " + workload.id() + " is itself phased");
+            }
+        }
+    }
+
+    /**
+     * Parses operation names ({@code get}, {@code put}, {@code remove}, {@code range}, {@code transfer}) used as
+     * JSON map keys.
+     */
+    static OperationType parseOperation(String name) {
+        try {
+            return OperationType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown operation type: " + name, ex);
+        }
+    }
+
+    static Map<OperationType, Double> parseWeights(Map<String, Double> weights) {
+        Map<OperationType, Double> parsed = new EnumMap<>(OperationType.class);
+        Objects.requireNonNull(weights, "weights").forEach((name, weight) -> parsed.put(parseOperation(name), weight));
+        return parsed;
+    }
+
+    /**
+     * Distribution of range query widths: {@code N} (fixed), {@code uniform:min:max} or {@code exponential:mean}.
+     * Widths are at least one; the runner clips ranges at the end of the key space.
+     */
+    public static final class RangeWidth {
+
+        private enum Kind { FIXED, UNIFORM, EXPONENTIAL }
+
+        private final Kind kind;
+        private final int min;
+        private final int max;
+        private final double mean;
+
+        private RangeWidth(Kind kind, int min, int max, double mean) {
+            this.kind = kind;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+        }
+
+        public static RangeWidth fixed(int width) {
+            if (width <= 0) {
+                throw new IllegalArgumentException("range width must be positive");
+            }
+            return new RangeWidth(Kind.FIXED, width, width, width);
+        }
+
+        public static RangeWidth parse(String value) {
+            String[] parts = value.trim().toLowerCase(Locale.ROOT).split(":");
+            try {
+                if (parts.length == 1) {
+                    return fixed(Integer.parseInt(parts[0]));
+                }
+                if ("uniform".equals(parts[0]) && parts.length == 3) {
+                    int min = Integer.parseInt(parts[1]);
+                    int max = Integer.parseInt(parts[2]);
+                    if (min <= 0 || max < min) {
+                        throw new IllegalArgumentException("uniform range width needs 0 < min <= max: " + value);
+                    }
+                    return new RangeWidth(Kind.UNIFORM, min, max, (min + max) / 2.0d);
+                }
+                if ("exponential".equals(parts[0]) && parts.length == 2) {
+                    double mean = Double.parseDouble(parts[1]);
+                    if (!(mean >= 1.0d)) {
+                        throw new IllegalArgumentException("exponential range width mean must be >= 1: " + value);
+                    }
+                    return new RangeWidth(Kind.EXPONENTIAL, 1, Integer.MAX_VALUE, mean);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid range width: " + value, ex);
+            }
+            throw new IllegalArgumentException("Unknown range width: " + value);
+        }
+
+        public int next(SplittableRandom random) {
+            return switch (kind) {
+                case FIXED -> min;
+                case UNIFORM -> min == max ? min : min + random.nextInt(max - min + 1);
+                case EXPONENTIAL -> (int) Math.min(Integer.MAX_VALUE, 1L + (long) (-mean * Math.log(1.0d - random.nextDouble())));
+            };
+        }
+
+        public String spec() {
+            return switch (kind) {
+                case FIXED -> Integer.toString(min);
+                case UNIFORM -> "uniform:" + min + ":" + max;
+                case EXPONENTIAL -> "exponential:" + (mean == Math.rint(mean) ? Long.toString((long) mean) : Double.toString(mean));
+            };
+        }
+
+        @Override
+        public String toString() {
+            return spec();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package org.example.orderedmap.locking;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Provides {@link GlobalLockOrderedMap} as {@code global}.
+ */
+public final class GlobalLockMapProvider implements OrderedMapProvider {
+
+    @Override
+    public String id() {
+        return "global";
+    }
+
+    @Override
+    public Set<MapCapability> capabilities() {
+        return EnumSet.of(MapCapability.CUSTOM_ORDER, MapCapability.BULK_LOAD, MapCapability.ATOMIC_RANGE,
+                MapCapability.ATOMIC_MULTI_KEY);
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new GlobalLockOrderedMap<>(comparator);
+    }
+}
@@ -1,11 +1,17 @@
 package org.example.orderedmap.locking;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
 
 import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.profiling.LockWaitEvent;
 
 /**
  * Coarse-grained implementation that protects a {@link TreeMap} with a single read/write lock.
@@ -19,13 +25,20 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
         this.delegate = new TreeMap<>();
     }
 
+    /**
+     * Orders keys by {@code comparator}, or naturally when it is {@code null}.
+     */
+    public GlobalLockOrderedMap(Comparator<? super K> comparator) {
+        this.delegate = new TreeMap<>(comparator);
+    }
+
     public GlobalLockOrderedMap(TreeMap<K, V> backing) {
         this.delegate = Objects.requireNonNull(backing, "backing");
     }
 
     @Override
     public V get(K key) {
-        lock.readLock().lock();
+        LockWaitEvent.lock(lock.readLock(), false, LockWaitEvent.NO_SHARD);
         try {
             return delegate.get(key);
         } finally {
@@ -35,7 +48,7 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V put(K key, V value) {
-        lock.writeLock().lock();
+        LockWaitEvent.lock(lock.writeLock(), true, LockWaitEvent.NO_SHARD);
         try {
             return delegate.put(key, value);
         } finally {
@@ -45,7 +58,7 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V remove(K key) {
-        lock.writeLock().lock();
+        LockWaitEvent.lock(lock.writeLock(), true, LockWaitEvent.NO_SHARD);
         try {
             return delegate.remove(key);
         } finally {
@@ -55,7 +68,7 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-        lock.readLock().lock();
+        LockWaitEvent.lock(lock.readLock(), false, LockWaitEvent.NO_SHARD);
         try {
             if (fromKey == null && toKey == null) {
                 return new TreeMap<>(delegate);
@@ -72,9 +85,48 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
         }
     }
 
+    @Override
+    public void atomicUpdate(List<K> keys, UnaryOperator<List<V>> update) {
+        LockWaitEvent.lock(lock.writeLock(), true, LockWaitEvent.NO_SHARD);
+        try {
+            List<V> current = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                current.add(delegate.get(key));
+            }
+            List<V> updated = update.apply(current);
+            if (updated.size() != keys.size()) {
+                throw new IllegalArgumentException("Update returned " + updated.size() + " values for "
+                        + keys.size() + " keys");
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                if (updated.get(i) == null) {
+                    delegate.remove(keys.get(i));
+                } else {
+                    delegate.put(keys.get(i), updated.get(i));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * {@link TreeMap#putAll} builds an empty tree from sorted input in linear time, already balanced, instead of
+     * rebalancing after every insert.
+     */
+    @Override
+    public void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        LockWaitEvent.lock(lock.writeLock(), true, LockWaitEvent.NO_SHARD);
+        try {
+            delegate.putAll(sorted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public int size() {
-        lock.readLock().lock();
+        LockWaitEvent.lock(lock.readLock(), false, LockWaitEvent.NO_SHARD);
         try {
             return delegate.size();
         } finally {
@@ -84,7 +136,7 @@ public class GlobalLockOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public void clear() {
-        lock.writeLock().lock();
+        LockWaitEvent.lock(lock.writeLock(), true, LockWaitEvent.NO_SHARD);
         try {
             delegate.clear();
         } finally {
@@ -0,0 +1,37 @@
+package org.example.orderedmap.locking;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Provides {@link ShardedOrderedMap} as {@code sharded}; {@code shards} sets the power-of-two shard count.
+ */
+public final class ShardedMapProvider implements OrderedMapProvider {
+
+    @Override
+    public String id() {
+        return "sharded";
+    }
+
+    @Override
+    public Map<String, String> parameters() {
+        return Map.of("shards", Integer.toString(ShardedOrderedMap.DEFAULT_SHARDS));
+    }
+
+    @Override
+    public Set<MapCapability> capabilities() {
+        return EnumSet.of(MapCapability.CUSTOM_ORDER, MapCapability.BULK_LOAD, MapCapability.ATOMIC_RANGE,
+                MapCapability.ATOMIC_MULTI_KEY);
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new ShardedOrderedMap<>(Integer.parseInt(parameters.get("shards")), comparator);
+    }
+}
@@ -1,41 +1,61 @@
 package org.example.orderedmap.locking;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
 import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.SortedEntries;
+import org.example.orderedmap.profiling.LockWaitEvent;
 
 /**
  * Fine-grained implementation that shards a {@link TreeMap} across multiple locks based on key hash.
  */
 public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
 
+    public static final int DEFAULT_SHARDS = 16;
+
     private final List<Shard<K, V>> shards;
     private final int mask;
+    private final Comparator<? super K> comparator;
 
     public ShardedOrderedMap(int shardCount) {
+        this(shardCount, null);
+    }
+
+    /**
+     * Orders keys by {@code comparator}, or naturally when it is {@code null}. Keys are still assigned to shards
+     * by {@link Object#hashCode()}, so keys the comparator considers equal must hash alike; arrays, which hash by
+     * identity, only work when each key is always passed as the same instance.
+     */
+    public ShardedOrderedMap(int shardCount, Comparator<? super K> comparator) {
         if (Integer.bitCount(shardCount) != 1) {
             throw new IllegalArgumentException("shardCount must be a power-of-two value");
         }
         this.mask = shardCount - 1;
+        this.comparator = comparator;
         this.shards = new ArrayList<>(shardCount);
         for (int i = 0; i < shardCount; i++) {
-            shards.add(new Shard<>());
+            shards.add(new Shard<>(i, comparator));
         }
     }
 
     public ShardedOrderedMap() {
-        this(16);
+        this(DEFAULT_SHARDS);
     }
 
     @Override
     public V get(K key) {
         Shard<K, V> shard = shardFor(key);
-        shard.lock.readLock().lock();
+        LockWaitEvent.lock(shard.lock.readLock(), false, shard.index);
         try {
             return shard.map.get(key);
         } finally {
@@ -47,7 +67,7 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
     public V put(K key, V value) {
         Objects.requireNonNull(key, "key");
         Shard<K, V> shard = shardFor(key);
-        shard.lock.writeLock().lock();
+        LockWaitEvent.lock(shard.lock.writeLock(), true, shard.index);
         try {
             return shard.map.put(key, value);
         } finally {
@@ -58,7 +78,7 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
     @Override
     public V remove(K key) {
         Shard<K, V> shard = shardFor(key);
-        shard.lock.writeLock().lock();
+        LockWaitEvent.lock(shard.lock.writeLock(), true, shard.index);
         try {
             return shard.map.remove(key);
         } finally {
@@ -70,10 +90,10 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
     public NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
         List<Shard<K, V>> locks = this.shards;
         for (Shard<K, V> shard : locks) {
-            shard.lock.readLock().lock();
+            LockWaitEvent.lock(shard.lock.readLock(), false, shard.index);
         }
         try {
-            TreeMap<K, V> result = new TreeMap<>();
+            TreeMap<K, V> result = new TreeMap<>(comparator);
             for (Shard<K, V> shard : locks) {
                 NavigableMap<K, V> view = slice(shard.map, fromKey, fromInclusive, toKey, toInclusive);
                 result.putAll(view);
@@ -86,11 +106,87 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
         }
     }
 
+    /**
+     * Write-locks the shards the keys fall in, each once and in index order, the order {@link #clear()} takes
+     * them in too, so two updates that share shards cannot deadlock.
+     */
+    @Override
+    public void atomicUpdate(List<K> keys, UnaryOperator<List<V>> update) {
+        List<Shard<K, V>> keyShards = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            keyShards.add(shardFor(key));
+        }
+        int[] locked = keyShards.stream().mapToInt(shard -> shard.index).distinct().sorted().toArray();
+        for (int index : locked) {
+            Shard<K, V> shard = shards.get(index);
+            LockWaitEvent.lock(shard.lock.writeLock(), true, shard.index);
+        }
+        try {
+            List<V> current = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                current.add(keyShards.get(i).map.get(keys.get(i)));
+            }
+            List<V> updated = update.apply(current);
+            if (updated.size() != keys.size()) {
+                throw new IllegalArgumentException("Update returned " + updated.size() + " values for "
+                        + keys.size() + " keys");
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                if (updated.get(i) == null) {
+                    keyShards.get(i).map.remove(keys.get(i));
+                } else {
+                    keyShards.get(i).map.put(keys.get(i), updated.get(i));
+                }
+            }
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                shards.get(locked[i]).lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Splits the input by shard in one pass, which keeps every shard's slice sorted, then builds the shards in
+     * parallel, each from its slice in linear time. Input in another order falls back to individual puts.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        if (!Objects.equals(sorted.comparator(), comparator)) {
+            OrderedMap.super.bulkLoad(sorted);
+            return;
+        }
+        List<List<K>> keys = new ArrayList<>(shards.size());
+        List<List<V>> values = new ArrayList<>(shards.size());
+        int expected = sorted.size() / shards.size() + 1;
+        for (int i = 0; i < shards.size(); i++) {
+            keys.add(new ArrayList<>(expected));
+            values.add(new ArrayList<>(expected));
+        }
+        for (Map.Entry<K, ? extends V> entry : sorted.entrySet()) {
+            int index = shardFor(entry.getKey()).index;
+            keys.get(index).add(entry.getKey());
+            values.get(index).add(entry.getValue());
+        }
+        IntStream.range(0, shards.size()).parallel().forEach(index -> {
+            Shard<K, V> shard = shards.get(index);
+            List<K> shardKeys = keys.get(index);
+            SortedEntries<K, V> slice = new SortedEntries<>((K[]) shardKeys.toArray(),
+                    (V[]) values.get(index).toArray(), shardKeys.size(), comparator);
+            LockWaitEvent.lock(shard.lock.writeLock(), true, shard.index);
+            try {
+                shard.map.putAll(slice);
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        });
+    }
+
     @Override
     public int size() {
         int total = 0;
         for (Shard<K, V> shard : shards) {
-            shard.lock.readLock().lock();
+            LockWaitEvent.lock(shard.lock.readLock(), false, shard.index);
         }
         try {
             for (Shard<K, V> shard : shards) {
@@ -107,7 +203,7 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
     @Override
     public void clear() {
         for (Shard<K, V> shard : shards) {
-            shard.lock.writeLock().lock();
+            LockWaitEvent.lock(shard.lock.writeLock(), true, shard.index);
         }
         try {
             for (Shard<K, V> shard : shards) {
@@ -148,6 +244,12 @@ public class ShardedOrderedMap<K, V> implements OrderedMap<K, V> {
 
     private static final class Shard<K, V> {
         private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-        private final TreeMap<K, V> map = new TreeMap<>();
+        private final TreeMap<K, V> map;
+        private final int index;
+
+        private Shard(int index, Comparator<? super K> comparator) {
+            this.index = index;
+            this.map = new TreeMap<>(comparator);
+        }
     }
 }
@@ -0,0 +1,54 @@
+package org.example.orderedmap.profiling;
+
+import java.util.concurrent.locks.Lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for time spent blocked acquiring one of the lock-based maps' locks. The recorded stack trace
+ * identifies the map operation that waited.
+ */
+@Name(LockWaitEvent.NAME)
+@Label("Map Lock Wait")
+@Category({"Ordered Map", "Locking"})
+@Description("Time a map operation spent blocked acquiring a read or write lock")
+public final class LockWaitEvent extends Event {
+
+    public static final String NAME = "orderedmap.LockWait";
+
+    /** Shard index used by maps that have a single lock. */
+    public static final int NO_SHARD = -1;
+
+    @Label("Exclusive")
+    boolean exclusive;
+
+    @Label("Shard")
+    int shard;
+
+    /**
+     * Acquires {@code lock}, timing the wait when a recording has the event enabled. With the event disabled this
+     * is a plain {@link Lock#lock()}; when enabled an uncontended {@link Lock#tryLock()} skips the event.
+     */
+    public static void lock(Lock lock, boolean exclusive, int shard) {
+        LockWaitEvent event = new LockWaitEvent();
+        if (!event.isEnabled()) {
+            lock.lock();
+            return;
+        }
+        if (lock.tryLock()) {
+            return;
+        }
+        event.begin();
+        lock.lock();
+        event.end();
+        if (event.shouldCommit()) {
+            event.exclusive = exclusive;
+            event.shard = shard;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.orderedmap.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one range query issued by the benchmark, with its requested width and the number of entries
+ * it returned.
+ */
+@Name(RangeQueryEvent.NAME)
+@Label("Range Query")
+@Category({"Ordered Map", "Queries"})
+@Description("A range query and the number of entries it copied out of the map")
+@StackTrace(false)
+public final class RangeQueryEvent extends Event {
+
+    public static final String NAME = "orderedmap.RangeQuery";
+
+    @Label("Requested Width")
+    int width;
+
+    @Label("Result Size")
+    int size;
+
+    /**
+     * Ends the timing started by {@link #begin()} and commits the event if its recording wants it.
+     */
+    public void complete(int width, int size) {
+        end();
+        if (shouldCommit()) {
+            this.width = width;
+            this.size = size;
+            commit();
+        }
+    }
+}
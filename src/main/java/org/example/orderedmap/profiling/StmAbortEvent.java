@@ -0,0 +1,48 @@
+package org.example.orderedmap.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import org.example.orderedmap.api.AbortCause;
+import org.example.orderedmap.api.MapOperation;
+
+/**
+ * JFR event for a transaction attempt that was rolled back by one of the STM maps.
+ */
+@Name(StmAbortEvent.NAME)
+@Label("STM Abort")
+@Category({"Ordered Map", "STM"})
+@Description("A transactional map operation attempt that was rolled back")
+@StackTrace(false)
+public final class StmAbortEvent extends Event {
+
+    public static final String NAME = "orderedmap.StmAbort";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Cause")
+    String cause;
+
+    @Label("Wasted Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wastedNanos;
+
+    /**
+     * Commits an abort event if a recording has the event enabled; otherwise costs one flag check.
+     */
+    public static void emit(MapOperation operation, AbortCause cause, long wastedNanos) {
+        StmAbortEvent event = new StmAbortEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.cause = cause.name();
+            event.wastedNanos = wastedNanos;
+            event.commit();
+        }
+    }
+}
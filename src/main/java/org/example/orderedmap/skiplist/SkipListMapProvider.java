@@ -0,0 +1,31 @@
+package org.example.orderedmap.skiplist;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Provides {@link SkipListOrderedMap} as {@code skiplist}. Its range queries copy a weakly consistent view.
+ */
+public final class SkipListMapProvider implements OrderedMapProvider {
+
+    @Override
+    public String id() {
+        return "skiplist";
+    }
+
+    @Override
+    public Set<MapCapability> capabilities() {
+        return EnumSet.of(MapCapability.CUSTOM_ORDER, MapCapability.BULK_LOAD);
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new SkipListOrderedMap<>(comparator);
+    }
+}
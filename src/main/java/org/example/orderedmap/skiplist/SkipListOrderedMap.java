@@ -1,7 +1,10 @@
 package org.example.orderedmap.skiplist;
 
+import java.util.Comparator;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
@@ -12,12 +15,22 @@ import org.example.orderedmap.api.OrderedMap;
  */
 public class SkipListOrderedMap<K, V> implements OrderedMap<K, V> {
 
-    private final ConcurrentSkipListMap<K, V> delegate;
+    /**
+     * Replaced only by {@link #bulkLoad}, which runs before the map is shared with other threads.
+     */
+    private ConcurrentSkipListMap<K, V> delegate;
 
     public SkipListOrderedMap() {
         this.delegate = new ConcurrentSkipListMap<>();
     }
 
+    /**
+     * Orders keys by {@code comparator}, or naturally when it is {@code null}.
+     */
+    public SkipListOrderedMap(Comparator<? super K> comparator) {
+        this.delegate = new ConcurrentSkipListMap<>(comparator);
+    }
+
     @Override
     public V get(K key) {
         return delegate.get(key);
@@ -37,15 +50,40 @@ public class SkipListOrderedMap<K, V> implements OrderedMap<K, V> {
     @Override
     public NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
         if (fromKey == null && toKey == null) {
-            return new TreeMap<>(delegate);
+            return copyOf(delegate);
         }
         if (fromKey == null) {
-            return new TreeMap<>(delegate.headMap(toKey, toInclusive));
+            return copyOf(delegate.headMap(toKey, toInclusive));
         }
         if (toKey == null) {
-            return new TreeMap<>(delegate.tailMap(fromKey, fromInclusive));
+            return copyOf(delegate.tailMap(fromKey, fromInclusive));
+        }
+        return copyOf(delegate.subMap(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    /**
+     * Copies a live view entry by entry. {@code new TreeMap<>(SortedMap)} sizes its build from {@code size()}
+     * and then iterates, which throws when a concurrent remove shrinks the view in between.
+     */
+    private NavigableMap<K, V> copyOf(NavigableMap<K, V> view) {
+        TreeMap<K, V> copy = new TreeMap<>(delegate.comparator());
+        for (Map.Entry<K, V> entry : view.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    /**
+     * {@link ConcurrentSkipListMap#putAll} inserts one key at a time, but its sorted-map constructor links the
+     * base level in order and draws the index levels in the same pass, so an empty map is rebuilt that way.
+     */
+    @Override
+    public void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        if (delegate.isEmpty() && Objects.equals(sorted.comparator(), delegate.comparator())) {
+            delegate = new ConcurrentSkipListMap<>(sorted);
+        } else {
+            delegate.putAll(sorted);
         }
-        return new TreeMap<>(delegate.subMap(fromKey, fromInclusive, toKey, toInclusive));
     }
 
     @Override
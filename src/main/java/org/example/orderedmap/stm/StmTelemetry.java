@@ -0,0 +1,109 @@
+package org.example.orderedmap.stm;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.orderedmap.api.AbortCause;
+import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
+import org.example.orderedmap.profiling.StmAbortEvent;
+
+/**
+ * Contention-friendly recorder for STM commit/abort statistics shared by the transactional map variants.
+ */
+public final class StmTelemetry {
+
+    private final LongAdder[] commitsByOperation = adders(MapOperation.values().length);
+    private final LongAdder[] abortsByOperation = adders(MapOperation.values().length);
+    private final LongAdder[] abortsByCause = adders(AbortCause.values().length);
+    private final LongAdder[] retryHistogram = adders(MapMetrics.RETRY_BUCKET_LABELS.length);
+    private final LongAdder abortedNanos = new LongAdder();
+    private final AtomicLong maxRetries = new AtomicLong();
+
+    public void recordCommit(MapOperation operation, int retries) {
+        commitsByOperation[operation.ordinal()].increment();
+        retryHistogram[MapMetrics.retryBucket(retries)].increment();
+        updateMaxRetries(retries);
+    }
+
+    public void recordAbort(MapOperation operation, AbortCause cause, long wastedNanos) {
+        abortsByOperation[operation.ordinal()].increment();
+        abortsByCause[cause.ordinal()].increment();
+        abortedNanos.add(wastedNanos);
+        StmAbortEvent.emit(operation, cause, wastedNanos);
+    }
+
+    public long commitCount() {
+        return sum(commitsByOperation);
+    }
+
+    public long abortCount() {
+        return sum(abortsByOperation);
+    }
+
+    public long maxRetries() {
+        return maxRetries.get();
+    }
+
+    public MapMetrics snapshot() {
+        return new MapMetrics(
+                commitCount(),
+                abortCount(),
+                maxRetries.get(),
+                values(abortsByCause),
+                values(commitsByOperation),
+                values(abortsByOperation),
+                values(retryHistogram),
+                abortedNanos.sum()
+        );
+    }
+
+    public void reset() {
+        resetAll(commitsByOperation);
+        resetAll(abortsByOperation);
+        resetAll(abortsByCause);
+        resetAll(retryHistogram);
+        abortedNanos.reset();
+        maxRetries.set(0L);
+    }
+
+    private void updateMaxRetries(int retries) {
+        long current;
+        do {
+            current = maxRetries.get();
+            if (retries <= current) {
+                return;
+            }
+        } while (!maxRetries.compareAndSet(current, retries));
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0L;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static long[] values(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static void resetAll(LongAdder[] adders) {
+        for (LongAdder adder : adders) {
+            adder.reset();
+        }
+    }
+}
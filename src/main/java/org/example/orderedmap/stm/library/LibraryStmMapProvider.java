@@ -0,0 +1,37 @@
+package org.example.orderedmap.stm.library;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Provides {@link LibraryStmOrderedMap} as {@code stm}; {@code profile} names a {@link LibraryStmProfile}.
+ */
+public final class LibraryStmMapProvider implements OrderedMapProvider {
+
+    @Override
+    public String id() {
+        return "stm";
+    }
+
+    @Override
+    public Map<String, String> parameters() {
+        return Map.of("profile", LibraryStmProfile.DEFAULT.id());
+    }
+
+    @Override
+    public Set<MapCapability> capabilities() {
+        return EnumSet.of(MapCapability.CUSTOM_ORDER, MapCapability.BULK_LOAD, MapCapability.ATOMIC_RANGE,
+                MapCapability.ATOMIC_MULTI_KEY, MapCapability.TRANSACTIONAL);
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new LibraryStmOrderedMap<>(LibraryStmProfile.fromId(parameters.get("profile")), comparator);
+    }
+}
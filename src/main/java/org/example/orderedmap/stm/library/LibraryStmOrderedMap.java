@@ -1,14 +1,27 @@
 package org.example.orderedmap.stm.library;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
 
+import org.example.orderedmap.api.AbortCause;
 import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
 import org.example.orderedmap.api.OrderedMap;
-import static org.multiverse.api.StmUtils.atomic;
+import org.example.orderedmap.api.SortedEntries;
+import org.example.orderedmap.stm.StmTelemetry;
 import static org.multiverse.api.StmUtils.newTxnRef;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
 import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.exceptions.SpeculativeConfigurationError;
 import org.multiverse.api.references.TxnRef;
 
 /**
@@ -16,11 +29,37 @@ import org.multiverse.api.references.TxnRef;
  */
 public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
-    private final ConcurrentSkipListMap<K, TxnRef<V>> store = new ConcurrentSkipListMap<>();
+    /**
+     * Replaced only by {@link #bulkLoad}, which runs before the map is shared with other threads.
+     */
+    private ConcurrentSkipListMap<K, TxnRef<V>> store;
+    private final StmTelemetry telemetry = new StmTelemetry();
+    private final TxnExecutor pointReadExecutor;
+    private final TxnExecutor scanExecutor;
+    private final TxnExecutor writeExecutor;
+
+    public LibraryStmOrderedMap() {
+        this(LibraryStmProfile.DEFAULT);
+    }
+
+    public LibraryStmOrderedMap(LibraryStmProfile profile) {
+        this(profile, null);
+    }
+
+    /**
+     * Orders keys by {@code comparator}, or naturally when it is {@code null}.
+     */
+    public LibraryStmOrderedMap(LibraryStmProfile profile, Comparator<? super K> comparator) {
+        Objects.requireNonNull(profile, "profile");
+        this.store = new ConcurrentSkipListMap<>(comparator);
+        this.pointReadExecutor = profile.pointReadExecutor();
+        this.scanExecutor = profile.scanExecutor();
+        this.writeExecutor = profile.writeExecutor();
+    }
 
     @Override
     public V get(K key) {
-        return runAtomic(txn -> {
+        return runAtomic(MapOperation.GET, pointReadExecutor, txn -> {
             TxnRef<V> ref = store.get(key);
             if (ref == null) {
                 return null;
@@ -31,7 +70,7 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V put(K key, V value) {
-        return runAtomic(txn -> {
+        return runAtomic(MapOperation.PUT, writeExecutor, txn -> {
             TxnRef<V> ref = ensureRef(key);
             V previous = ref.get(txn);
             ref.set(txn, value);
@@ -41,7 +80,7 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V remove(K key) {
-        return runAtomic(txn -> {
+        return runAtomic(MapOperation.REMOVE, writeExecutor, txn -> {
             TxnRef<V> ref = store.get(key);
             if (ref == null) {
                 return null;
@@ -52,10 +91,32 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
         });
     }
 
+    @Override
+    public void atomicUpdate(List<K> keys, UnaryOperator<List<V>> update) {
+        runAtomic(MapOperation.ATOMIC_UPDATE, writeExecutor, txn -> {
+            List<TxnRef<V>> refs = new ArrayList<>(keys.size());
+            List<V> current = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                TxnRef<V> ref = ensureRef(key);
+                refs.add(ref);
+                current.add(ref.get(txn));
+            }
+            List<V> updated = update.apply(current);
+            if (updated.size() != keys.size()) {
+                throw new IllegalArgumentException("Update returned " + updated.size() + " values for "
+                        + keys.size() + " keys");
+            }
+            for (int i = 0; i < refs.size(); i++) {
+                refs.get(i).set(txn, updated.get(i));
+            }
+            return null;
+        });
+    }
+
     @Override
     public NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-        return runAtomic(txn -> {
-            TreeMap<K, V> snapshot = new TreeMap<>();
+        return runAtomic(MapOperation.RANGE, scanExecutor, txn -> {
+            TreeMap<K, V> snapshot = new TreeMap<>(store.comparator());
             NavigableMap<K, TxnRef<V>> view = selectRange(fromKey, fromInclusive, toKey, toInclusive);
             for (var entry : view.entrySet()) {
                 V value = entry.getValue().get(txn);
@@ -67,9 +128,32 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
         });
     }
 
+    /**
+     * Creates the references directly, already holding their value, and builds the index in one sorted pass
+     * instead of running a transaction per key. A non-empty map, or input in another order, falls back to
+     * transactional puts.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        if (!store.isEmpty() || !Objects.equals(sorted.comparator(), store.comparator())) {
+            OrderedMap.super.bulkLoad(sorted);
+            return;
+        }
+        Object[] keys = new Object[sorted.size()];
+        TxnRef<V>[] refs = (TxnRef<V>[]) new TxnRef<?>[keys.length];
+        int index = 0;
+        for (Map.Entry<K, ? extends V> entry : sorted.entrySet()) {
+            keys[index] = entry.getKey();
+            refs[index] = newTxnRef(entry.getValue());
+            index++;
+        }
+        store = new ConcurrentSkipListMap<>(new SortedEntries<>((K[]) keys, refs, keys.length, store.comparator()));
+    }
+
     @Override
     public int size() {
-        return runAtomic(txn -> {
+        return runAtomic(MapOperation.SIZE, scanExecutor, txn -> {
             int count = 0;
             for (TxnRef<V> ref : store.values()) {
                 V value = ref.get(txn);
@@ -83,18 +167,19 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public void clear() {
-        runAtomic(txn -> {
+        runAtomic(MapOperation.CLEAR, writeExecutor, txn -> {
             for (TxnRef<V> ref : store.values()) {
                 ref.set(txn, null);
             }
             return null;
         });
         store.clear();
+        telemetry.reset();
     }
 
     @Override
     public MapMetrics snapshotMetrics() {
-        return MapMetrics.empty();
+        return telemetry.snapshot();
     }
 
     @Override
@@ -125,7 +210,49 @@ public class LibraryStmOrderedMap<K, V> implements OrderedMap<K, V> {
         return store.subMap(fromKey, fromInclusive, toKey, toInclusive);
     }
 
-    private <T> T runAtomic(TxnCallable<T> callable) {
-        return atomic(callable);
+    private <T> T runAtomic(MapOperation operation, TxnExecutor executor, TxnCallable<T> callable) {
+        TrackedCallable<T> tracked = new TrackedCallable<>(operation, callable);
+        T result = executor.execute(tracked);
+        telemetry.recordCommit(operation, tracked.aborts);
+        return result;
+    }
+
+    /**
+     * Counts how often Multiverse re-invokes a transaction body; a re-invocation implies the previous
+     * attempt was rolled back. Re-runs after a {@link SpeculativeConfigurationError} only upgrade the
+     * transaction configuration and are not counted. Multiverse does not expose why the remaining attempts
+     * failed, so they are recorded as unclassified and do not line up one-to-one with TinyStm's classified
+     * aborts.
+     */
+    private final class TrackedCallable<T> implements TxnCallable<T> {
+        private final MapOperation operation;
+        private final TxnCallable<T> delegate;
+        private int aborts;
+        private long attemptStart;
+        private boolean started;
+        private boolean speculative;
+
+        private TrackedCallable(MapOperation operation, TxnCallable<T> delegate) {
+            this.operation = operation;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T call(Txn txn) throws Exception {
+            long now = System.nanoTime();
+            if (started && !speculative) {
+                aborts++;
+                telemetry.recordAbort(operation, AbortCause.UNCLASSIFIED, now - attemptStart);
+            }
+            started = true;
+            speculative = false;
+            attemptStart = now;
+            try {
+                return delegate.call(txn);
+            } catch (SpeculativeConfigurationError e) {
+                speculative = true;
+                throw e;
+            }
+        }
     }
 }
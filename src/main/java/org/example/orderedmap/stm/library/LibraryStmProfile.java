@@ -0,0 +1,103 @@
+package org.example.orderedmap.stm.library;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.multiverse.api.DefaultBackoffPolicy;
+import org.multiverse.api.IsolationLevel;
+import org.multiverse.api.Stm;
+import org.multiverse.api.TxnExecutor;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+
+/**
+ * Multiverse execution profiles used by {@link LibraryStmOrderedMap} to build its per-operation executors.
+ */
+public enum LibraryStmProfile {
+
+    /**
+     * Every operation runs through the global default executor, i.e. the behaviour of {@code StmUtils.atomic}.
+     */
+    DEFAULT("default") {
+        @Override
+        TxnExecutor pointReadExecutor() {
+            return getGlobalStmInstance().getDefaultTxnExecutor();
+        }
+
+        @Override
+        TxnExecutor scanExecutor() {
+            return getGlobalStmInstance().getDefaultTxnExecutor();
+        }
+
+        @Override
+        TxnExecutor writeExecutor() {
+            return getGlobalStmInstance().getDefaultTxnExecutor();
+        }
+    },
+
+    /**
+     * Read-only, untracked transactions for get/size/range and snapshot-isolated writers with a short backoff cap.
+     * The read bodies never block or re-read a reference, so blocking and read tracking buy them nothing; the
+     * writers only read the reference they overwrite, so snapshot isolation cannot introduce write skew.
+     */
+    TUNED("tuned") {
+        @Override
+        TxnExecutor pointReadExecutor() {
+            return readOnlyExecutor("LibraryStmOrderedMap.get");
+        }
+
+        @Override
+        TxnExecutor scanExecutor() {
+            return readOnlyExecutor("LibraryStmOrderedMap.scan");
+        }
+
+        @Override
+        TxnExecutor writeExecutor() {
+            Stm stm = getGlobalStmInstance();
+            return stm.newTxnFactoryBuilder()
+                    .setFamilyName("LibraryStmOrderedMap.write")
+                    .setIsolationLevel(IsolationLevel.Snapshot)
+                    .setBackoffPolicy(new DefaultBackoffPolicy(TimeUnit.MILLISECONDS.toNanos(1)))
+                    .setMaxRetries(WRITER_MAX_RETRIES)
+                    .newTxnExecutor();
+        }
+    };
+
+    private static final int WRITER_MAX_RETRIES = 10_000;
+
+    private final String id;
+
+    LibraryStmProfile(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /** Executor for single-key reads. */
+    abstract TxnExecutor pointReadExecutor();
+
+    /** Executor for multi-key reads such as range queries and size. */
+    abstract TxnExecutor scanExecutor();
+
+    /** Executor for transactions that update references. */
+    abstract TxnExecutor writeExecutor();
+
+    public static LibraryStmProfile fromId(String id) {
+        String normalized = id.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(profile -> profile.id.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown STM profile: " + id));
+    }
+
+    private static TxnExecutor readOnlyExecutor(String familyName) {
+        return getGlobalStmInstance().newTxnFactoryBuilder()
+                .setFamilyName(familyName)
+                .setReadonly(true)
+                .setBlockingAllowed(false)
+                .setReadTrackingEnabled(false)
+                .newTxnExecutor();
+    }
+}
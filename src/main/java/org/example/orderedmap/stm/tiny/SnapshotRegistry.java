@@ -0,0 +1,122 @@
+package org.example.orderedmap.stm.tiny;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the snapshot versions of in-flight read-only transactions so writers know which old versions
+ * must be retained.
+ *
+ * <p>Readers publish a snapshot and then check it against {@code watermark}; writers raise the watermark
+ * between two scans of the slots. A reader that escapes both scans therefore observes the raised watermark
+ * and moves its snapshot forward, so no version a published snapshot needs is ever pruned.
+ *
+ * <p>Slots live in a chain of blocks. When every slot is taken a block twice the size of the last is linked
+ * on, so entry always succeeds however many readers are in flight. Blocks are never unlinked; writers scan
+ * every slot up to the peak reader concurrency seen so far.
+ */
+final class SnapshotRegistry {
+
+    private static final long FREE = Long.MAX_VALUE;
+    /** Longs per slot, keeping every slot on its own cache line. */
+    private static final int STRIDE = 8;
+
+    private final Block first;
+    private final AtomicLong watermark = new AtomicLong();
+
+    SnapshotRegistry(int minimumSlots) {
+        this.first = new Block(0, Integer.highestOneBit(Math.max(1, minimumSlots - 1)) << 1);
+    }
+
+    /**
+     * Claims a slot and publishes a snapshot of {@code clock}, chaining on a new block when all slots are
+     * taken.
+     */
+    int enter(AtomicLong clock) {
+        int hash = (int) (Thread.currentThread().getId() * 0x9E3779B9L);
+        for (Block block = first; ; block = block.next()) {
+            int mask = block.count - 1;
+            int start = hash & mask;
+            for (int i = 0; i < block.count; i++) {
+                int index = ((start + i) & mask) * STRIDE;
+                long snapshot = clock.get();
+                if (block.slots.compareAndSet(index, FREE, snapshot)) {
+                    while (snapshot < watermark.get()) {
+                        snapshot = clock.get();
+                        block.slots.set(index, snapshot);
+                    }
+                    return block.base + index / STRIDE;
+                }
+            }
+        }
+    }
+
+    long snapshot(int slot) {
+        Block block = blockOf(slot);
+        return block.slots.get((slot - block.base) * STRIDE);
+    }
+
+    void exit(int slot) {
+        Block block = blockOf(slot);
+        block.slots.set((slot - block.base) * STRIDE, FREE);
+    }
+
+    /**
+     * Returns a version no newer than any snapshot that is or will be published.
+     */
+    long oldestActive(AtomicLong clock) {
+        long oldest = Math.min(clock.get(), scan());
+        long current;
+        do {
+            current = watermark.get();
+        } while (current < oldest && !watermark.compareAndSet(current, oldest));
+        return Math.min(oldest, scan());
+    }
+
+    private long scan() {
+        long oldest = FREE;
+        for (Block block = first; block != null; block = block.link.get()) {
+            for (int i = 0; i < block.count; i++) {
+                oldest = Math.min(oldest, block.slots.get(i * STRIDE));
+            }
+        }
+        return oldest;
+    }
+
+    private Block blockOf(int slot) {
+        Block block = first;
+        while (slot >= block.base + block.count) {
+            block = block.link.get();
+        }
+        return block;
+    }
+
+    private static final class Block {
+        private final int base;
+        private final int count;
+        private final AtomicLongArray slots;
+        private final AtomicReference<Block> link = new AtomicReference<>();
+
+        private Block(int base, int count) {
+            this.base = base;
+            this.count = count;
+            this.slots = new AtomicLongArray(count * STRIDE);
+            for (int i = 0; i < count; i++) {
+                slots.set(i * STRIDE, FREE);
+            }
+        }
+
+        /**
+         * Returns the following block, linking on one twice this size if there is none yet.
+         */
+        private Block next() {
+            Block next = link.get();
+            if (next == null) {
+                link.compareAndSet(null, new Block(base + count, count * 2));
+                next = link.get();
+            }
+            return next;
+        }
+    }
+}
@@ -8,34 +8,80 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.example.orderedmap.api.AbortCause;
+import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
+import org.example.orderedmap.stm.StmTelemetry;
+
 /**
  * Minimal TL2-inspired STM runtime supporting read/write transactions on {@link TinyStmRef} entries.
+ *
+ * <p>In multi-version mode every ref keeps a chain of recent commits, and read-only transactions read the
+ * newest version no greater than their snapshot instead of aborting on newer commits. Chains are pruned
+ * against the oldest active snapshot; once a chain outgrows {@code maxVersions} the writer recomputes that
+ * bound exactly, so a chain only stays longer while a snapshot still needs its versions. Every read-only
+ * transaction gets a snapshot slot, however many run at once.
  */
 public final class TinyStm {
 
     private static final int YIELD_THRESHOLD = 32;
+    /** Commits between refreshes of the oldest-active-snapshot bound used to prune version chains. */
+    private static final int OLDEST_SNAPSHOT_REFRESH = 32;
 
     private final AtomicLong globalClock = new AtomicLong();
-    private final AtomicLong commitCount = new AtomicLong();
-    private final AtomicLong abortCount = new AtomicLong();
-    private final AtomicLong maxRetries = new AtomicLong();
+    private final StmTelemetry telemetry = new StmTelemetry();
+    private final int maxVersions;
+    private final SnapshotRegistry snapshots;
+    private volatile long oldestSnapshot;
+
+    public TinyStm() {
+        this(1);
+    }
 
-    <T> T execute(TinyCallable<T> body) {
+    /**
+     * @param maxVersions chain length per ref that triggers an exact prune; values above one enable
+     *                    multi-version snapshot reads
+     */
+    public TinyStm(int maxVersions) {
+        if (maxVersions <= 0) {
+            throw new IllegalArgumentException("maxVersions must be positive");
+        }
+        this.maxVersions = maxVersions;
+        this.snapshots = maxVersions > 1
+                ? new SnapshotRegistry(4 * Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    public boolean isMultiVersion() {
+        return snapshots != null;
+    }
+
+    <T> T execute(MapOperation operation, TinyCallable<T> body) {
+        boolean snapshotRead = snapshots != null && operation.isReadOnly();
         int attempts = 0;
         while (true) {
             attempts++;
-            Transaction tx = new Transaction(globalClock.get());
+            long attemptStart = System.nanoTime();
+            int slot = snapshotRead ? snapshots.enter(globalClock) : -1;
+            Transaction tx = snapshotRead
+                    ? new Transaction(snapshots.snapshot(slot), true)
+                    : new Transaction(globalClock.get(), false);
+            AbortCause cause;
             try {
                 T result = body.call(tx);
-                if (tx.commit(globalClock)) {
-                    commitCount.incrementAndGet();
-                    updateMaxRetries(attempts - 1);
+                cause = tx.commit(this);
+                if (cause == null) {
+                    telemetry.recordCommit(operation, attempts - 1);
                     return result;
                 }
-            } catch (RetryException ignore) {
-                // fall-through to retry
+            } catch (RetryException retry) {
+                cause = retry.abortCause;
+            } finally {
+                if (snapshotRead) {
+                    snapshots.exit(slot);
+                }
             }
-            abortCount.incrementAndGet();
+            telemetry.recordAbort(operation, cause, System.nanoTime() - attemptStart);
             if (attempts > YIELD_THRESHOLD) {
                 java.util.concurrent.locks.LockSupport.parkNanos(1L);
             }
@@ -43,31 +89,38 @@ public final class TinyStm {
     }
 
     public long getCommitCount() {
-        return commitCount.get();
+        return telemetry.commitCount();
     }
 
     public long getAbortCount() {
-        return abortCount.get();
+        return telemetry.abortCount();
     }
 
     public long getMaxRetries() {
-        return maxRetries.get();
+        return telemetry.maxRetries();
+    }
+
+    public MapMetrics snapshotMetrics() {
+        return telemetry.snapshot();
     }
 
     public void resetStats() {
-        commitCount.set(0L);
-        abortCount.set(0L);
-        maxRetries.set(0L);
+        telemetry.reset();
     }
 
-    private void updateMaxRetries(int retries) {
-        long current;
-        do {
-            current = maxRetries.get();
-            if (retries <= current) {
-                return;
-            }
-        } while (!maxRetries.compareAndSet(current, retries));
+    private void install(TinyStmRef<Object> ref, Object value, long newVersion) {
+        if (snapshots == null) {
+            ref.setValue(value, newVersion);
+            return;
+        }
+        if (newVersion % OLDEST_SNAPSHOT_REFRESH == 0) {
+            oldestSnapshot = snapshots.oldestActive(globalClock);
+        }
+        if (ref.publish(value, newVersion, oldestSnapshot) > maxVersions) {
+            long oldest = snapshots.oldestActive(globalClock);
+            oldestSnapshot = oldest;
+            ref.prune(oldest);
+        }
     }
 
     /**
@@ -75,45 +128,78 @@ public final class TinyStm {
      */
     static final class Transaction {
         private final long startVersion;
+        private final boolean snapshotRead;
     private final Map<TinyStmRef<?>, Long> readSet = new IdentityHashMap<>();
     private final Map<TinyStmRef<?>, Object> writeSet = new IdentityHashMap<>();
 
-        private Transaction(long startVersion) {
+        private Transaction(long startVersion, boolean snapshotRead) {
             this.startVersion = startVersion;
+            this.snapshotRead = snapshotRead;
         }
 
+        /**
+         * Reads the head version, which must be visible at {@code startVersion}. Waiting out a held lock first,
+         * as {@link #readSnapshot} does, keeps a commit numbered at or below the snapshot from being seen on some
+         * refs and not yet on others.
+         */
         @SuppressWarnings("unchecked")
         <T> T read(TinyStmRef<T> ref) {
+            if (snapshotRead) {
+                return readSnapshot(ref);
+            }
             if (writeSet.containsKey(ref)) {
                 return (T) writeSet.get(ref);
             }
-            long version;
-            T value;
-            while (true) {
-                version = ref.getVersion();
-                value = ref.getValue();
-                long verify = ref.getVersion();
-                if (version == verify) {
-                    break;
-                }
+            while (ref.isLocked()) {
+                Thread.onSpinWait();
             }
+            TinyStmRef.Version<T> head = ref.head();
+            long version = head.version;
+            T value = head.value;
             if (version > startVersion) {
-                throw new RetryException();
+                throw new RetryException(AbortCause.READ_VERSION);
             }
             readSet.putIfAbsent(ref, version);
             return value;
         }
 
+        /**
+         * Reads the newest version visible at {@code startVersion}. A committer locks its refs before bumping
+         * the clock, so waiting out a held lock guarantees commits at or below the snapshot are fully installed.
+         */
+        private <T> T readSnapshot(TinyStmRef<T> ref) {
+            while (ref.isLocked()) {
+                Thread.onSpinWait();
+            }
+            TinyStmRef.Version<T> node = ref.head();
+            while (node != null && node.version > startVersion) {
+                node = node.older;
+            }
+            if (node == null) {
+                throw new RetryException(AbortCause.READ_VERSION);
+            }
+            return node.value;
+        }
+
         <T> void write(TinyStmRef<T> ref, T value) {
+            if (snapshotRead) {
+                throw new IllegalStateException("write in read-only transaction");
+            }
             writeSet.put(ref, value);
         }
 
-        private boolean commit(AtomicLong clock) {
+        /**
+         * Attempts to commit, returning {@code null} on success or the reason the attempt must be retried.
+         */
+        private AbortCause commit(TinyStm stm) {
+            if (snapshotRead) {
+                return null;
+            }
             if (!validate()) {
-                return false;
+                return AbortCause.VALIDATION;
             }
             if (writeSet.isEmpty()) {
-                return true;
+                return null;
             }
             List<TinyStmRef<?>> refs = new ArrayList<>(writeSet.keySet());
             refs.sort(Comparator.comparingInt(System::identityHashCode));
@@ -123,34 +209,36 @@ public final class TinyStm {
                     locked.add(ref);
                 } else {
                     unlockAll(locked);
-                    return false;
+                    return AbortCause.LOCK;
                 }
             }
             try {
                 if (!validate()) {
-                    return false;
+                    return AbortCause.VALIDATION;
                 }
-                long newVersion = clock.incrementAndGet();
+                long newVersion = stm.globalClock.incrementAndGet();
                 for (TinyStmRef<?> ref : refs) {
                     @SuppressWarnings("unchecked")
                     TinyStmRef<Object> typed = (TinyStmRef<Object>) ref;
                     Object value = writeSet.get(ref);
-                    typed.setValue(value, newVersion);
+                    stm.install(typed, value, newVersion);
                 }
-                return true;
+                return null;
             } finally {
                 unlockAll(locked);
             }
         }
 
+        /**
+         * Checks that nothing this transaction read has changed since. A read ref locked by another committer
+         * fails too: that commit may already hold a lower version than this one will get. Refs this transaction
+         * also writes are locked by itself during the final check, so only their version counts; skipping them
+         * would let a read-modify-write overwrite a commit that landed after its read.
+         */
         private boolean validate() {
             for (Map.Entry<TinyStmRef<?>, Long> entry : readSet.entrySet()) {
                 TinyStmRef<?> ref = entry.getKey();
-                long expected = entry.getValue();
-                if (writeSet.containsKey(ref)) {
-                    continue;
-                }
-                if (ref.getVersion() != expected && ref.getVersion() > startVersion) {
+                if (ref.getVersion() != entry.getValue() || (!writeSet.containsKey(ref) && ref.isLocked())) {
                     return false;
                 }
             }
@@ -176,5 +264,12 @@ public final class TinyStm {
 
     private static final class RetryException extends RuntimeException {
         private static final long serialVersionUID = 1L;
+
+        private final AbortCause abortCause;
+
+        private RetryException(AbortCause abortCause) {
+            super(null, null, false, false);
+            this.abortCause = abortCause;
+        }
     }
 }
@@ -0,0 +1,56 @@
+package org.example.orderedmap.stm.tiny;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.orderedmap.api.MapCapability;
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Provides {@link TinyStmOrderedMap} as {@code tinystm}, single-version by default, and as {@code tinystm-mv}
+ * with {@link TinyStmOrderedMap#DEFAULT_MAX_VERSIONS} versions; {@code versions} sets the chain length of either.
+ */
+public class TinyStmMapProvider implements OrderedMapProvider {
+
+    private final String id;
+    private final int defaultVersions;
+
+    public TinyStmMapProvider() {
+        this("tinystm", 1);
+    }
+
+    private TinyStmMapProvider(String id, int defaultVersions) {
+        this.id = id;
+        this.defaultVersions = defaultVersions;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public Map<String, String> parameters() {
+        return Map.of("versions", Integer.toString(defaultVersions));
+    }
+
+    @Override
+    public Set<MapCapability> capabilities() {
+        return EnumSet.of(MapCapability.CUSTOM_ORDER, MapCapability.BULK_LOAD, MapCapability.ATOMIC_RANGE,
+                MapCapability.ATOMIC_MULTI_KEY, MapCapability.TRANSACTIONAL);
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new TinyStmOrderedMap<>(Integer.parseInt(parameters.get("versions")), comparator);
+    }
+
+    public static final class MultiVersion extends TinyStmMapProvider {
+        public MultiVersion() {
+            super("tinystm-mv", TinyStmOrderedMap.DEFAULT_MAX_VERSIONS);
+        }
+    }
+}
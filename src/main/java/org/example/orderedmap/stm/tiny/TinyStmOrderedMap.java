@@ -1,23 +1,56 @@
 package org.example.orderedmap.stm.tiny;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.NavigableMap;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
 
 import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
 import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.SortedEntries;
 
 /**
  * Ordered map backed by {@link TinyStm} runtime for optimistic concurrency.
  */
 public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
-    private final TinyStm stm = new TinyStm();
-    private final ConcurrentSkipListMap<K, TinyStmRef<V>> store = new ConcurrentSkipListMap<>();
+    /** Version chain length used by the multi-version benchmark variant. */
+    public static final int DEFAULT_MAX_VERSIONS = 8;
+
+    private final TinyStm stm;
+    /**
+     * Replaced only by {@link #bulkLoad}, which runs before the map is shared with other threads.
+     */
+    private ConcurrentSkipListMap<K, TinyStmRef<V>> store;
+
+    public TinyStmOrderedMap() {
+        this(1);
+    }
+
+    public TinyStmOrderedMap(int maxVersions) {
+        this(maxVersions, null);
+    }
+
+    /**
+     * @param maxVersions version chain length per entry that triggers an exact prune; values above one serve
+     *                    get/range/size from an abort-free snapshot, see {@link TinyStm#TinyStm(int)}
+     * @param comparator  key order, or {@code null} for natural ordering
+     */
+    public TinyStmOrderedMap(int maxVersions, Comparator<? super K> comparator) {
+        this.stm = new TinyStm(maxVersions);
+        this.store = new ConcurrentSkipListMap<>(comparator);
+    }
 
     @Override
     public V get(K key) {
-        return stm.execute(tx -> {
+        return stm.execute(MapOperation.GET, tx -> {
             TinyStmRef<V> ref = store.get(key);
             if (ref == null) {
                 return null;
@@ -28,7 +61,7 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V put(K key, V value) {
-        return stm.execute(tx -> {
+        return stm.execute(MapOperation.PUT, tx -> {
             TinyStmRef<V> ref = store.computeIfAbsent(key, k -> new TinyStmRef<>(null, 0L));
             V previous = tx.read(ref);
             tx.write(ref, value);
@@ -38,7 +71,7 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public V remove(K key) {
-        return stm.execute(tx -> {
+        return stm.execute(MapOperation.REMOVE, tx -> {
             TinyStmRef<V> ref = store.get(key);
             if (ref == null) {
                 return null;
@@ -51,8 +84,8 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-        return stm.execute(tx -> {
-            TreeMap<K, V> snapshot = new TreeMap<>();
+        return stm.execute(MapOperation.RANGE, tx -> {
+            TreeMap<K, V> snapshot = new TreeMap<>(store.comparator());
             NavigableMap<K, TinyStmRef<V>> view = selectRange(fromKey, fromInclusive, toKey, toInclusive);
             for (var entry : view.entrySet()) {
                 V value = tx.read(entry.getValue());
@@ -64,9 +97,54 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
         });
     }
 
+    @Override
+    public void atomicUpdate(List<K> keys, UnaryOperator<List<V>> update) {
+        stm.execute(MapOperation.ATOMIC_UPDATE, tx -> {
+            List<TinyStmRef<V>> refs = new ArrayList<>(keys.size());
+            List<V> current = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                TinyStmRef<V> ref = store.computeIfAbsent(key, k -> new TinyStmRef<>(null, 0L));
+                refs.add(ref);
+                current.add(tx.read(ref));
+            }
+            List<V> updated = update.apply(current);
+            if (updated.size() != keys.size()) {
+                throw new IllegalArgumentException("Update returned " + updated.size() + " values for "
+                        + keys.size() + " keys");
+            }
+            for (int i = 0; i < refs.size(); i++) {
+                tx.write(refs.get(i), updated.get(i));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates the references directly, at version zero, which every transaction's snapshot covers, and builds the
+     * index in one sorted pass instead of running a transaction per key. A non-empty map, or input in another
+     * order, falls back to transactional puts.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bulkLoad(SortedMap<K, ? extends V> sorted) {
+        if (!store.isEmpty() || !Objects.equals(sorted.comparator(), store.comparator())) {
+            OrderedMap.super.bulkLoad(sorted);
+            return;
+        }
+        Object[] keys = new Object[sorted.size()];
+        TinyStmRef<V>[] refs = (TinyStmRef<V>[]) new TinyStmRef<?>[keys.length];
+        int index = 0;
+        for (Map.Entry<K, ? extends V> entry : sorted.entrySet()) {
+            keys[index] = entry.getKey();
+            refs[index] = new TinyStmRef<>(entry.getValue(), 0L);
+            index++;
+        }
+        store = new ConcurrentSkipListMap<>(new SortedEntries<>((K[]) keys, refs, keys.length, store.comparator()));
+    }
+
     @Override
     public int size() {
-        return stm.execute(tx -> {
+        return stm.execute(MapOperation.SIZE, tx -> {
             int count = 0;
             for (TinyStmRef<V> ref : store.values()) {
                 V value = tx.read(ref);
@@ -80,7 +158,7 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public void clear() {
-        stm.execute(tx -> {
+        stm.execute(MapOperation.CLEAR, tx -> {
             for (TinyStmRef<V> ref : store.values()) {
                 tx.write(ref, null);
             }
@@ -92,7 +170,7 @@ public class TinyStmOrderedMap<K, V> implements OrderedMap<K, V> {
 
     @Override
     public MapMetrics snapshotMetrics() {
-        return new MapMetrics(stm.getCommitCount(), stm.getAbortCount(), stm.getMaxRetries());
+        return stm.snapshotMetrics();
     }
 
     private NavigableMap<K, TinyStmRef<V>> selectRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
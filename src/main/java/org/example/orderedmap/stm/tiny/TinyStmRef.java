@@ -4,25 +4,53 @@ import java.util.concurrent.locks.ReentrantLock;
 
 final class TinyStmRef<T> {
     private final ReentrantLock lock = new ReentrantLock();
-    private volatile long version;
-    private volatile T value;
+    private volatile Version<T> head;
 
     TinyStmRef(T initialValue, long initialVersion) {
-        this.value = initialValue;
-        this.version = initialVersion;
+        this.head = new Version<>(initialValue, initialVersion, null);
     }
 
     long getVersion() {
-        return version;
+        return head.version;
     }
 
     T getValue() {
-        return value;
+        return head.value;
+    }
+
+    Version<T> head() {
+        return head;
     }
 
     void setValue(T newValue, long newVersion) {
-        this.value = newValue;
-        this.version = newVersion;
+        this.head = new Version<>(newValue, newVersion, null);
+    }
+
+    /**
+     * Installs a new head and prunes versions no snapshot at or after {@code oldestSnapshot} can read.
+     * Callers must hold the lock. Returns the length of the retained chain.
+     */
+    int publish(T newValue, long newVersion, long oldestSnapshot) {
+        this.head = new Version<>(newValue, newVersion, head);
+        return prune(oldestSnapshot);
+    }
+
+    /**
+     * Drops the versions older than the newest one visible at {@code oldestSnapshot}. Callers must hold the lock.
+     */
+    int prune(long oldestSnapshot) {
+        Version<T> node = head;
+        int length = 1;
+        while (node.version > oldestSnapshot && node.older != null) {
+            node = node.older;
+            length++;
+        }
+        node.older = null;
+        return length;
+    }
+
+    boolean isLocked() {
+        return lock.isLocked();
     }
 
     boolean tryLock() {
@@ -32,4 +60,19 @@ final class TinyStmRef<T> {
     void unlock() {
         lock.unlock();
     }
+
+    /**
+     * Committed (version, value) pair; {@code older} links to the previous commit while it may still be read.
+     */
+    static final class Version<T> {
+        final T value;
+        final long version;
+        volatile Version<T> older;
+
+        Version(T value, long version, Version<T> older) {
+            this.value = value;
+            this.version = version;
+            this.older = older;
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package org.example.orderedmap.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.example.orderedmap.api.MapOperation;
+
+/**
+ * Read-only, memory-mapped view of a {@link TraceFormat} file.
+ *
+ * <p>All accessors use absolute reads on the shared mappings, so any number of threads can stream disjoint
+ * record ranges concurrently without copying or allocating. Traces larger than 2 GiB are mapped as several
+ * segments, each holding a whole number of records. A trace whose writer never closed (header count zero) is
+ * read up to its last complete record.
+ */
+public final class TraceFile {
+
+    private static final MapOperation[] OPERATIONS = MapOperation.values();
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    private final Path path;
+    private final boolean timestamps;
+    private final int recordBytes;
+    private final long recordCount;
+    private final int recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private TraceFile(Path path, boolean timestamps, long recordCount, MappedByteBuffer[] segments,
+                      int recordsPerSegment) {
+        this.path = path;
+        this.timestamps = timestamps;
+        this.recordBytes = TraceFormat.recordBytes(timestamps);
+        this.recordCount = recordCount;
+        this.segments = segments;
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    public static TraceFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TraceFormat.HEADER_BYTES) {
+                throw new IOException("Not a trace file (too short): " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, TraceFormat.HEADER_BYTES)
+                    .order(TraceFormat.BYTE_ORDER);
+            if (header.getLong(0) != TraceFormat.MAGIC) {
+                throw new IOException("Not a trace file (bad magic): " + path);
+            }
+            int version = header.getInt(8);
+            if (version != TraceFormat.VERSION) {
+                throw new IOException("Unsupported trace version " + version + ": " + path);
+            }
+            boolean timestamps = (header.getInt(12) & TraceFormat.HAS_TIMESTAMPS) != 0;
+            int recordBytes = TraceFormat.recordBytes(timestamps);
+            long available = (size - TraceFormat.HEADER_BYTES) / recordBytes;
+            long declared = header.getLong(TraceFormat.RECORD_COUNT_OFFSET);
+            if (declared > available) {
+                throw new IOException("Trace declares " + declared + " records but holds " + available + ": " + path);
+            }
+            long recordCount = declared == 0L ? available : declared;
+            int recordsPerSegment = (int) (MAX_SEGMENT_BYTES / recordBytes);
+            int segmentCount = (int) Math.max(1L, (recordCount + recordsPerSegment - 1L) / recordsPerSegment);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, recordCount - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        TraceFormat.HEADER_BYTES + first * recordBytes, records * recordBytes);
+                segments[i].order(TraceFormat.BYTE_ORDER);
+            }
+            return new TraceFile(path, timestamps, recordCount, segments, recordsPerSegment);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    public boolean hasTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Operation of the record; throws {@link IllegalStateException} if its opcode names no {@link MapOperation}.
+     */
+    public MapOperation operation(long index) {
+        int opcode = Byte.toUnsignedInt(segment(index).get(offset(index) + TraceFormat.OPERATION_OFFSET));
+        if (opcode >= OPERATIONS.length) {
+            throw new IllegalStateException("Trace record " + index + " has unknown opcode " + opcode + ": " + path);
+        }
+        return OPERATIONS[opcode];
+    }
+
+    /**
+     * Range flags of the record, see {@link TraceFormat#FROM_INCLUSIVE} and friends.
+     */
+    public int flags(long index) {
+        return segment(index).get(offset(index) + TraceFormat.FLAGS_OFFSET);
+    }
+
+    public int key(long index) {
+        return segment(index).getInt(offset(index) + TraceFormat.KEY_OFFSET);
+    }
+
+    public int toKey(long index) {
+        return segment(index).getInt(offset(index) + TraceFormat.TO_KEY_OFFSET);
+    }
+
+    /**
+     * Offset of the call from the start of recording, or zero for traces without timestamps.
+     */
+    public long timestampNanos(long index) {
+        return timestamps ? segment(index).getLong(offset(index) + TraceFormat.TIMESTAMP_OFFSET) : 0L;
+    }
+
+    /**
+     * Number of records per {@link MapOperation}, indexed by ordinal.
+     */
+    public long[] operationCounts() {
+        long[] counts = new long[OPERATIONS.length];
+        for (long i = 0; i < recordCount; i++) {
+            counts[operation(i).ordinal()]++;
+        }
+        return counts;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offset(long index) {
+        return (int) (index % recordsPerSegment) * recordBytes;
+    }
+}
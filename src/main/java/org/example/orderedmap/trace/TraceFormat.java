@@ -0,0 +1,54 @@
+package org.example.orderedmap.trace;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary operation trace shared by {@link TraceWriter} and {@link TraceFile}.
+ *
+ * <p>A trace is a {@value #HEADER_BYTES}-byte header followed by fixed-size little-endian records, so record
+ * {@code i} lives at a computable offset and readers can split a trace between threads without scanning it.
+ * <pre>
+ * header: long magic "OMTRACE1" | int version | int flags | long recordCount
+ * record: byte operation | byte flags | short reserved | int key | int toKey [| long timestampNanos]
+ * </pre>
+ * {@code operation} is a {@link org.example.orderedmap.api.MapOperation} ordinal. {@code key} is the looked-up,
+ * written or removed key, or the lower bound of a range; {@code toKey} is the upper bound of a range. The
+ * timestamp, present when the header has {@link #HAS_TIMESTAMPS}, is the nanosecond offset of the call from the
+ * start of recording.
+ */
+public final class TraceFormat {
+
+    public static final long MAGIC = 0x3145434152544D4FL; // "OMTRACE1" read as a little-endian long
+    public static final int VERSION = 1;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int HEADER_BYTES = 24;
+    static final int RECORD_COUNT_OFFSET = 16;
+
+    /** Header flag: every record carries a timestamp. */
+    public static final int HAS_TIMESTAMPS = 1;
+
+    /** Record flag: the range's lower bound is inclusive. */
+    public static final int FROM_INCLUSIVE = 1;
+    /** Record flag: the range's upper bound is inclusive. */
+    public static final int TO_INCLUSIVE = 1 << 1;
+    /** Record flag: the range has no lower bound. */
+    public static final int FROM_UNBOUNDED = 1 << 2;
+    /** Record flag: the range has no upper bound. */
+    public static final int TO_UNBOUNDED = 1 << 3;
+
+    static final int OPERATION_OFFSET = 0;
+    static final int FLAGS_OFFSET = 1;
+    static final int KEY_OFFSET = 4;
+    static final int TO_KEY_OFFSET = 8;
+    static final int TIMESTAMP_OFFSET = 12;
+
+    private static final int BASE_RECORD_BYTES = 12;
+
+    private TraceFormat() {
+    }
+
+    public static int recordBytes(boolean timestamps) {
+        return timestamps ? BASE_RECORD_BYTES + Long.BYTES : BASE_RECORD_BYTES;
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.orderedmap.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.example.orderedmap.api.MapOperation;
+
+/**
+ * Appends {@link TraceFormat} records to a file. Appends are serialised on the writer, so records appear in the
+ * order threads won the writer's monitor, which for concurrent callers approximates their arrival order.
+ * The record count in the header is filled in by {@link #close()}.
+ */
+public final class TraceWriter implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final boolean timestamps;
+    private final int recordBytes;
+    private final ByteBuffer buffer;
+    private final long startNanos;
+    private long recordCount;
+    private boolean closed;
+
+    public TraceWriter(Path path, boolean timestamps) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.timestamps = timestamps;
+        this.recordBytes = TraceFormat.recordBytes(timestamps);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES - BUFFER_BYTES % recordBytes)
+                .order(TraceFormat.BYTE_ORDER);
+        writeHeader(0L);
+        this.startNanos = System.nanoTime();
+    }
+
+    public boolean hasTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Records a single-key operation, or {@link MapOperation#SIZE}/{@link MapOperation#CLEAR} with key 0.
+     */
+    public void record(MapOperation operation, int key) {
+        append(operation, 0, key, 0, System.nanoTime());
+    }
+
+    /**
+     * Records a range query; {@code null} bounds are stored as unbounded.
+     */
+    public void recordRange(Integer fromKey, boolean fromInclusive, Integer toKey, boolean toInclusive) {
+        int flags = (fromInclusive ? TraceFormat.FROM_INCLUSIVE : 0)
+                | (toInclusive ? TraceFormat.TO_INCLUSIVE : 0)
+                | (fromKey == null ? TraceFormat.FROM_UNBOUNDED : 0)
+                | (toKey == null ? TraceFormat.TO_UNBOUNDED : 0);
+        append(MapOperation.RANGE, flags, fromKey == null ? 0 : fromKey, toKey == null ? 0 : toKey,
+                System.nanoTime());
+    }
+
+    public synchronized long recordCount() {
+        return recordCount;
+    }
+
+    private synchronized void append(MapOperation operation, int flags, int key, int toKey, long nowNanos) {
+        if (closed) {
+            throw new IllegalStateException("Trace writer is closed");
+        }
+        if (buffer.remaining() < recordBytes) {
+            flush();
+        }
+        buffer.put((byte) operation.ordinal())
+                .put((byte) flags)
+                .putShort((short) 0)
+                .putInt(key)
+                .putInt(toKey);
+        if (timestamps) {
+            buffer.putLong(Math.max(0L, nowNanos - startNanos));
+        }
+        recordCount++;
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to write trace", io);
+        }
+        buffer.clear();
+    }
+
+    private void writeHeader(long count) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_BYTES).order(TraceFormat.BYTE_ORDER);
+        header.putLong(TraceFormat.MAGIC)
+                .putInt(TraceFormat.VERSION)
+                .putInt(timestamps ? TraceFormat.HAS_TIMESTAMPS : 0)
+                .putLong(count)
+                .flip();
+        long position = 0L;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        if (channel.position() < TraceFormat.HEADER_BYTES) {
+            channel.position(TraceFormat.HEADER_BYTES);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            writeHeader(recordCount);
+        } finally {
+            channel.close();
+        }
+    }
+}
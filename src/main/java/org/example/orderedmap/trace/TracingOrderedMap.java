@@ -0,0 +1,78 @@
+package org.example.orderedmap.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NavigableMap;
+import java.util.Objects;
+
+import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
+import org.example.orderedmap.api.OrderedMap;
+
+/**
+ * Decorator that records every call on an integer-keyed {@link OrderedMap} to a {@link TraceWriter} before
+ * delegating it. Closing the decorator closes both the writer and the wrapped map.
+ */
+public final class TracingOrderedMap<V> implements OrderedMap<Integer, V> {
+
+    private final OrderedMap<Integer, V> delegate;
+    private final TraceWriter writer;
+
+    public TracingOrderedMap(OrderedMap<Integer, V> delegate, TraceWriter writer) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.writer = Objects.requireNonNull(writer, "writer");
+    }
+
+    @Override
+    public V get(Integer key) {
+        writer.record(MapOperation.GET, key);
+        return delegate.get(key);
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        writer.record(MapOperation.PUT, key);
+        return delegate.put(key, value);
+    }
+
+    @Override
+    public V remove(Integer key) {
+        writer.record(MapOperation.REMOVE, key);
+        return delegate.remove(key);
+    }
+
+    @Override
+    public NavigableMap<Integer, V> rangeQuery(Integer fromKey, boolean fromInclusive, Integer toKey,
+                                               boolean toInclusive) {
+        writer.recordRange(fromKey, fromInclusive, toKey, toInclusive);
+        return delegate.rangeQuery(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public int size() {
+        writer.record(MapOperation.SIZE, 0);
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        writer.record(MapOperation.CLEAR, 0);
+        delegate.clear();
+    }
+
+    @Override
+    public MapMetrics snapshotMetrics() {
+        return delegate.snapshotMetrics();
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException io) {
+            throw new UncheckedIOException("Failed to close trace", io);
+        } finally {
+            delegate.close();
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package org.example.orderedmap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import org.example.orderedmap.api.MapMetrics;
+import org.example.orderedmap.api.MapOperation;
 import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.SortedEntries;
 import org.example.orderedmap.locking.GlobalLockOrderedMap;
 import org.example.orderedmap.locking.ShardedOrderedMap;
 import org.example.orderedmap.skiplist.SkipListOrderedMap;
 import org.example.orderedmap.stm.library.LibraryStmOrderedMap;
+import org.example.orderedmap.stm.library.LibraryStmProfile;
 import org.example.orderedmap.stm.tiny.TinyStmOrderedMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
@@ -26,7 +44,9 @@ class OrderedMapImplementationsTest {
             ShardedOrderedMap::new,
             SkipListOrderedMap::new,
             TinyStmOrderedMap::new,
-            LibraryStmOrderedMap::new
+            () -> new TinyStmOrderedMap<>(TinyStmOrderedMap.DEFAULT_MAX_VERSIONS),
+            LibraryStmOrderedMap::new,
+            () -> new LibraryStmOrderedMap<>(LibraryStmProfile.TUNED)
     );
 
     @Test
@@ -58,12 +78,80 @@ class OrderedMapImplementationsTest {
         }
     }
 
+    @Test
+    void bulkLoadMatchesIndividualPuts() {
+        Integer[] keys = new Integer[1000];
+        Integer[] values = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 2;
+            values[i] = -i;
+        }
+        for (Supplier<OrderedMap<Integer, Integer>> factory : factories) {
+            try (OrderedMap<Integer, Integer> map = factory.get()) {
+                map.bulkLoad(new SortedEntries<>(keys, values));
+                assertEquals(1000, map.size());
+                assertEquals(-21, map.get(42));
+                assertNull(map.get(43));
+                assertEquals(List.of(100, 102, 104), List.copyOf(map.rangeQuery(99, true, 105, false).keySet()));
+                assertEquals(-21, map.put(42, 7));
+                assertEquals(7, map.remove(42));
+
+                map.bulkLoad(new SortedEntries<>(new Integer[] {1, 42}, new Integer[] {1, 42}));
+                assertEquals(1001, map.size());
+                assertEquals(42, map.get(42));
+            }
+            try (OrderedMap<Integer, Integer> map = factory.get()) {
+                TreeMap<Integer, Integer> descending = new TreeMap<>(Comparator.reverseOrder());
+                for (int i = 0; i < 100; i++) {
+                    descending.put(i, -i);
+                }
+                map.bulkLoad(descending);
+                assertEquals(100, map.size());
+                assertEquals(-5, map.get(5));
+                assertEquals(List.of(10, 11, 12), List.copyOf(map.rangeQuery(10, true, 12, true).keySet()));
+            }
+        }
+    }
+
+    @Test
+    void comparatorOrdersArrayKeys() {
+        Comparator<byte[]> unsigned = Arrays::compareUnsigned;
+        List<Function<Comparator<byte[]>, OrderedMap<byte[], Integer>>> ordered = List.of(
+                GlobalLockOrderedMap::new,
+                comparator -> new ShardedOrderedMap<>(ShardedOrderedMap.DEFAULT_SHARDS, comparator),
+                SkipListOrderedMap::new,
+                comparator -> new TinyStmOrderedMap<>(1, comparator),
+                comparator -> new TinyStmOrderedMap<>(TinyStmOrderedMap.DEFAULT_MAX_VERSIONS, comparator),
+                comparator -> new LibraryStmOrderedMap<>(LibraryStmProfile.DEFAULT, comparator)
+        );
+        byte[][] keys = new byte[300][];
+        Integer[] values = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new byte[] {(byte) (i >>> 8), (byte) i};
+            values[i] = i;
+        }
+        for (Function<Comparator<byte[]>, OrderedMap<byte[], Integer>> factory : ordered) {
+            try (OrderedMap<byte[], Integer> map = factory.apply(unsigned)) {
+                map.bulkLoad(new SortedEntries<>(keys, values, 200, unsigned));
+                for (int i = 200; i < keys.length; i++) {
+                    map.put(keys[i], i);
+                }
+                assertEquals(300, map.size());
+                assertEquals(130, map.get(keys[130]), "0x82 sorts after 0x7f only when compared unsigned");
+                assertEquals(IntStream.rangeClosed(120, 140).boxed().toList(),
+                        List.copyOf(map.rangeQuery(keys[120], true, keys[140], true).values()));
+                assertEquals(250, map.remove(keys[250]));
+                assertEquals(299, map.size());
+            }
+        }
+    }
+
     @Test
     void concurrentWritesMaintainSize() throws Exception {
         for (Supplier<OrderedMap<Integer, Integer>> factory : factories) {
             try (OrderedMap<Integer, Integer> map = factory.get()) {
                 ExecutorService pool = Executors.newFixedThreadPool(4);
-                List<Callable<Void>> tasks = java.util.stream.IntStream.range(0, 4)
+                List<Callable<Void>> tasks = IntStream.range(0, 4)
                         .<Callable<Void>>mapToObj(worker -> () -> {
                             int base = worker * 1000;
                             for (int i = 0; i < 250; i++) {
@@ -80,6 +168,56 @@ class OrderedMapImplementationsTest {
         }
     }
 
+    @Test
+    void atomicUpdatesConserveConcurrentTransfers() throws Exception {
+        int keys = 16;
+        List<Integer> all = IntStream.range(0, keys).boxed().toList();
+        for (Supplier<OrderedMap<Integer, Integer>> factory : factories) {
+            try (OrderedMap<Integer, Integer> map = factory.get()) {
+                if (map instanceof SkipListOrderedMap) {
+                    assertThrows(UnsupportedOperationException.class, () -> map.atomicUpdate(all, values -> values));
+                    continue;
+                }
+                for (int key = 0; key < keys; key++) {
+                    map.put(key, 100);
+                }
+                ExecutorService pool = Executors.newFixedThreadPool(4);
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int worker = 0; worker < 3; worker++) {
+                    SplittableRandom random = new SplittableRandom(worker);
+                    tasks.add(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            int from = random.nextInt(keys);
+                            int to = (from + 1 + random.nextInt(keys - 1)) % keys;
+                            map.atomicUpdate(List.of(from, to), values -> List.of(values.get(0) - 7,
+                                    values.get(1) + 7));
+                        }
+                        return null;
+                    });
+                }
+                tasks.add(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        map.atomicUpdate(all, values -> {
+                            assertEquals(keys * 100, values.stream().mapToInt(Integer::intValue).sum());
+                            return values;
+                        });
+                    }
+                    return null;
+                });
+                for (var result : pool.invokeAll(tasks)) {
+                    result.get();
+                }
+                pool.shutdown();
+                assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+                assertEquals(keys * 100, all.stream().mapToInt(map::get).sum());
+
+                map.atomicUpdate(List.of(0, keys), values -> Arrays.asList(null, values.get(0)));
+                assertNull(map.get(0));
+                assertEquals(keys, map.size());
+            }
+        }
+    }
+
     @Test
     void metricsSnapshotAvailable() {
         for (Supplier<OrderedMap<Integer, Integer>> factory : factories) {
@@ -89,4 +227,161 @@ class OrderedMapImplementationsTest {
             }
         }
     }
+
+    @Test
+    void stmMetricsAttributeCommitsToOperations() {
+        List<Supplier<OrderedMap<Integer, Integer>>> stmFactories = List.of(
+                TinyStmOrderedMap::new,
+                () -> new TinyStmOrderedMap<>(TinyStmOrderedMap.DEFAULT_MAX_VERSIONS),
+                LibraryStmOrderedMap::new,
+                () -> new LibraryStmOrderedMap<>(LibraryStmProfile.TUNED)
+        );
+        for (Supplier<OrderedMap<Integer, Integer>> factory : stmFactories) {
+            try (OrderedMap<Integer, Integer> map = factory.get()) {
+                map.put(1, 1);
+                map.put(2, 2);
+                map.get(1);
+                map.rangeQuery(0, true, 5, true);
+                MapMetrics metrics = map.snapshotMetrics();
+                assertEquals(4, metrics.stmCommits());
+                assertEquals(2, metrics.commits(MapOperation.PUT));
+                assertEquals(1, metrics.commits(MapOperation.GET));
+                assertEquals(1, metrics.commits(MapOperation.RANGE));
+                assertEquals(4, Arrays.stream(metrics.retryHistogram()).sum());
+            }
+        }
+    }
+
+    @Test
+    void tinyStmPutsNeverLoseAnUpdate() throws Exception {
+        int threads = 4;
+        int putsPerThread = 20_000;
+        try (TinyStmOrderedMap<Integer, Integer> map = new TinyStmOrderedMap<>()) {
+            map.put(0, 0);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * putsPerThread;
+                futures.add(pool.submit(() -> {
+                    List<Integer> replaced = new ArrayList<>(putsPerThread);
+                    for (int i = 1; i <= putsPerThread; i++) {
+                        replaced.add(map.put(0, base + i));
+                    }
+                    return replaced;
+                }));
+            }
+            // A put reads the value it replaces, so in any serial order each distinct value is replaced at most
+            // once; a value returned twice means two puts read it and both committed.
+            Set<Integer> replaced = new HashSet<>();
+            for (Future<List<Integer>> future : futures) {
+                for (Integer value : future.get(30, TimeUnit.SECONDS)) {
+                    assertTrue(replaced.add(value), "value " + value + " was replaced twice");
+                }
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+            assertTrue(replaced.add(map.get(0)));
+            assertEquals(threads * putsPerThread + 1, replaced.size());
+        }
+    }
+
+    @Test
+    void multiVersionRangeScansNeverAbort() throws Exception {
+        try (TinyStmOrderedMap<Integer, Integer> map = new TinyStmOrderedMap<>(TinyStmOrderedMap.DEFAULT_MAX_VERSIONS)) {
+            for (int i = 0; i < 512; i++) {
+                map.put(i, 0);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            AtomicBoolean running = new AtomicBoolean(true);
+            List<Callable<Void>> writers = IntStream.range(0, 2)
+                    .<Callable<Void>>mapToObj(worker -> () -> {
+                        int round = 1;
+                        while (running.get()) {
+                            for (int i = worker; i < 512; i += 2) {
+                                map.put(i, round);
+                            }
+                            round++;
+                        }
+                        return null;
+                    })
+                    .toList();
+            List<Future<Void>> futures = new ArrayList<>();
+            writers.forEach(writer -> futures.add(pool.submit(writer)));
+            for (int scan = 0; scan < 2_000; scan++) {
+                assertEquals(256, map.rangeQuery(0, true, 255, true).size());
+            }
+            running.set(false);
+            for (Future<Void> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+            MapMetrics metrics = map.snapshotMetrics();
+            assertEquals(2_000, metrics.commits(MapOperation.RANGE));
+            assertEquals(0, metrics.aborts(MapOperation.RANGE));
+        }
+    }
+
+    @Test
+    void libraryStmDoesNotCountSpeculativeRerunsAsAborts() {
+        for (LibraryStmProfile profile : LibraryStmProfile.values()) {
+            try (LibraryStmOrderedMap<Integer, Integer> map = new LibraryStmOrderedMap<>(profile)) {
+                for (int i = 0; i < 512; i++) {
+                    map.put(i, i);
+                }
+                for (int scan = 0; scan < 8; scan++) {
+                    assertEquals(512, map.rangeQuery(null, true, null, true).size());
+                }
+                MapMetrics metrics = map.snapshotMetrics();
+                assertEquals(0, metrics.stmAborts(), profile.id());
+                assertEquals(0, metrics.abortedNanos(), profile.id());
+            }
+        }
+    }
+
+    @Test
+    void snapshotReadsOutnumberingTheSlotsStillNeverAbort() throws Exception {
+        int readers = 8 * Runtime.getRuntime().availableProcessors() + 1;
+        CountDownLatch inside = new CountDownLatch(readers);
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadLocal<Boolean> park = ThreadLocal.withInitial(() -> false);
+        // Each reader blocks on its first key comparison, inside its transaction, until all of them are.
+        Comparator<Integer> parking = (left, right) -> {
+            if (park.get()) {
+                park.set(false);
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Integer.compare(left, right);
+        };
+        try (TinyStmOrderedMap<Integer, Integer> map =
+                     new TinyStmOrderedMap<>(TinyStmOrderedMap.DEFAULT_MAX_VERSIONS, parking)) {
+            for (int i = 0; i < 16; i++) {
+                map.put(i, 0);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(readers);
+            List<Future<NavigableMap<Integer, Integer>>> scans = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                scans.add(pool.submit(() -> {
+                    park.set(true);
+                    return map.rangeQuery(0, true, 15, true);
+                }));
+            }
+            assertTrue(inside.await(10, TimeUnit.SECONDS));
+            map.put(7, 1);
+            release.countDown();
+            for (Future<NavigableMap<Integer, Integer>> scan : scans) {
+                assertEquals(0, scan.get(10, TimeUnit.SECONDS).get(7));
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+            MapMetrics metrics = map.snapshotMetrics();
+            assertEquals(readers, metrics.commits(MapOperation.RANGE));
+            assertEquals(0, metrics.aborts(MapOperation.RANGE));
+        }
+    }
 }
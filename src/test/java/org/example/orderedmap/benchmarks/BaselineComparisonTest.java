@@ -0,0 +1,66 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BaselineComparisonTest {
+
+    @Test
+    void mannWhitneyMatchesTheExactDistribution() {
+        double[] low = {1, 2, 3, 4};
+        double[] high = {5, 6, 7, 8};
+        assertEquals(2.0d / 70.0d, Statistics.mannWhitneyP(low, high), 1e-12);
+        assertEquals(1.0d, Statistics.mannWhitneyP(low, low), 1e-6);
+        assertEquals(0.1d, Statistics.minimumMannWhitneyP(3, 3), 1e-12);
+        assertEquals(0.975d, Statistics.normalCdf(1.959964d), 1e-6);
+    }
+
+    @Test
+    void confidenceIntervalUsesStudentsT() {
+        double[] values = {10, 12, 14};
+        assertEquals(2.0d, Statistics.standardDeviation(values), 1e-12);
+        assertEquals(4.303d * 2.0d / Math.sqrt(3.0d), Statistics.meanConfidenceHalfWidth(values), 1e-9);
+        assertEquals(2.0395d, Statistics.studentT975(31), 1e-3);
+        assertEquals(1.9799d, Statistics.studentT975(120), 1e-3);
+    }
+
+    @Test
+    void flagsSignificantThroughputDropsOnly(@TempDir Path tempDir) throws IOException {
+        Path baseline = write(tempDir.resolve("baseline.json"),
+                new double[] {1000, 1010, 990, 1005, 995}, new double[] {1000, 1010, 990, 1005, 995});
+        Path slower = write(tempDir.resolve("slower.json"),
+                new double[] {800, 810, 790, 805, 795}, new double[] {1000, 1010, 990, 1005, 995});
+        Path noisy = write(tempDir.resolve("noisy.json"),
+                new double[] {700, 1300, 990, 1005, 995}, new double[] {1000, 1010, 990, 1005, 995});
+
+        BaselineComparison regression = BaselineComparison.compare(baseline, slower, 0.05d, 0.05d);
+        assertTrue(regression.hasRegressions());
+        assertEquals(-0.2d, regression.cells().get(0).throughput().change(), 0.01d);
+
+        assertFalse(BaselineComparison.compare(baseline, noisy, 0.05d, 0.05d).hasRegressions());
+
+        Path report = tempDir.resolve("report.md");
+        regression.writeReport(report);
+        assertTrue(Files.readString(report).contains("**REGRESSION**"));
+    }
+
+    private static Path write(Path path, double[] throughputs, double[] p99s) throws IOException {
+        StringBuilder json = new StringBuilder("{\"runs\":[");
+        for (int i = 0; i < throughputs.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"map\":\"global\",\"workload\":\"mixed\",\"threads\":4,\"targetRate\":0,\"repeat\":")
+                    .append(i + 1).append(",\"opsPerSec\":").append(throughputs[i])
+                    .append(",\"latency\":{\"p99Micros\":").append(p99s[i]).append("}}");
+        }
+        return Files.writeString(path, json.append("]}").toString());
+    }
+}
@@ -1,13 +1,27 @@
 package org.example.orderedmap.benchmarks;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
+import java.util.SplittableRandom;
 
+import org.example.orderedmap.api.MapOperation;
+import org.example.orderedmap.trace.TraceWriter;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class BenchmarkRunnerTest {
 
@@ -34,7 +48,415 @@ class BenchmarkRunnerTest {
         RunResult run = result.runs().get(0);
         assertTrue(run.totalOperations() > 0);
         assertTrue(run.operationsPerSecond() > 0.0d);
+        assertTrue(run.memory().allocationKnown());
+        assertTrue(run.memory().gcCount() >= 0L);
         assertEquals(1, run.repeat());
         assertEquals(2, result.runs().get(1).repeat());
+        assertBreakdownAddsUp(run);
+    }
+
+    private static void assertBreakdownAddsUp(RunResult run) {
+        assertTrue(run.operationStats().size() > 1);
+        assertEquals(run.totalOperations(),
+                run.operationStats().stream().mapToLong(OperationStats::operations).sum());
+        assertEquals(run.latency().count(),
+                run.operationStats().stream().mapToLong(stats -> stats.latency().count()).sum());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pooledKeysOfEveryTypeKeepTheirOrder() {
+        for (String spec : List.of("long", "string:24", "bytes:20")) {
+            KeyType keyType = KeyType.parse(spec);
+            // Only the first 1000 keys are pooled; order must hold across the pooled and on-demand ranges.
+            KeyPool pool = new KeyPool(keyType, 70_000, 1_000, 1L);
+            Comparator<Object> order = keyType.comparator() != null
+                    ? keyType.comparator()
+                    : (left, right) -> ((Comparable<Object>) left).compareTo(right);
+            for (int i = 1; i < pool.keySpace(); i += 997) {
+                assertTrue(order.compare(pool.key(i - 1), pool.key(i)) < 0, spec + " at " + i);
+            }
+            assertEquals(spec, keyType.spec());
+            assertEquals(32, ((byte[]) pool.values(32).next(new SplittableRandom(1L))).length);
+            assertSame(pool.values(32), pool.values(32));
+        }
+        KeyPool sparse = new KeyPool(KeyType.INT, Integer.MAX_VALUE, 1_000, 1L);
+        assertEquals(Integer.MAX_VALUE, sparse.keySpace());
+        assertEquals(Integer.MAX_VALUE - 1, sparse.key(Integer.MAX_VALUE - 1));
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkConfig.builder()
+                .withKeySpace(Integer.MAX_VALUE).withInitialSize(Integer.MAX_VALUE).build());
+        assertEquals(KeyType.parse("bytes:16"), KeyType.parse("bytes"));
+        assertThrows(IllegalArgumentException.class, () -> KeyType.parse("string:8"));
+
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SHARDED, MapType.SKIPLIST, MapType.TINY_STM))
+                .withWorkloads(List.of(WorkloadProfile.RANGE_HEAVY, WorkloadProfile.builder("small-values")
+                        .withWeight(OperationType.GET, 1)
+                        .withWeight(OperationType.PUT, 1)
+                        .withValueSize(16)
+                        .build()))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(512)
+                .withKeySpace(1024)
+                .withKeyType(KeyType.parse("bytes:24"))
+                .withValueSize(64)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(200))
+                .build();
+        for (RunResult run : new BenchmarkRunner().runAll(config).runs()) {
+            assertTrue(run.totalOperations() > 0L, run.mapType().id());
+        }
+    }
+
+    @Test
+    void adaptiveRepeatsStopAtTheCapAndWarmupEndsOnceSteady() {
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.GLOBAL, MapType.SKIPLIST))
+                .withWorkloads(List.of(WorkloadProfile.READ_HEAVY))
+                .withThreadCounts(List.of(1))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ofSeconds(5))
+                .withWarmupWindow(Duration.ofMillis(20))
+                .withSteadyCv(1.0d)
+                .withRunDuration(Duration.ofMillis(100))
+                .withTargetCi(1e-9d)
+                .withMaxRepeats(3)
+                .build();
+
+        BenchmarkResult result = new BenchmarkRunner().runAll(config);
+        List<RunResult> runs = result.runs();
+        assertEquals(6, runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            assertEquals(i < 3 ? MapType.GLOBAL : MapType.SKIPLIST, runs.get(i).mapType());
+            assertEquals(i % 3 + 1, runs.get(i).repeat());
+            WarmupStats warmup = runs.get(i).warmup();
+            assertTrue(warmup.steady());
+            assertEquals(BenchmarkRunner.STEADY_WINDOWS, warmup.windows());
+            assertTrue(warmup.durationMillis() < 5_000L);
+        }
+        List<BenchmarkResult.CellStatistics> cells = result.cellStatistics();
+        assertEquals(2, cells.size());
+        for (BenchmarkResult.CellStatistics cell : cells) {
+            assertEquals(3, cell.repeats());
+            assertFalse(cell.converged());
+            assertTrue(cell.ciHalfWidth() > 0.0d && cell.ciHalfWidth() < Double.POSITIVE_INFINITY);
+        }
+    }
+
+    @Test
+    void openLoopChargesQueueingToTheIntendedStart() {
+        long paced = 1_000L;
+        long overCapacity = 100_000_000L;
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.GLOBAL))
+                .withWorkloads(List.of(WorkloadProfile.READ_HEAVY))
+                .withThreadCounts(List.of(1))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(400))
+                .withSampleInterval(Duration.ofMillis(100))
+                .withTargetRates(List.of(paced, overCapacity))
+                .withSloP99(Duration.ofMillis(100))
+                .build();
+
+        BenchmarkResult result = new BenchmarkRunner().runAll(config);
+        RunResult kept = run(result, paced);
+        RunResult behind = run(result, overCapacity);
+        // One operation per intended start: the schedule, not the map, sets the count.
+        assertTrue(kept.totalOperations() >= 380L && kept.totalOperations() <= 400L,
+                "paced operations " + kept.totalOperations());
+        assertEquals(kept.totalOperations(), kept.latency().count());
+        assertTrue(behind.operationsPerSecond() < overCapacity * BenchmarkResult.SUSTAINED_FRACTION);
+        // Service time is microseconds; a p99 this long is time spent waiting behind the schedule.
+        assertTrue(behind.latency().p99Micros() >= 100_000.0d, "over-capacity p99 " + behind.latency().p99Micros());
+        List<IntervalSample> series = behind.timeSeries();
+        assertEquals(4, series.size());
+        assertTrue(series.get(series.size() - 1).p99Micros() > series.get(0).p99Micros(),
+                "the backlog, and so p99, should grow across the run");
+
+        List<BenchmarkResult.SustainableRate> sustainable = result.sustainableRates();
+        assertEquals(1, sustainable.size());
+        assertEquals(paced, sustainable.get(0).maxRate());
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        result.printSummary(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String summary = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(summary.contains("Max sustainable rate (p99 <= 100000.0 us"), summary);
+        assertTrue(summary.contains(String.format("%-10s %-12s %-7d %-14s%n",
+                MapType.GLOBAL.id(), WorkloadProfile.READ_HEAVY.id(), 1, paced)), summary);
+    }
+
+    private static RunResult run(BenchmarkResult result, long targetRate) {
+        return result.runs().stream()
+                .filter(run -> run.targetRate() == targetRate)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void forkedCellsReportBackToTheParent() {
+        BenchmarkConfig config = BenchmarkConfig.fromArgs(new String[] {
+                "--maps", "global,sharded", "--workloads", "mixed", "--threads", "1",
+                "--initial-size", "256", "--key-space", "1024", "--warmup", "0s", "--duration", "1s",
+                "--sample-interval", "500ms", "--fork", "true", "--jvm-args", "-Xmx128m -XX:+UseSerialGC"});
+
+        List<RunResult> runs = new BenchmarkRunner().runAll(config).runs();
+        assertEquals(2, runs.size());
+        assertEquals(MapType.GLOBAL, runs.get(0).mapType());
+        assertEquals(MapType.SHARDED, runs.get(1).mapType());
+        for (RunResult run : runs) {
+            assertTrue(run.totalOperations() > 0L);
+            assertEquals(run.totalOperations(), run.latency().count());
+            assertEquals(2, run.timeSeries().size());
+            assertTrue(run.memory().allocationKnown());
+            assertBreakdownAddsUp(run);
+        }
+    }
+
+    @Test
+    void virtualWorkersShareRecordersWithoutLosingSamples() {
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.GLOBAL))
+                .withWorkloads(List.of(WorkloadProfile.MIXED))
+                .withThreadCounts(List.of(500))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(300))
+                .withSampleInterval(Duration.ofMillis(100))
+                .withWorkerMode(WorkerMode.VIRTUAL)
+                .withIoDelay(IoDelay.parse("exponential:1ms"))
+                .build();
+
+        RunResult run = new BenchmarkRunner().runAll(config).runs().get(0);
+        assertTrue(run.totalOperations() >= 500L);
+        assertEquals(run.totalOperations(), run.latency().count());
+        assertEquals(run.totalOperations(), run.timeSeries().stream().mapToLong(IntervalSample::operations).sum());
+    }
+
+    @Test
+    void profiledRunWritesAndSummarisesRecording(@TempDir Path tempDir) {
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SHARDED))
+                .withWorkloads(List.of(WorkloadProfile.RANGE_HEAVY))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(300))
+                .withProfile(true)
+                .withJsonOutput(tempDir.resolve("results.json"))
+                .build();
+
+        ProfileSummary profile = new BenchmarkRunner().runAll(config).runs().get(0).profile();
+        assertNotNull(profile);
+        assertTrue(Files.isRegularFile(Path.of(profile.recording())));
+        assertEquals(tempDir.toAbsolutePath(), Path.of(profile.recording()).getParent());
+        assertTrue(profile.rangeSizes().count() > 0L);
+        assertTrue(profile.rangeSizes().max() <= 1024L);
+    }
+
+    @Test
+    void footprintSeparatesPayloadFromStructure() {
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.GLOBAL, MapType.TINY_STM, MapType.SHARDED))
+                .withInitialSize(50_000)
+                .withKeySpace(50_000)
+                .build();
+
+        FootprintReport report = FootprintReport.measure(config);
+        assertTrue(report.boxedBytesPerEntry() > 0.0d);
+        FootprintReport.MapFootprint global = report.maps().get(0);
+        FootprintReport.MapFootprint stm = report.maps().get(1);
+        assertEquals(50_000, global.entries());
+        assertTrue(global.structureBytesPerEntry() > 16.0d && global.structureBytesPerEntry() < 128.0d,
+                "a TreeMap entry is a few references and a colour bit: " + global.structureBytesPerEntry());
+        assertTrue(stm.bytesPerEntry() > global.bytesPerEntry(), "a lock and version per key cost extra");
+        assertEquals(global.bytesPerEntry(), report.maps().get(2).bytesPerEntry(), global.bytesPerEntry() / 4.0d);
+        assertEquals(global.bytesPerEntry() / report.rawBytesPerEntry(), global.overhead(), 1e-9);
+    }
+
+    @Test
+    void timeSeriesCoversTheMeasurementPhase() {
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SHARDED))
+                .withWorkloads(List.of(WorkloadProfile.MIXED))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(500))
+                .withSampleInterval(Duration.ofMillis(100))
+                .build();
+
+        RunResult run = new BenchmarkRunner().runAll(config).runs().get(0);
+        List<IntervalSample> series = run.timeSeries();
+        assertEquals(5, series.size());
+        assertEquals(run.totalOperations(), series.stream().mapToLong(IntervalSample::operations).sum());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(i * 100L, series.get(i).startMillis());
+            assertTrue(series.get(i).operationsPerSecond() > 0.0d);
+            assertTrue(series.get(i).p99Micros() >= series.get(i).p50Micros());
+        }
+    }
+
+    @Test
+    void phasedWorkloadSwitchesMixAtEachBoundary() {
+        WorkloadProfile reads = WorkloadProfile.builder("reads").withWeight(OperationType.GET, 1).build();
+        WorkloadProfile writes = WorkloadProfile.builder("writes").withWeight(OperationType.PUT, 1).build();
+        WorkloadProfile phased = WorkloadProfile.builder("phased")
+                .withPhases(List.of(
+                        new WorkloadProfile.Phase(Duration.ofMillis(300), reads),
+                        new WorkloadProfile.Phase(Duration.ofMillis(300), writes)))
+                .build();
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SKIPLIST))
+                .withWorkloads(List.of(phased))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ofMillis(50))
+                .withRunDuration(Duration.ofSeconds(30))
+                .withSampleInterval(Duration.ofMillis(50))
+                .build();
+
+        RunResult run = new BenchmarkRunner().runAll(config).runs().get(0);
+        assertTrue(run.durationMillis() < 5_000L, "the schedule, not --duration, sets the length");
+        assertEquals(2, run.phases().size());
+        PhaseStats first = run.phases().get(0);
+        PhaseStats second = run.phases().get(1);
+        assertEquals(300L, second.startMillis());
+        assertEquals(run.totalOperations(), first.operations() + second.operations());
+        // Each worker reads the switch before choosing an operation, so every get belongs to the first phase.
+        assertEquals(first.operations(), operations(run, OperationType.GET));
+        assertEquals(second.operations(), operations(run, OperationType.PUT));
+        assertNull(first.recoveryMillis());
+        assertNotNull(second.recoveryMillis());
+        assertTrue(second.recoveryMillis() < 300L);
+    }
+
+    @Test
+    void sampledLatencyTimesOneInNAndCountsEveryOperation() {
+        BenchmarkConfig.Builder builder = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SKIPLIST))
+                .withWorkloads(List.of(WorkloadProfile.MIXED))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ofMillis(50))
+                .withRunDuration(Duration.ofMillis(200))
+                .withSampleInterval(Duration.ofMillis(50))
+                .withLatencySample(64);
+
+        RunResult run = new BenchmarkRunner().runAll(builder.build()).runs().get(0);
+        assertTrue(run.latency().count() > 0L);
+        // The untimed pass sets the count; the timed pass, about as long, samples 1 in 64 of its own.
+        assertTrue(run.latency().count() * 16L < run.totalOperations());
+        assertEquals(run.totalOperations(),
+                run.operationStats().stream().mapToLong(OperationStats::operations).sum());
+        assertFalse(run.timeSeries().isEmpty());
+        long overhead = TimerOverhead.calibrate();
+        assertTrue(overhead >= 0L && overhead < 10_000L, "timer overhead " + overhead);
+        assertThrows(IllegalArgumentException.class, () -> builder.withTargetRates(List.of(1_000L)).build());
+        assertThrows(IllegalArgumentException.class, () -> builder.withLatencySample(-1).build());
+    }
+
+    @Test
+    void transferWorkloadConservesTheTotalOnEveryAtomicMap() {
+        WorkloadProfile transfers = WorkloadProfile.builder("transfers")
+                .withWeight(OperationType.TRANSFER, 1)
+                .withWeight(OperationType.GET, 1)
+                .withBatchSize(OperationType.TRANSFER, 3)
+                .build();
+        BenchmarkConfig.Builder builder = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SHARDED, MapType.TINY_STM, MapType.LIBRARY_STM))
+                .withWorkloads(List.of(transfers))
+                .withThreadCounts(List.of(4))
+                .withInitialSize(64)
+                .withKeySpace(128)
+                .withKeyDistribution(KeyDistribution.parse("zipfian:0.99"))
+                .withWarmup(Duration.ofMillis(50))
+                .withRunDuration(Duration.ofMillis(200));
+
+        for (RunResult run : new BenchmarkRunner().runAll(builder.build()).runs()) {
+            assertTrue(operations(run, OperationType.TRANSFER) > 0L, run.mapType().id());
+            assertNotNull(run.invariant());
+            assertEquals(64L * 63L / 2L, run.invariant().expectedTotal());
+            assertTrue(run.invariant().held(), run.mapType().id());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withMapTypes(List.of(MapType.SKIPLIST)).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withMapTypes(List.of(MapType.GLOBAL)).withValueSize(16).build());
+    }
+
+    private static long operations(RunResult run, OperationType operation) {
+        return run.operationStats().stream()
+                .filter(stats -> stats.operation() == operation)
+                .mapToLong(OperationStats::operations)
+                .sum();
+    }
+
+    @Test
+    void recoveryIsTheFirstIntervalBackNearSteadyState() {
+        List<IntervalSample> series = List.of(
+                sample(0L, 1_000.0d), sample(100L, 200.0d), sample(200L, 700.0d),
+                sample(300L, 950.0d), sample(400L, 1_000.0d), sample(500L, 1_000.0d));
+        assertEquals(200L, PhaseStats.recoveryMillis(series, 100L, 600L));
+        assertNull(PhaseStats.recoveryMillis(series, 500L, 600L));
+        assertNull(PhaseStats.recoveryMillis(List.of(), 0L, 600L));
+    }
+
+    private static IntervalSample sample(long startMillis, double opsPerSecond) {
+        return new IntervalSample(startMillis, 100.0d, (long) (opsPerSecond / 10.0d), opsPerSecond,
+                1.0d, 2.0d, 3.0d, 4.0d);
+    }
+
+    @Test
+    void recordedTraceReplaysAtOriginalTiming(@TempDir Path tempDir) {
+        Path trace = tempDir.resolve("run.trace");
+        BenchmarkConfig.Builder base = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SKIPLIST))
+                .withWorkloads(List.of(WorkloadProfile.RANGE_HEAVY))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(200));
+        RunResult recorded = new BenchmarkRunner().runAll(base.withRecordTrace(trace).build()).runs().get(0);
+
+        BenchmarkConfig replay = base.withRecordTrace(null)
+                .withReplayTrace(trace)
+                .withReplayTiming(ReplayTiming.ORIGINAL)
+                .withRunDuration(Duration.ofSeconds(10))
+                .build();
+        RunResult replayed = new BenchmarkRunner().runAll(replay).runs().get(0);
+        assertEquals(recorded.totalOperations(), replayed.totalOperations());
+        assertEquals("replay:run.trace", replayed.workload().id());
+        assertEquals(KeyDistribution.TRACE, replayed.keyDistribution());
+        assertTrue(replayed.durationMillis() >= 150L, "original timing should stretch over the recorded span");
+    }
+
+    @Test
+    void replayRejectsAtomicUpdateRecords(@TempDir Path tempDir) throws IOException {
+        Path trace = tempDir.resolve("atomic.trace");
+        try (TraceWriter writer = new TraceWriter(trace, false)) {
+            writer.record(MapOperation.GET, 1);
+            writer.record(MapOperation.ATOMIC_UPDATE, 1);
+        }
+        BenchmarkConfig config = BenchmarkConfig.builder()
+                .withMapTypes(List.of(MapType.SKIPLIST))
+                .withThreadCounts(List.of(1))
+                .withInitialSize(16)
+                .withKeySpace(64)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(50))
+                .withReplayTrace(trace)
+                .withReplayTiming(ReplayTiming.FAST)
+                .build();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new BenchmarkRunner().runAll(config));
+        assertTrue(error.getMessage().contains("1 atomic update records"));
     }
 }
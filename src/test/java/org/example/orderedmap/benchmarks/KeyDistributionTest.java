@@ -0,0 +1,88 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class KeyDistributionTest {
+
+    private static final int KEY_SPACE = 10_000;
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void specsRoundTrip() {
+        for (String spec : new String[] {"uniform", "zipfian:0.99", "scrambled-zipfian:0.5", "hotspot:0.9:0.1",
+                "latest:0.8", "sequential"}) {
+            assertEquals(spec, KeyDistribution.parse(spec).spec());
+            assertEquals(spec, KeyDistribution.parse(KeyDistribution.parse(spec).spec()).spec());
+        }
+        assertEquals("zipfian:0.99", KeyDistribution.parse("Zipfian").spec());
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.parse("zipfian:1.0"));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.parse("hotspot:0.9"));
+        assertThrows(IllegalArgumentException.class, () -> KeyDistribution.parse("pareto"));
+    }
+
+    @Test
+    void zipfianConcentratesOnLowRanksAndScramblingSpreadsThem() {
+        long[] plain = histogram(KeyDistribution.parse("zipfian:0.99"), OperationType.GET);
+        long[] scrambled = histogram(KeyDistribution.parse("scrambled-zipfian:0.99"), OperationType.GET);
+        assertTrue(plain[0] > plain[1] && plain[1] > plain[10] && plain[10] > plain[1_000],
+                "zipfian popularity should fall with rank");
+        assertTrue(plain[0] > DRAWS / 20, "rank 0 should take several percent of the draws");
+        long hottestScrambled = 0L;
+        for (long count : scrambled) {
+            hottestScrambled = Math.max(hottestScrambled, count);
+        }
+        assertTrue(scrambled[0] < hottestScrambled, "scrambling should move the hottest key away from 0");
+        assertTrue(Math.abs(hottestScrambled - plain[0]) < plain[0] / 10, "scrambling keeps the popularity curve");
+    }
+
+    @Test
+    void hotspotSendsConfiguredShareToHotKeys() {
+        long[] counts = histogram(KeyDistribution.parse("hotspot:0.8:0.05"), OperationType.GET);
+        long hot = 0L;
+        for (int key = 0; key < KEY_SPACE / 20; key++) {
+            hot += counts[key];
+        }
+        assertEquals(0.8d, hot / (double) DRAWS, 0.01d);
+    }
+
+    @Test
+    void sequentialAndLatestInterleaveWorkers() {
+        KeyDistribution sequential = KeyDistribution.parse("sequential");
+        KeyDistribution.KeyGenerator first = sequential.newGenerator(8, 0, 0, 2);
+        KeyDistribution.KeyGenerator second = sequential.newGenerator(8, 0, 1, 2);
+        SplittableRandom random = new SplittableRandom(1L);
+        int[] expectedFirst = {0, 2, 4, 6, 0};
+        for (int expected : expectedFirst) {
+            assertEquals(expected, first.nextKey(OperationType.GET, random));
+        }
+        assertEquals(1, second.nextKey(OperationType.PUT, random));
+
+        KeyDistribution.KeyGenerator latest = KeyDistribution.parse("latest").newGenerator(KEY_SPACE, 100, 1, 4);
+        assertEquals(101, latest.nextKey(OperationType.PUT, random));
+        assertEquals(105, latest.nextKey(OperationType.PUT, random));
+        long nearFrontier = 0L;
+        for (int i = 0; i < DRAWS; i++) {
+            int key = latest.nextKey(OperationType.GET, random);
+            assertTrue(key >= 0 && key < KEY_SPACE);
+            if (key <= 108 && key >= 100) {
+                nearFrontier++;
+            }
+        }
+        assertTrue(nearFrontier > DRAWS / 4, "reads should favour keys just behind the frontier");
+    }
+
+    private static long[] histogram(KeyDistribution distribution, OperationType operation) {
+        KeyDistribution.KeyGenerator generator = distribution.newGenerator(KEY_SPACE, 0, 0, 1);
+        SplittableRandom random = new SplittableRandom(42L);
+        long[] counts = new long[KEY_SPACE];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[generator.nextKey(operation, random)]++;
+        }
+        return counts;
+    }
+}
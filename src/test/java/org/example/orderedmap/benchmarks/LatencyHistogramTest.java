@@ -0,0 +1,48 @@
+package org.example.orderedmap.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.totalCount());
+        assertEquals(49, histogram.valueAtQuantile(0.50d));
+        assertEquals(99, histogram.valueAtQuantile(1.0d));
+        assertEquals(49.5d, histogram.meanNanos(), 1e-9);
+    }
+
+    @Test
+    void largeValuesStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1_000; value <= 10_000_000; value *= 10) {
+            histogram.record(value);
+        }
+        for (int i = 1; i <= 5; i++) {
+            long expected = (long) Math.pow(10, i + 2);
+            long reported = histogram.valueAtQuantile(i / 5.0d);
+            assertTrue(reported >= expected && reported <= expected + expected / 64, "reported " + reported);
+        }
+        assertEquals(10_000_000, histogram.maxNanos());
+    }
+
+    @Test
+    void mergeCombinesCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(5_000);
+        second.record(120_000_000_000L);
+        first.merge(second);
+        assertEquals(3, first.totalCount());
+        assertEquals(120_000_000_000L, first.maxNanos());
+        assertEquals(120_000_000_000L, first.valueAtQuantile(1.0d));
+        assertEquals(3, first.buckets().stream().mapToLong(bucket -> bucket[1]).sum());
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.orderedmap.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.example.orderedmap.api.OrderedMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class MapTypeTest {
+
+    @Test
+    void parsesParameterisedSpecs() {
+        MapType wide = MapType.fromId("Sharded:shards=64");
+        assertEquals("sharded:shards=64", wide.id());
+        assertEquals(Map.of("shards", "64"), wide.parameters());
+        assertEquals(Map.of("shards", "16"), MapType.SHARDED.parameters());
+        assertNotEquals(MapType.SHARDED, wide);
+        assertEquals(MapType.SHARDED, MapType.fromId("sharded"));
+        assertEquals(List.of(MapType.GLOBAL, MapType.fromId("tinystm:versions=4")),
+                MapType.parseList("global, tinystm:versions=4"));
+        try (OrderedMap<Integer, Integer> map = wide.create()) {
+            for (int i = 0; i < 256; i++) {
+                map.put(i, i);
+            }
+            assertEquals(10, map.rangeQuery(100, true, 110, false).size());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> MapType.fromId("sharded:shards=48"));
+        assertThrows(IllegalArgumentException.class, () -> MapType.fromId("sharded:shards"));
+        assertThrows(IllegalArgumentException.class, () -> MapType.fromId("global:shards=4"));
+        assertThrows(IllegalArgumentException.class, () -> MapType.fromId("stm:profile=fastest"));
+        assertThrows(IllegalArgumentException.class, () -> MapType.fromId("btree"));
+    }
+
+    @Test
+    void benchmarksProvidersFoundOnTheClassPath() {
+        MapType plugged = MapType.fromId("synchronized");
+        assertTrue(MapType.all().contains(plugged));
+        assertTrue(MapType.all().indexOf(plugged) > MapType.all().indexOf(MapType.LIBRARY_STM),
+                "built-in maps come first");
+
+        BenchmarkConfig.Builder builder = BenchmarkConfig.builder()
+                .withMapTypes(List.of(plugged, MapType.fromId("sharded:shards=2")))
+                .withWorkloads(List.of(WorkloadProfile.MIXED))
+                .withThreadCounts(List.of(2))
+                .withInitialSize(256)
+                .withKeySpace(1024)
+                .withWarmup(Duration.ZERO)
+                .withRunDuration(Duration.ofMillis(200));
+        List<RunResult> runs = new BenchmarkRunner().runAll(builder.build()).runs();
+        assertEquals("synchronized", runs.get(0).mapType().id());
+        assertEquals("sharded:shards=2", runs.get(1).mapType().id());
+        runs.forEach(run -> assertTrue(run.totalOperations() > 0L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.withKeyType(KeyType.parse("bytes:8")).build(),
+                "a provider without custom ordering cannot take byte[] keys");
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ScalabilityFitTest {
+
+    @Test
+    void recoversTheCoefficientsOfAnExactCurve() {
+        int[] threads = {1, 2, 4, 8, 16, 32};
+        double[] throughput = new double[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int n = threads[i];
+            throughput[i] = 1_000_000.0d * n / (1.0d + 0.05d * (n - 1) + 0.001d * n * (n - 1));
+        }
+
+        ScalabilityFit fit = ScalabilityFit.fit(MapType.SHARDED, WorkloadProfile.MIXED, threads, throughput,
+                List.of(64, 96));
+
+        assertEquals(1_000_000.0d, fit.lambda(), 1_000.0d);
+        assertEquals(0.05d, fit.sigma(), 1e-3);
+        assertEquals(0.001d, fit.kappa(), 1e-5);
+        assertTrue(fit.rSquared() > 0.9999d);
+        assertEquals(Math.sqrt(0.95d / 0.001d), fit.peakThreads(), 0.5d);
+        assertEquals(6, fit.measured().size());
+        double at96 = 1_000_000.0d * 96 / (1.0d + 0.05d * 95 + 0.001d * 96 * 95);
+        assertEquals(at96, fit.projected().get(1).opsPerSec(), at96 * 0.01d);
+    }
+
+    @Test
+    void needsThreeThreadCounts() {
+        assertNull(ScalabilityFit.fit(MapType.GLOBAL, WorkloadProfile.MIXED, new int[] {1, 1, 4},
+                new double[] {10.0d, 11.0d, 20.0d}, List.of(8)));
+    }
+}
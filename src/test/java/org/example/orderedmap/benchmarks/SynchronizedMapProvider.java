@@ -0,0 +1,68 @@
+package org.example.orderedmap.benchmarks;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.example.orderedmap.api.OrderedMap;
+import org.example.orderedmap.api.OrderedMapProvider;
+
+/**
+ * Stands in for an implementation outside the project: registered only in the test class path's
+ * {@code META-INF/services}, with no parameters and no capabilities.
+ */
+public final class SynchronizedMapProvider implements OrderedMapProvider {
+
+    @Override
+    public String id() {
+        return "synchronized";
+    }
+
+    @Override
+    public <K, V> OrderedMap<K, V> create(Map<String, String> parameters, Comparator<? super K> comparator) {
+        return new SynchronizedOrderedMap<>();
+    }
+
+    private static final class SynchronizedOrderedMap<K, V> implements OrderedMap<K, V> {
+        private final TreeMap<K, V> map = new TreeMap<>();
+
+        @Override
+        public synchronized V get(K key) {
+            return map.get(key);
+        }
+
+        @Override
+        public synchronized V put(K key, V value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public synchronized V remove(K key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public synchronized NavigableMap<K, V> rangeQuery(K fromKey, boolean fromInclusive, K toKey,
+                                                          boolean toInclusive) {
+            NavigableMap<K, V> view = map;
+            if (fromKey != null) {
+                view = view.tailMap(fromKey, fromInclusive);
+            }
+            if (toKey != null) {
+                view = view.headMap(toKey, toInclusive);
+            }
+            return new TreeMap<>(view);
+        }
+
+        @Override
+        public synchronized int size() {
+            return map.size();
+        }
+
+        @Override
+        public synchronized void clear() {
+            map.clear();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.orderedmap.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkloadProfileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void aliasSamplingMatchesWeights() {
+        WorkloadProfile profile = WorkloadProfile.builder("skewed")
+                .withWeight(OperationType.GET, 97)
+                .withWeight(OperationType.PUT, 2)
+                .withWeight(OperationType.RANGE, 1)
+                .build();
+        SplittableRandom random = new SplittableRandom(7L);
+        long[] counts = new long[OperationType.values().length];
+        int draws = 1_000_000;
+        for (int i = 0; i < draws; i++) {
+            counts[profile.chooseOperation(random).ordinal()]++;
+        }
+        assertEquals(0.97d, counts[OperationType.GET.ordinal()] / (double) draws, 0.002d);
+        assertEquals(0.02d, counts[OperationType.PUT.ordinal()] / (double) draws, 0.001d);
+        assertEquals(0L, counts[OperationType.REMOVE.ordinal()]);
+        assertEquals(0.01d, counts[OperationType.RANGE.ordinal()] / (double) draws, 0.001d);
+    }
+
+    @Test
+    void configFileDefinesCustomWorkloads() throws IOException {
+        Path config = tempDir.resolve("bench.json");
+        Files.writeString(config, """
+                {
+                  "maps": ["global"],
+                  "threads": [2],
+                  "initialSize": 1024,
+                  "keySpace": 4096,
+                  "workloadDefinitions": [
+                    {
+                      "id": "scan-pages",
+                      "weights": {"get": 30, "range": 70},
+                      "rangeWidth": "uniform:16:64",
+                      "batchSizes": {"range": 4},
+                      "keyDistribution": "zipfian:0.9",
+                      "valueSize": 48
+                    }
+                  ],
+                  "workloads": ["scan-pages", "read-heavy"]
+                }
+                """);
+        BenchmarkConfig parsed = BenchmarkConfig.fromArgs(new String[] {"--config", config.toString()});
+
+        assertEquals(4096, parsed.keySpace());
+        assertEquals(2, parsed.workloads().size());
+        WorkloadProfile custom = parsed.workloads().get(0);
+        assertEquals("scan-pages", custom.id());
+        assertEquals(0.7d, custom.weight(OperationType.RANGE), 1e-9);
+        assertEquals(4, custom.batchSize(OperationType.RANGE));
+        assertEquals(1, custom.batchSize(OperationType.GET));
+        assertEquals("uniform:16:64", custom.rangeWidth().spec());
+        assertEquals("zipfian:0.9", custom.keyDistribution().spec());
+        assertEquals(48, BenchmarkRunner.valueSizeFor(parsed, custom));
+        WorkloadProfile preset = parsed.workloads().get(1);
+        assertSame(WorkloadProfile.READ_HEAVY, preset);
+        assertNull(preset.rangeWidth());
+        assertNull(preset.valueSize());
+        assertEquals(0, BenchmarkRunner.valueSizeFor(parsed, preset));
+    }
+
+    @Test
+    void configFileDefinesPhasedWorkloads() throws IOException {
+        Path config = tempDir.resolve("phased.json");
+        Files.writeString(config, """
+                {
+                  "workloadDefinitions": [
+                    {"id": "ingest", "weights": {"put": 1}, "valueSize": 32},
+                    {
+                      "id": "daily",
+                      "phases": [
+                        {"workload": "read-heavy", "duration": "3s"},
+                        {"workload": "ingest", "duration": "1s", "keyDistribution": "hotspot:0.9:0.1"}
+                      ]
+                    }
+                  ],
+                  "workloads": ["daily"]
+                }
+                """);
+        BenchmarkConfig parsed = BenchmarkConfig.fromArgs(new String[] {"--config", config.toString()});
+
+        WorkloadProfile daily = parsed.workloads().get(0);
+        assertEquals(2, daily.phases().size());
+        assertEquals(Duration.ofSeconds(4), daily.scheduleLength());
+        assertSame(WorkloadProfile.READ_HEAVY, daily.phases().get(0).workload());
+        WorkloadProfile ingest = daily.phases().get(1).workload();
+        assertEquals("ingest", ingest.id());
+        assertEquals("hotspot:0.9:0.1", ingest.keyDistribution().spec());
+        assertEquals(32, ingest.valueSize());
+        // The first phase seeds the map, with the session's value size.
+        assertEquals(0, BenchmarkRunner.valueSizeFor(parsed, daily));
+        assertEquals(0.75d * 0.90d, daily.weight(OperationType.GET), 1e-9);
+        assertEquals(0.75d * 0.05d + 0.25d, daily.weight(OperationType.PUT), 1e-9);
+        assertNull(daily.keyDistribution());
+    }
+
+    @Test
+    void rejectsInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadProfile.builder("empty").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WorkloadProfile.builder("negative").withWeight(OperationType.GET, -1));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadProfile.RangeWidth.parse("uniform:8:4"));
+        assertThrows(IllegalArgumentException.class,
+                () -> BenchmarkConfig.builder().defineWorkload(WorkloadProfile.builder("mixed")
+                        .withWeight(OperationType.GET, 1).build()));
+        WorkloadProfile.Phase phase = new WorkloadProfile.Phase(Duration.ofSeconds(1), WorkloadProfile.MIXED);
+        WorkloadProfile phased = WorkloadProfile.builder("phased").withPhases(List.of(phase)).build();
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadProfile.Phase(Duration.ofSeconds(1), phased));
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadProfile.Phase(Duration.ZERO,
+                WorkloadProfile.MIXED));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadProfile.builder("both")
+                .withWeight(OperationType.GET, 1).withPhases(List.of(phase)).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WorkloadProfile.builder("solo").withBatchSize(OperationType.TRANSFER, 1));
+        assertEquals(2, WorkloadProfile.TRANSFER.batchSize(OperationType.TRANSFER));
+        assertFalse(WorkloadProfile.defaults().contains(WorkloadProfile.TRANSFER));
+    }
+}
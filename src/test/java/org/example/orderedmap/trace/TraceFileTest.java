@@ -0,0 +1,95 @@
+package org.example.orderedmap.trace;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.example.orderedmap.api.MapOperation;
+import org.example.orderedmap.locking.GlobalLockOrderedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tracingMapRecordsEveryCall() throws IOException {
+        Path path = tempDir.resolve("ops.trace");
+        try (TracingOrderedMap<Integer> map = new TracingOrderedMap<>(new GlobalLockOrderedMap<>(),
+                new TraceWriter(path, true))) {
+            map.put(7, 70);
+            map.get(7);
+            map.rangeQuery(3, true, 9, false);
+            map.rangeQuery(null, false, 5, true);
+            map.remove(7);
+            map.size();
+        }
+
+        TraceFile trace = TraceFile.open(path);
+        assertEquals(6L, trace.recordCount());
+        assertTrue(trace.hasTimestamps());
+        assertEquals(MapOperation.PUT, trace.operation(0));
+        assertEquals(7, trace.key(0));
+        assertEquals(MapOperation.GET, trace.operation(1));
+        assertEquals(MapOperation.RANGE, trace.operation(2));
+        assertEquals(3, trace.key(2));
+        assertEquals(9, trace.toKey(2));
+        assertEquals(TraceFormat.FROM_INCLUSIVE, trace.flags(2));
+        assertEquals(TraceFormat.FROM_UNBOUNDED | TraceFormat.TO_INCLUSIVE, trace.flags(3));
+        assertEquals(MapOperation.REMOVE, trace.operation(4));
+        assertEquals(MapOperation.SIZE, trace.operation(5));
+        for (long i = 1; i < trace.recordCount(); i++) {
+            assertTrue(trace.timestampNanos(i) >= trace.timestampNanos(i - 1));
+        }
+        long[] counts = trace.operationCounts();
+        assertEquals(2L, counts[MapOperation.RANGE.ordinal()]);
+    }
+
+    @Test
+    void untimedTracesAreCompact() throws IOException {
+        Path path = tempDir.resolve("untimed.trace");
+        try (TraceWriter writer = new TraceWriter(path, false)) {
+            for (int i = 0; i < 10_000; i++) {
+                writer.record(MapOperation.GET, i);
+            }
+        }
+        TraceFile trace = TraceFile.open(path);
+        assertFalse(trace.hasTimestamps());
+        assertEquals(10_000L, trace.recordCount());
+        assertEquals(9_999, trace.key(9_999));
+        assertEquals(TraceFormat.HEADER_BYTES + 10_000L * TraceFormat.recordBytes(false),
+                path.toFile().length());
+    }
+
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        Path path = tempDir.resolve("not-a-trace");
+        java.nio.file.Files.writeString(path, "definitely not a trace file");
+        assertThrows(IOException.class, () -> TraceFile.open(path));
+    }
+
+    @Test
+    void rejectsUnknownOpcodes() throws IOException {
+        Path path = tempDir.resolve("corrupt.trace");
+        try (TraceWriter writer = new TraceWriter(path, false)) {
+            writer.record(MapOperation.GET, 1);
+            writer.record(MapOperation.PUT, 2);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(TraceFormat.HEADER_BYTES + TraceFormat.recordBytes(false) + TraceFormat.OPERATION_OFFSET);
+            file.write(0xC8);
+        }
+        TraceFile trace = TraceFile.open(path);
+        assertEquals(MapOperation.GET, trace.operation(0));
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> trace.operation(1));
+        assertTrue(error.getMessage().contains("unknown opcode 200"));
+        assertThrows(IllegalStateException.class, trace::operationCounts);
+    }
+}
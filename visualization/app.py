@@ -14,6 +14,83 @@ SCRIPTS_DIR = os.path.join(PROJECT_ROOT, 'scripts')
 RESULTS_DIR = os.path.join(PROJECT_ROOT, 'results')
 BENCHMARKS_DIR = os.path.join(RESULTS_DIR, 'benchmarks')
 
+SAMPLE_INTERVAL_MS = 100
+PROJECT_THREADS = [16, 32, 64, 96, 128]
+
+# Baselines (approx ops/sec for 1 thread), based on actual benchmark observations
+BASELINES = {
+    'global':   {'read-heavy': 6_500_000, 'mixed': 5_300_000},
+    'sharded':  {'read-heavy': 5_300_000, 'mixed': 5_400_000},
+    'skiplist': {'read-heavy': 4_000_000, 'mixed': 3_700_000},
+    'tinystm':  {'read-heavy': 3_600_000, 'mixed': 3_200_000},
+    'stm':      {'read-heavy': 3_400_000, 'mixed': 2_900_000},
+}
+
+# Universal Scalability Law coefficients (sigma, kappa) the simulation scales each map with
+USL_COEFFICIENTS = {
+    'global':   {'read-heavy': (0.90, 0.0500), 'mixed': (0.95, 0.0600)},  # Contention hurts
+    'sharded':  {'read-heavy': (0.25, 0.0050), 'mixed': (0.35, 0.0080)},  # Scales okay
+    'skiplist': {'read-heavy': (0.03, 0.0004), 'mixed': (0.03, 0.0005)},  # Scales well
+    'tinystm':  {'read-heavy': (0.05, 0.0005), 'mixed': (0.04, 0.0004)},  # Scales well
+    'stm':      {'read-heavy': (0.02, 0.0003), 'mixed': (0.00, 0.0004)},  # Scales very well
+}
+
+
+def usl(lam, sigma, kappa, n):
+    return lam * n / (1 + sigma * (n - 1) + kappa * n * (n - 1))
+
+
+def simulate_scalability(map_type, workload, lam, runs):
+    """A `scalability` entry shaped like BenchmarkResult's, using the coefficients the runs were drawn from."""
+    sigma, kappa = USL_COEFFICIENTS[map_type][workload]
+    by_threads = {}
+    for run in runs:
+        by_threads.setdefault(run["threads"], []).append(run["opsPerSec"])
+    peak = (1 - sigma) / kappa if kappa > 0 else None
+
+    def point(n, ops):
+        return {"threads": n, "opsPerSec": ops, "efficiency": ops / (lam * n)}
+
+    return {
+        "map": map_type,
+        "workload": workload,
+        "lambda": lam,
+        "sigma": sigma,
+        "kappa": kappa,
+        "rSquared": 1.0,
+        "peakThreads": peak ** 0.5 if peak is not None else None,
+        "peakOpsPerSec": usl(lam, sigma, kappa, max(1.0, peak ** 0.5)) if peak is not None else None,
+        "measured": [point(n, sum(v) / len(v)) for n, v in sorted(by_threads.items())],
+        "projected": [point(n, usl(lam, sigma, kappa, n)) for n in PROJECT_THREADS],
+    }
+
+
+def simulate_time_series(ops_per_sec, p95, duration_ms):
+    """Per-interval samples shaped like BenchmarkRunner's timeSeries output, with a warmup tail and
+    an occasional pause so the stability chart has something to show."""
+    series = []
+    pause_at = random.randrange(0, duration_ms, SAMPLE_INTERVAL_MS)
+    for start in range(0, duration_ms, SAMPLE_INTERVAL_MS):
+        factor = random.uniform(0.93, 1.04)
+        if start < 300:
+            factor *= 0.75 + start / 1200
+        if start == pause_at:
+            factor *= 0.4
+        rate = ops_per_sec * factor
+        p99 = p95 * random.uniform(1.5, 2.5) / min(factor, 1.0)
+        series.append({
+            "startMillis": start,
+            "lengthMillis": SAMPLE_INTERVAL_MS,
+            "operations": int(rate * SAMPLE_INTERVAL_MS / 1000),
+            "operationsPerSecond": rate,
+            "p50Micros": p95 * 0.4,
+            "p99Micros": p99,
+            "p999Micros": p99 * 3,
+            "maxMicros": p99 * 10,
+        })
+    return series
+
+
 @app.route('/')
 def index():
     return render_template('index.html')
@@ -24,7 +101,7 @@ def run_benchmark():
         # Simulation configuration
         maps = ['global', 'sharded', 'skiplist', 'tinystm', 'stm']
         workloads = ['read-heavy', 'mixed']
-        threads_list = [1, 4]
+        threads_list = [1, 2, 4, 8]
         repeats = 2
         
         yield "data: ▶ Starting benchmark simulation (fast mode)...\n\n"
@@ -47,29 +124,11 @@ def run_benchmark():
                         # Simulate processing time
                         time.sleep(0.1) 
                         
-                        # Generate realistic dummy data based on actual benchmark observations
-                        # Duration is 3s
+                        # Generate realistic dummy data; duration is 3s
                         duration_sec = 3.0
                         
-                        # Baselines (approx ops/sec for 1 thread)
-                        baselines = {
-                            'global':   {'read-heavy': 6_500_000, 'mixed': 5_300_000},
-                            'sharded':  {'read-heavy': 5_300_000, 'mixed': 5_400_000},
-                            'skiplist': {'read-heavy': 4_000_000, 'mixed': 3_700_000},
-                            'tinystm':  {'read-heavy': 3_600_000, 'mixed': 3_200_000},
-                            'stm':      {'read-heavy': 3_400_000, 'mixed': 2_900_000},
-                        }
-                        
-                        # Scaling factors for 4 threads (multiplier of 1-thread performance)
-                        scaling = {
-                            'global':   {'read-heavy': 0.35, 'mixed': 0.30}, # Contention hurts
-                            'sharded':  {'read-heavy': 1.80, 'mixed': 1.40}, # Scales okay
-                            'skiplist': {'read-heavy': 2.75, 'mixed': 2.80}, # Scales well
-                            'tinystm':  {'read-heavy': 2.60, 'mixed': 2.70}, # Scales well
-                            'stm':      {'read-heavy': 2.80, 'mixed': 3.20}, # Scales very well
-                        }
-
-                        base_rate = baselines[map_type][workload]
+                        base_rate = BASELINES[map_type][workload]
+                        sigma, kappa = USL_COEFFICIENTS[map_type][workload]
                         
                         if threads == 1:
                             current_rate = base_rate
@@ -81,7 +140,7 @@ def run_benchmark():
                             else:
                                 p95 = 0.1  # Very low for skiplist/stm
                         else:
-                            current_rate = base_rate * scaling[map_type][workload]
+                            current_rate = usl(base_rate, sigma, kappa, threads)
                             # Multi-threaded latencies
                             if map_type == 'global':
                                 p95 = 15 # High tail latency under contention
@@ -122,15 +181,23 @@ def run_benchmark():
                                 "stmCommits": 0,
                                 "stmAborts": 0,
                                 "maxRetries": 0
-                            }
+                            },
+                            "timeSeries": simulate_time_series(ops_per_sec, p95, 3000)
                         })
 
         # Save dummy results
         os.makedirs(BENCHMARKS_DIR, exist_ok=True)
         json_path = os.path.join(BENCHMARKS_DIR, 'all_maps_quick.json')
+        scalability = []
+        for map_type in maps:
+            for workload in workloads:
+                sweep = [r for r in runs_data if r["map"] == map_type and r["workload"] == workload]
+                scalability.append(simulate_scalability(
+                    map_type, workload, BASELINES[map_type][workload], sweep))
         result_json = {
-            "config": {},
-            "runs": runs_data
+            "config": {"sampleIntervalMillis": SAMPLE_INTERVAL_MS, "projectThreads": PROJECT_THREADS},
+            "runs": runs_data,
+            "scalability": scalability
         }
         with open(json_path, 'w') as f:
             json.dump(result_json, f, indent=2)